@@ -1,22 +1,50 @@
 package asm;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.objectweb.asm.ClassTooLargeException;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
 import org.objectweb.asm.MethodTooLargeException;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodNode;
 
 import static jvm.StandardAttribute.StackMapTable;
 import static jynx.Global.*;
+import static jynx.Message.M411;
+import static jynx.Message.M632;
 
 import jynx.Access;
+import jynx.GlobalOption;
 import jynx2asm.TypeHints;
 
 public class ASMClassNode extends JynxClassNode {
 
+    private static final int MAX_LDC_INDEX = 255;
+    
     private final ClassWriter cw;
+    private final WideJumps wide;
+    private final ClassNode deferred;
 
-    private ASMClassNode(Access accessname, ClassWriter cw, TypeHints hints) {
-        super(accessname, cw, hints);
+    private ASMClassNode(Access accessname, ClassWriter cw, WideJumps wide, TypeHints hints) {
+        super(accessname, wide, hints);
+        this.cw = cw;
+        this.wide = wide;
+        this.deferred = null;
+    }
+    
+    // class is built as a ClassNode so that ldc constants can be counted before ClassWriter is used
+    private ASMClassNode(Access accessname, ClassWriter cw, WideJumps wide, ClassNode deferred,
+            TypeHints hints) {
+        super(accessname, deferred, hints);
         this.cw = cw;
+        this.wide = wide;
+        this.deferred = deferred;
     }
     
     public static ASMClassNode getInstance(Access accessname, boolean usestack) {
@@ -28,18 +56,74 @@ public class ASMClassNode extends JynxClassNode {
         }
         TypeHints hints = new TypeHints();
         JynxClassWriter cw = new JynxClassWriter(cwflags, hints);
-        return new ASMClassNode(accessname, cw, hints);
+        // inverted jump round goto_w needs a frame if StackMapTable is supplied
+        boolean widencond = !usestack || !accessname.jvmVersion().supports(StackMapTable);
+        WideJumps wide = new WideJumps(cw, widencond);
+        if (OPTION(GlobalOption.LDC_BY_FREQUENCY)) {
+            return new ASMClassNode(accessname, cw, wide, new ClassNode(), hints);
+        }
+        return new ASMClassNode(accessname, cw, wide, hints);
+    }
+
+    @Override
+    protected void prepareMethod(MethodNode mnode) {
+        if (deferred == null) {
+            wide.plan(mnode);
+        }
     }
 
     @Override
     public byte[] toByteArray() {
         byte[] ba = null;
         try {
+            if (deferred != null) {
+                seedConstants();
+                for (MethodNode mnode:deferred.methods) {
+                    wide.plan(mnode);
+                }
+                deferred.accept(wide);
+            }
             ba = cw.toByteArray();
         } catch (ClassTooLargeException | MethodTooLargeException ex) {
             LOG(ex);
+        } catch (TypeNotPresentException ex) {
+            LOG(M411,ex.typeName()); // "type %s not found"
         }
         return ba;
     }
     
+    private static boolean isTwoSlot(Object cst) {
+        if (cst instanceof ConstantDynamic) {
+            return ((ConstantDynamic)cst).getSize() == 2;
+        }
+        return cst instanceof Long || cst instanceof Double;
+    }
+    
+    // constants added to an empty constant pool in order of decreasing use by ldc
+    private void seedConstants() {
+        Map<Object,Integer> counts = new LinkedHashMap<>(); // so order of equal counts is reproducible
+        for (MethodNode mnode:deferred.methods) {
+            for (AbstractInsnNode insn:mnode.instructions) {
+                if (insn.getType() == AbstractInsnNode.LDC_INSN) {
+                    Object cst = ((LdcInsnNode)insn).cst;
+                    if (!isTwoSlot(cst)) { // ldc2_w has 16 bit index
+                        counts.merge(cst, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        List<Map.Entry<Object,Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<Object,Integer>comparingByValue().reversed());
+        int seeded = 0;
+        for (Map.Entry<Object,Integer> entry:entries) {
+            int index = cw.newConst(entry.getKey());
+            if (index > MAX_LDC_INDEX) {
+                break;
+            }
+            ++seeded;
+        }
+        // "%d of %d constants loaded by ldc have been given a constant pool index below 256"
+        LOG(M632, seeded, entries.size());
+    }
+    
 }
@@ -1,6 +1,5 @@
 package asm;
 
-import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -19,6 +18,7 @@ import static jynx.ReservedWord.*;
 import static jynx2asm.NameDesc.*;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.Context;
 import jvm.JvmVersion;
@@ -184,7 +184,7 @@ public class JynxClassHdr implements ContextDependent, HasAccessFlags {
     }
 
     private void setInnerClass(Directive dir,Line line) {
-        EnumSet<AccessFlag> accflags = line.getAccFlags();
+        AccessFlags accflags = line.getAccFlags();
         ClassType classtype;
         switch (dir) {
             case dir_inner_class:
@@ -212,7 +212,7 @@ public class JynxClassHdr implements ContextDependent, HasAccessFlags {
         Optional<String> outerclass = line.optAfter(res_outer);
         Optional<String> innername = line.optAfter(res_innername);
         line.noMoreTokens();
-        accflags.addAll(classtype.getMustHave4Inner(jvmVersion));
+        accflags = accflags.with(classtype.getMustHave4Inner(jvmVersion));
         Access accessname = Access.getInstance(accflags, jvmVersion, innerclass,classtype);
         accessname.check4InnerClass();
         int flags = accessname.getAccess();
@@ -7,6 +7,7 @@ import org.objectweb.asm.tree.analysis.Analyzer;
 import org.objectweb.asm.tree.analysis.AnalyzerException;
 import org.objectweb.asm.tree.analysis.BasicValue;
 import org.objectweb.asm.tree.analysis.BasicVerifier;
+import org.objectweb.asm.tree.analysis.Frame;
 import org.objectweb.asm.tree.analysis.Interpreter;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
@@ -20,6 +21,8 @@ import org.objectweb.asm.util.TraceClassVisitor;
 import static jynx.ClassType.RECORD;
 import static jynx.Global.*;
 import static jynx.GlobalOption.TRACE;
+import static jynx.GlobalOption.VALIDATION_FAST;
+import static jynx.GlobalOption.VALIDATION_STANDARD;
 import static jynx.Message.*;
 
 import classfile.ClassFileClassNode;
@@ -29,7 +32,9 @@ import jynx.Access;
 import jynx.ClassType;
 import jynx.Directive;
 import jynx.GlobalOption;
+import jynx.jfr.MethodEvent;
 import jynx2asm.ClassChecker;
+import jynx2asm.DeferredClassChecker;
 import jynx2asm.Line;
 import jynx2asm.ObjectLine;
 import jynx2asm.TypeHints;
@@ -46,19 +51,22 @@ public abstract class JynxClassNode {
     
     private final TypeHints hints;
     
+    private final boolean analyze;
 
     protected JynxClassNode(Access accessname, ClassVisitor basecv, TypeHints hints) {
         this.hints = hints;
+        ClassVisitor tracecv = basecv;
         if (OPTION(TRACE)) {
             Printer printer = new ASMifier();
             PrintWriter pw = new PrintWriter(System.out);
-            TraceClassVisitor tcv = new TraceClassVisitor(basecv, printer, pw);
-            this.cv = new CheckClassAdapter(tcv, false);
-        } else {
-            this.cv = OPTION(GlobalOption.VALHALLA) && SUPPORTS(Feature.value)?
-                    basecv:
-                    new CheckClassAdapter(basecv, false);
+            tracecv = new TraceClassVisitor(basecv, printer, pw);
         }
+        boolean valhalla = OPTION(GlobalOption.VALHALLA) && SUPPORTS(Feature.value);
+        boolean adapter = OPTION(TRACE) || !valhalla;
+        // CheckClassAdapter only repeats checks already done by Jynx and the Analyzer
+        adapter &= !OPTION(VALIDATION_STANDARD) && !OPTION(VALIDATION_FAST);
+        this.cv = adapter? new CheckClassAdapter(tracecv, false): tracecv;
+        this.analyze = !OPTION(VALIDATION_FAST);
         this.accessName = accessname;
         this.checker = ClassChecker.getInstance(accessname);
     }
@@ -89,6 +97,14 @@ public abstract class JynxClassNode {
         return  JynxMethodNode.getInstance(line,checker);
     }
 
+    public DeferredClassChecker deferredChecker() {
+        return checker.deferred();
+    }
+    
+    public JynxMethodNode getJynxMethodNode(Line line, DeferredClassChecker deferred) {
+        return  JynxMethodNode.getInstance(line,deferred);
+    }
+
     public JynxFieldNode getJynxFieldNode(Line line) {
          return JynxFieldNode.getInstance(line,checker);
     }
@@ -136,10 +152,27 @@ public abstract class JynxClassNode {
         fnode.accept(cv);
     }
     
-    public void acceptMethod(JynxMethodNode jmethodnode) {
+    public void acceptMethod(JynxMethodNode jmethodnode, MethodEvent parse) {
+        MethodNode mnode = verifyMethod(jmethodnode, parse);
+        if (mnode != null) {
+            acceptVerifiedMethod(mnode);
+        }
+    }
+    
+    // returns null if not verified; may be called concurrently for different methods
+    // parse was begun at the .method directive and is committed here when the method node is complete
+    public MethodNode verifyMethod(JynxMethodNode jmethodnode, MethodEvent parse) {
         MethodNode mnode = jmethodnode.visitEnd();
+        parse.commit(mnode);
         if (mnode == null) {
-            return;
+            return null;
+        }
+        if (OPTION(GlobalOption.OPTIMISE)) {
+            optimise(mnode);
+        }
+        if (!analyze) {
+            reuseLocals(mnode, null);
+            return mnode;
         }
         boolean verified = false;
         String verifiername;
@@ -152,6 +185,8 @@ public abstract class JynxClassNode {
             verifiername = "SIMPLE_VERIFIER";
         }
         Analyzer<BasicValue> analyzer = new Analyzer<>(verifier);
+        MethodEvent verify = new MethodEvent(MethodEvent.VERIFY);
+        verify.begin();
         try {
             analyzer.analyze(accessName.name(), mnode);
             verified =  true;
@@ -160,13 +195,55 @@ public abstract class JynxClassNode {
             // "Method %s failed %s check:%n    %s"
             LOG(e, M75, mnode.name, verifiername, emsg);
         }
+        verify.commit(mnode);
         if (verified) {
-            try {
-                mnode.accept(cv);
-            } catch (TypeNotPresentException ex) {
-                LOG(M411,ex.typeName()); // "type %s not found"
-            }
+            reuseLocals(mnode, OPTION(GlobalOption.BASIC_VERIFIER)? null: analyzer.getFrames());
+        }
+        return verified? mnode: null;
+    }
+    
+    // frames are used to type reference locals
+    private void reuseLocals(MethodNode mnode, Frame<BasicValue>[] frames) {
+        if (!OPTION(GlobalOption.SYMBOLIC_LOCAL) || !OPTION(GlobalOption.REUSE_LOCALS)) {
+            return;
+        }
+        int before = mnode.maxLocals;
+        if (!LocalAllocator.allocate(mnode, frames)) {
+            // "method %s%s locals not reallocated as it has a stack map, uses jsr, has local variable annotations or a local used with different types"
+            LOG(M647, mnode.name, mnode.desc);
+            return;
+        }
+        if (mnode.maxLocals < before) {
+            // "method %s%s max locals reduced from %d to %d"
+            LOG(M646, mnode.name, mnode.desc, before, mnode.maxLocals);
+        }
+    }
+    
+    private void optimise(MethodNode mnode) {
+        int before = PeepholeOptimiser.codeSize(mnode.instructions);
+        if (!PeepholeOptimiser.optimise(mnode)) {
+            LOG(M630, mnode.name, mnode.desc); // "method %s%s not optimised as it has a stack map or uses jsr"
+            return;
+        }
+        int after = PeepholeOptimiser.codeSize(mnode.instructions);
+        if (after < before) {
+            // "method %s%s code size reduced from %d to %d bytes"
+            LOG(M629, mnode.name, mnode.desc, before, after);
+        }
+    }
+    
+    protected void prepareMethod(MethodNode mnode) {}
+    
+    public void acceptVerifiedMethod(MethodNode mnode) {
+        MethodEvent emit = new MethodEvent(MethodEvent.EMIT);
+        emit.begin();
+        prepareMethod(mnode);
+        try {
+            mnode.accept(cv);
+        } catch (TypeNotPresentException ex) {
+            LOG(M411,ex.typeName()); // "type %s not found"
         }
+        emit.commit(mnode);
     }
     
     public void acceptModule(JynxModule jmodule) {
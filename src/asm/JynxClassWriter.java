@@ -2,6 +2,7 @@ package asm;
 
 import org.objectweb.asm.ClassWriter;
 
+import jynx.jfr.TypeLookupEvent;
 import jynx2asm.TypeHints;
 
 public class JynxClassWriter extends ClassWriter {
@@ -16,6 +17,18 @@ public class JynxClassWriter extends ClassWriter {
     @Override
     protected String getCommonSuperClass(final String type1, final String type2) {
         String common = hints.getCommonSuperClass(type1, type2);
-        return common == null?super.getCommonSuperClass(type1, type2):common;
+        if (common != null) {
+            return common;
+        }
+        TypeLookupEvent event = new TypeLookupEvent();
+        event.begin();
+        common = super.getCommonSuperClass(type1, type2);
+        if (event.shouldCommit()) {
+            event.type1 = type1;
+            event.type2 = type2;
+            event.common = common;
+            event.commit();
+        }
+        return common;
     }
 }
@@ -7,7 +7,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Label;
@@ -39,6 +38,7 @@ public class JynxCodeHdr implements ContextDependent {
     private final int errorsAtStart;
 
     private final StackLocals stackLocals;
+    private final InstList instlist;
 
     private final EnumMap<ReservedWord,Integer> options;
     private int printFlag = 0;
@@ -63,6 +63,7 @@ public class JynxCodeHdr implements ContextDependent {
         this.mnode = mnode;
         this.vars = new ArrayList<>();
         this.stackLocals = stackLocals;
+        this.instlist = new InstList(stackLocals);
         this.s2a = s2a;
         this.labelmap = s2a.getLabelMap();
         this.uniqueDirectives = new HashMap<>();
@@ -205,13 +206,13 @@ public class JynxCodeHdr implements ContextDependent {
     }
 
     private void visitInsn(Line line) {
-        InstList instlist = new InstList(stackLocals,line,options);
+        instlist.reset(line,options);
         s2a.getInsts(instlist);
         instlist.accept(mnode);
     }
     
     private void visitLineNumber(Line line) {
-        InstList instlist = new InstList(stackLocals,line,options);
+        instlist.reset(line,options);
         s2a.add(JvmOp.xxx_line, instlist);
         instlist.accept(mnode);
     }
@@ -257,7 +258,6 @@ public class JynxCodeHdr implements ContextDependent {
             frame_local.addAll(localStack.subList(0, n));
         }
         line.noMoreTokens();
-        Line dirline = line;
 
         List<Object> frame_stack = new ArrayList<>();
         try (LinesIterator lines = new LinesIterator(js,Directive.end_stack)) {
@@ -276,7 +276,7 @@ public class JynxCodeHdr implements ContextDependent {
                 }
             }
         }
-        stackLocals.visitFrame(frame_stack, frame_local, dirline);
+        stackLocals.visitFrame(frame_stack, frame_local);
         if (SUPPORTS(StackMapTable) && OPTION(USE_STACK_MAP) && !OPTION(SYMBOLIC_LOCAL)) {
             Object[] stackarr = frame_stack.toArray();
             Object[] localarr = frame_local.toArray();
@@ -306,10 +306,7 @@ public class JynxCodeHdr implements ContextDependent {
     }
     
     private void undefinedLabel(JynxLabel lr) {
-        String usage = lr.used()
-                .map(Line::toString)
-                .collect(Collectors.joining(System.lineSeparator()));
-        LOG(M266,lr.name(),usage); // "Label %s not defined; used in%n%s"
+        LOG(M266,lr.name(),lr.usage()); // "Label %s not defined; used in%n%s"
         mnode.visitLabel(lr.asmlabel());   // to prevent ASM error
     }
 
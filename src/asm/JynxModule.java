@@ -11,6 +11,7 @@ import static jynx.Message.*;
 import static jynx2asm.NameDesc.*;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.Context;
 import jvm.Feature;
@@ -52,7 +53,7 @@ public class JynxModule {
     }
     
     public static JynxModule getInstance(Line line, JvmVersion jvmversion) {
-        EnumSet<AccessFlag> flags = line.getAccFlags();
+        AccessFlags flags = line.getAccFlags();
         String name = line.nextToken().asName();
         Access accessname = Access.getInstance(flags, jvmversion, name, ClassType.MODULE_CLASS);
         MODULE_NAME.validate(name);
@@ -82,7 +83,7 @@ public class JynxModule {
     }
     
     private Access getAccess(Line line) {
-        EnumSet<AccessFlag> flags = line.getAccFlags();
+        AccessFlags flags = line.getAccFlags();
         String name = line.nextToken().asName();
         return Access.getInstance(flags, jvmVersion, name, ClassType.MODULE_CLASS);
     }
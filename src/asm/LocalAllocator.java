@@ -0,0 +1,398 @@
+package asm;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.Frame;
+
+import static org.objectweb.asm.Opcodes.*;
+
+// reassigns the slots of non parameter locals so that variables of the same type
+// whose live ranges do not overlap share a slot
+public class LocalAllocator {
+
+    private static class Variable {
+
+        private final int id;
+        private final int slot;
+        private final int size;
+        private final char kind;
+        private Type reftype; // only type stored if known
+        private int stores;
+        private int start;
+        private int end;
+        private int newslot;
+
+        private Variable(int id, int slot, char kind) {
+            this.id = id;
+            this.slot = slot;
+            this.size = kind == 'J' || kind == 'D'? 2: 1;
+            this.kind = kind;
+            this.reftype = null;
+            this.stores = 0;
+            this.start = Integer.MAX_VALUE;
+            this.end = -1;
+        }
+
+        private boolean isUsed() {
+            return end >= 0;
+        }
+        
+        private boolean canShareWith(Variable other) {
+            return kind == other.kind
+                    && (kind != 'A' || reftype != null && reftype.equals(other.reftype));
+        }
+    }
+
+    private static class Slot {
+
+        private final Variable first;
+        private final int slot;
+        private int end;
+
+        private Slot(Variable first, int slot) {
+            this.first = first;
+            this.slot = slot;
+            this.end = first.end;
+        }
+    }
+    
+    private final MethodNode mnode;
+    private final InsnList insns;
+    private final AbstractInsnNode[] insnarr;
+    private final Frame<BasicValue>[] frames;
+    private final int parmsz;
+    private final Map<Integer,Variable> variables;
+    private final List<Variable> varlist;
+    private final Map<Integer,LabelNode> labels;
+
+    private LocalAllocator(MethodNode mnode, Frame<BasicValue>[] frames) {
+        this.mnode = mnode;
+        this.insns = mnode.instructions;
+        this.insnarr = insns.toArray();
+        this.frames = frames;
+        int argsz = Type.getArgumentsAndReturnSizes(mnode.desc) >> 2; // includes this
+        this.parmsz = (mnode.access & ACC_STATIC) == 0? argsz: argsz - 1;
+        this.variables = new HashMap<>();
+        this.varlist = new ArrayList<>();
+        this.labels = new HashMap<>();
+    }
+
+    // frames are those of the SimpleVerifier if available and are used to type reference locals;
+    // returns false if locals cannot be reallocated (stack map supplied, uses jsr,
+    // local variable annotations or a local used with different types)
+    public static boolean allocate(MethodNode mnode, Frame<BasicValue>[] frames) {
+        LocalAllocator allocator = new LocalAllocator(mnode, frames);
+        if (!allocator.canAllocate() || !allocator.collect()) {
+            return false;
+        }
+        allocator.allocate();
+        return true;
+    }
+    
+    private boolean canAllocate() {
+        if (mnode.visibleLocalVariableAnnotations != null || mnode.invisibleLocalVariableAnnotations != null) {
+            return false;
+        }
+        for (AbstractInsnNode insn:insnarr) {
+            if (insn.getType() == AbstractInsnNode.FRAME) {
+                return false;
+            }
+            int opcode = insn.getOpcode();
+            if (opcode == JSR || opcode == RET) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static char kind(int opcode) {
+        switch (opcode) {
+            case ILOAD:
+            case ISTORE:
+            case IINC:
+                return 'I';
+            case LLOAD:
+            case LSTORE:
+                return 'J';
+            case FLOAD:
+            case FSTORE:
+                return 'F';
+            case DLOAD:
+            case DSTORE:
+                return 'D';
+            default:
+                return 'A';
+        }
+    }
+    
+    private static int varOf(AbstractInsnNode insn) {
+        switch (insn.getType()) {
+            case AbstractInsnNode.VAR_INSN:
+                return ((VarInsnNode)insn).var;
+            case AbstractInsnNode.IINC_INSN:
+                return ((IincInsnNode)insn).var;
+            default:
+                return -1;
+        }
+    }
+
+    private Variable variableOf(AbstractInsnNode insn) {
+        int var = varOf(insn);
+        return var < parmsz? null: variables.get(var);
+    }
+    
+    private static boolean isStore(int opcode) {
+        return opcode >= ISTORE && opcode <= ASTORE || opcode == IINC;
+    }
+    
+    private static boolean isLoad(int opcode) {
+        return opcode >= ILOAD && opcode <= ALOAD || opcode == IINC;
+    }
+    
+    private boolean collect() {
+        for (int i = 0; i < insnarr.length; ++i) {
+            AbstractInsnNode insn = insnarr[i];
+            int var = varOf(insn);
+            if (var < parmsz) {
+                continue;
+            }
+            int opcode = insn.getOpcode();
+            char kind = kind(opcode);
+            Variable variable = variables.get(var);
+            if (variable == null) {
+                variable = new Variable(varlist.size(), var, kind);
+                variables.put(var, variable);
+                varlist.add(variable);
+            } else if (variable.kind != kind) {
+                return false;
+            }
+            if (opcode == ASTORE) {
+                storedType(variable, i);
+            }
+        }
+        for (Variable variable:varlist) {
+            if (variables.containsKey(variable.slot + 1) && variable.size == 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a reference local is only shared if every store is of the same type
+    private void storedType(Variable variable, int index) {
+        Frame<BasicValue> frame = frames == null? null: frames[index];
+        Type type = frame == null? null: frame.getStack(frame.getStackSize() - 1).getType();
+        if (variable.stores == 0) {
+            variable.reftype = type;
+        } else if (!Objects.equals(variable.reftype, type)) {
+            variable.reftype = null;
+        }
+        ++variable.stores;
+    }
+    
+    private void allocate() {
+        BitSet[] live = liveness();
+        for (int i = 0; i < insnarr.length; ++i) {
+            for (int id = live[i].nextSetBit(0); id >= 0; id = live[i].nextSetBit(id + 1)) {
+                extend(varlist.get(id), i);
+            }
+            Variable variable = variableOf(insnarr[i]);
+            if (variable != null) {
+                extend(variable, i);
+            }
+        }
+        int next = colour();
+        for (AbstractInsnNode insn:insnarr) {
+            Variable variable = variableOf(insn);
+            if (variable == null) {
+                continue;
+            }
+            if (insn.getType() == AbstractInsnNode.VAR_INSN) {
+                ((VarInsnNode)insn).var = variable.newslot;
+            } else {
+                ((IincInsnNode)insn).var = variable.newslot;
+            }
+        }
+        adjustLocalVariables();
+        mnode.maxLocals = next;
+    }
+
+    private static void extend(Variable variable, int index) {
+        variable.start = Math.min(variable.start, index);
+        variable.end = Math.max(variable.end, index);
+    }
+    
+    // live in at each instruction; a handler is a successor of every instruction it covers
+    private BitSet[] liveness() {
+        int[][] successors = successors();
+        BitSet[] live = new BitSet[insnarr.length];
+        for (int i = 0; i < live.length; ++i) {
+            live[i] = new BitSet();
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = insnarr.length - 1; i >= 0; --i) {
+                BitSet in = new BitSet();
+                for (int succ:successors[i]) {
+                    in.or(live[succ]);
+                }
+                AbstractInsnNode insn = insnarr[i];
+                Variable variable = variableOf(insn);
+                if (variable != null) {
+                    int opcode = insn.getOpcode();
+                    if (isStore(opcode)) {
+                        in.clear(variable.id);
+                    }
+                    if (isLoad(opcode)) {
+                        in.set(variable.id);
+                    }
+                }
+                if (!in.equals(live[i])) {
+                    live[i] = in;
+                    changed = true;
+                }
+            }
+        }
+        return live;
+    }
+
+    private int[][] successors() {
+        List<List<Integer>> handlers = new ArrayList<>(insnarr.length);
+        for (int i = 0; i < insnarr.length; ++i) {
+            handlers.add(new ArrayList<>());
+        }
+        for (TryCatchBlockNode tcb:mnode.tryCatchBlocks) {
+            int handler = insns.indexOf(tcb.handler);
+            int end = insns.indexOf(tcb.end);
+            for (int i = insns.indexOf(tcb.start); i < end; ++i) {
+                handlers.get(i).add(handler);
+            }
+        }
+        int[][] successors = new int[insnarr.length][];
+        for (int i = 0; i < insnarr.length; ++i) {
+            List<Integer> succs = handlers.get(i);
+            addSuccessors(i, succs);
+            successors[i] = succs.stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return successors;
+    }
+
+    private void addSuccessors(int index, List<Integer> succs) {
+        AbstractInsnNode insn = insnarr[index];
+        switch (insn.getType()) {
+            case AbstractInsnNode.JUMP_INSN:
+                succs.add(insns.indexOf(((JumpInsnNode)insn).label));
+                if (insn.getOpcode() == GOTO) {
+                    return;
+                }
+                break;
+            case AbstractInsnNode.TABLESWITCH_INSN:
+                TableSwitchInsnNode table = (TableSwitchInsnNode)insn;
+                succs.add(insns.indexOf(table.dflt));
+                table.labels.forEach(label -> succs.add(insns.indexOf(label)));
+                return;
+            case AbstractInsnNode.LOOKUPSWITCH_INSN:
+                LookupSwitchInsnNode lookup = (LookupSwitchInsnNode)insn;
+                succs.add(insns.indexOf(lookup.dflt));
+                lookup.labels.forEach(label -> succs.add(insns.indexOf(label)));
+                return;
+            default:
+                int opcode = insn.getOpcode();
+                if (opcode >= IRETURN && opcode <= RETURN || opcode == ATHROW) {
+                    return;
+                }
+                break;
+        }
+        if (index + 1 < insnarr.length) {
+            succs.add(index + 1);
+        }
+    }
+
+    // interval colouring in order of start of live range; returns max locals
+    private int colour() {
+        List<Variable> byStart = new ArrayList<>(varlist);
+        byStart.sort(Comparator.comparingInt(v -> v.start));
+        List<Slot> slots = new ArrayList<>();
+        int next = parmsz;
+        for (Variable variable:byStart) {
+            Slot free = null;
+            for (Slot slot:slots) {
+                if (slot.end < variable.start && slot.first.canShareWith(variable)) {
+                    free = slot;
+                    break;
+                }
+            }
+            if (free == null) {
+                free = new Slot(variable, next);
+                slots.add(free);
+                next += variable.size;
+            }
+            free.end = variable.end;
+            variable.newslot = free.slot;
+        }
+        return next;
+    }
+
+    private LabelNode labelBefore(int index) {
+        if (index < insnarr.length && insnarr[index].getType() == AbstractInsnNode.LABEL) {
+            return (LabelNode)insnarr[index];
+        }
+        return labels.computeIfAbsent(index, this::insertLabel);
+    }
+    
+    private LabelNode insertLabel(int index) {
+        LabelNode label = new LabelNode();
+        if (index < insnarr.length) {
+            insns.insertBefore(insnarr[index], label);
+        } else {
+            insns.add(label);
+        }
+        return label;
+    }
+    
+    // local variable entries are restricted to live range as slot may be shared
+    private void adjustLocalVariables() {
+        if (mnode.localVariables == null) {
+            return;
+        }
+        Iterator<LocalVariableNode> iter = mnode.localVariables.iterator();
+        while (iter.hasNext()) {
+            LocalVariableNode lvn = iter.next();
+            if (lvn.index < parmsz) {
+                continue;
+            }
+            Variable variable = variables.get(lvn.index);
+            if (variable == null || !variable.isUsed()) {
+                iter.remove();
+                continue;
+            }
+            lvn.index = variable.newslot;
+            lvn.start = labelBefore(variable.start);
+            lvn.end = labelBefore(variable.end + 1);
+        }
+    }
+
+}
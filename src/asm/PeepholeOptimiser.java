@@ -0,0 +1,616 @@
+package asm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import static org.objectweb.asm.Opcodes.*;
+
+// rewrites that preserve the stack at every label, so do not change verification
+public class PeepholeOptimiser {
+
+    private static final int MAX_PASSES = 16;
+    
+    private final MethodNode mnode;
+    private final InsnList insns;
+    private final Map<Integer,Integer> loads;
+    private final Set<Integer> debugvars;
+
+    private PeepholeOptimiser(MethodNode mnode) {
+        this.mnode = mnode;
+        this.insns = mnode.instructions;
+        this.loads = new HashMap<>();
+        this.debugvars = new HashSet<>();
+    }
+
+    // returns false if method cannot be optimised (stack map supplied or uses jsr)
+    public static boolean optimise(MethodNode mnode) {
+        PeepholeOptimiser optimiser = new PeepholeOptimiser(mnode);
+        if (!optimiser.canOptimise()) {
+            return false;
+        }
+        optimiser.optimise();
+        return true;
+    }
+
+    private boolean canOptimise() {
+        for (AbstractInsnNode insn:insns) {
+            switch (insn.getType()) {
+                case AbstractInsnNode.FRAME:
+                    return false;
+                default:
+                    int opcode = insn.getOpcode();
+                    if (opcode == JSR || opcode == RET) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+    
+    private void optimise() {
+        if (mnode.localVariables != null) {
+            for (LocalVariableNode lvn:mnode.localVariables) {
+                debugvars.add(lvn.index);
+            }
+        }
+        for (AbstractInsnNode insn:insns.toArray()) {
+            shortestConstant(insn);
+        }
+        boolean changed = true;
+        for (int i = 0; changed && i < MAX_PASSES; ++i) {
+            countLoads();
+            changed = false;
+            for (AbstractInsnNode insn:insns.toArray()) {
+                if (isInList(insn)) {
+                    changed |= rewrite(insn);
+                }
+            }
+            changed |= removeUnreachable();
+        }
+        removeEmptyTryCatch();
+    }
+
+    // removed or replaced instructions have no links
+    private boolean isInList(AbstractInsnNode insn) {
+        return insn.getNext() != null || insn.getPrevious() != null || insns.getFirst() == insn;
+    }
+    
+    private boolean rewrite(AbstractInsnNode insn) {
+        if (!isPlain(insn)) {
+            return false;
+        }
+        switch (insn.getType()) {
+            case AbstractInsnNode.JUMP_INSN:
+                return jump((JumpInsnNode)insn);
+            case AbstractInsnNode.VAR_INSN:
+                return store((VarInsnNode)insn);
+            default:
+                break;
+        }
+        int opcode = insn.getOpcode();
+        if (opcode == POP || opcode == POP2) {
+            return pushPop(insn);
+        }
+        return fold(insn);
+    }
+    
+    private static boolean isPlain(AbstractInsnNode insn) {
+        return insn.getOpcode() >= 0
+                && insn.visibleTypeAnnotations == null
+                && insn.invisibleTypeAnnotations == null;
+    }
+
+    // next instruction with no intervening label
+    private static AbstractInsnNode nextInsn(AbstractInsnNode insn) {
+        AbstractInsnNode next = insn.getNext();
+        while (next != null && next.getType() == AbstractInsnNode.LINE) {
+            next = next.getNext();
+        }
+        return next;
+    }
+    
+    private static AbstractInsnNode previousInsn(AbstractInsnNode insn) {
+        AbstractInsnNode previous = insn.getPrevious();
+        while (previous != null && previous.getType() == AbstractInsnNode.LINE) {
+            previous = previous.getPrevious();
+        }
+        return previous;
+    }
+    
+    private static AbstractInsnNode target(LabelNode label) {
+        AbstractInsnNode next = label;
+        while (next != null && next.getOpcode() < 0) {
+            next = next.getNext();
+        }
+        return next;
+    }
+    
+    private boolean jump(JumpInsnNode jump) {
+        int opcode = jump.getOpcode();
+        AbstractInsnNode next = jump.getNext();
+        while (next != null && next.getOpcode() < 0) {
+            if (next == jump.label) {
+                // jump to next instruction
+                replace(jump, popFor(opcode));
+                return true;
+            }
+            next = next.getNext();
+        }
+        AbstractInsnNode target = target(jump.label);
+        if (target == null || !isPlain(target)) {
+            return false;
+        }
+        int targetop = target.getOpcode();
+        if (targetop == GOTO) {
+            LabelNode label = ((JumpInsnNode)target).label;
+            if (label != jump.label && target(label) != target) {
+                jump.label = label;
+                return true;
+            }
+        } else if (opcode == GOTO && canMoveExit(jump, target)) {
+            insns.set(jump, new InsnNode(targetop));
+            return true;
+        }
+        return false;
+    }
+
+    // a moved return or athrow must be covered by the same exception handlers
+    private boolean canMoveExit(JumpInsnNode jump, AbstractInsnNode target) {
+        int targetop = target.getOpcode();
+        if (targetop == ATHROW) {
+            return mnode.tryCatchBlocks.isEmpty();
+        }
+        if (targetop < IRETURN || targetop > RETURN) {
+            return false;
+        }
+        for (TryCatchBlockNode tcbn:mnode.tryCatchBlocks) {
+            if (covers(tcbn, jump) != covers(tcbn, target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean covers(TryCatchBlockNode tcbn, AbstractInsnNode insn) {
+        int index = insns.indexOf(insn);
+        return insns.indexOf(tcbn.start) < index && index < insns.indexOf(tcbn.end);
+    }
+
+    private static AbstractInsnNode popFor(int opcode) {
+        switch (opcode) {
+            case GOTO:
+                return null;
+            case IF_ICMPEQ:
+            case IF_ICMPNE:
+            case IF_ICMPLT:
+            case IF_ICMPGE:
+            case IF_ICMPGT:
+            case IF_ICMPLE:
+            case IF_ACMPEQ:
+            case IF_ACMPNE:
+                return new InsnNode(POP2);
+            default:
+                return new InsnNode(POP);
+        }
+    }
+
+    private void replace(AbstractInsnNode insn, AbstractInsnNode replacement) {
+        if (replacement == null) {
+            insns.remove(insn);
+        } else {
+            insns.set(insn, replacement);
+        }
+    }
+    
+    private void countLoads() {
+        loads.clear();
+        for (AbstractInsnNode insn:insns) {
+            switch (insn.getType()) {
+                case AbstractInsnNode.VAR_INSN:
+                    int opcode = insn.getOpcode();
+                    if (opcode >= ILOAD && opcode <= ALOAD) {
+                        int var = ((VarInsnNode)insn).var;
+                        loads.merge(var, 1, Integer::sum);
+                        if (opcode == LLOAD || opcode == DLOAD) {
+                            loads.merge(var + 1, 1, Integer::sum);
+                        }
+                    }
+                    break;
+                case AbstractInsnNode.IINC_INSN:
+                    loads.merge(((IincInsnNode)insn).var, 1, Integer::sum);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    private boolean isDead(int var, boolean two) {
+        return !debugvars.contains(var)
+                && !loads.containsKey(var)
+                && (!two || !loads.containsKey(var + 1));
+    }
+    
+    // a store to a local variable that is never loaded is replaced by pop
+    private boolean store(VarInsnNode store) {
+        int opcode = store.getOpcode();
+        if (opcode < ISTORE || opcode > ASTORE) {
+            return false;
+        }
+        boolean two = opcode == LSTORE || opcode == DSTORE;
+        if (!isDead(store.var, two)) {
+            return false;
+        }
+        insns.set(store, new InsnNode(two? POP2: POP));
+        return true;
+    }
+    
+    private boolean pushPop(AbstractInsnNode pop) {
+        AbstractInsnNode push = previousInsn(pop);
+        if (push == null || !isPlain(push)) {
+            return false;
+        }
+        int size = pushSize(push);
+        if (size == 0 || size != (pop.getOpcode() == POP? 1: 2)) {
+            return false;
+        }
+        insns.remove(push);
+        insns.remove(pop);
+        return true;
+    }
+
+    // size of value pushed by an instruction with no side effects, else 0
+    private static int pushSize(AbstractInsnNode insn) {
+        int opcode = insn.getOpcode();
+        switch (opcode) {
+            case ACONST_NULL:
+            case ICONST_M1:
+            case ICONST_0:
+            case ICONST_1:
+            case ICONST_2:
+            case ICONST_3:
+            case ICONST_4:
+            case ICONST_5:
+            case FCONST_0:
+            case FCONST_1:
+            case FCONST_2:
+            case BIPUSH:
+            case SIPUSH:
+            case ILOAD:
+            case FLOAD:
+            case ALOAD:
+            case DUP:
+                return 1;
+            case LCONST_0:
+            case LCONST_1:
+            case DCONST_0:
+            case DCONST_1:
+            case LLOAD:
+            case DLOAD:
+            case DUP2:
+                return 2;
+            case LDC:
+                Object cst = ((LdcInsnNode)insn).cst;
+                if (cst instanceof Integer || cst instanceof Float || cst instanceof String) {
+                    return 1;
+                }
+                if (cst instanceof Long || cst instanceof Double) {
+                    return 2;
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+    
+    private static boolean isIntConstant(AbstractInsnNode insn) {
+        if (insn == null || !isPlain(insn)) {
+            return false;
+        }
+        int opcode = insn.getOpcode();
+        return opcode >= ICONST_M1 && opcode <= ICONST_5
+                || opcode == BIPUSH || opcode == SIPUSH
+                || opcode == LDC && ((LdcInsnNode)insn).cst instanceof Integer;
+    }
+    
+    private static int intValue(AbstractInsnNode insn) {
+        int opcode = insn.getOpcode();
+        switch (opcode) {
+            case BIPUSH:
+            case SIPUSH:
+                return ((IntInsnNode)insn).operand;
+            case LDC:
+                return (Integer)((LdcInsnNode)insn).cst;
+            default:
+                return opcode - ICONST_0;
+        }
+    }
+    
+    private boolean fold(AbstractInsnNode op) {
+        AbstractInsnNode second = previousInsn(op);
+        if (!isIntConstant(second)) {
+            return false;
+        }
+        int b = intValue(second);
+        int opcode = op.getOpcode();
+        Integer unary = unary(opcode, b);
+        if (unary != null) {
+            insns.remove(second);
+            insns.set(op, intConstant(unary));
+            return true;
+        }
+        AbstractInsnNode first = previousInsn(second);
+        if (!isIntConstant(first)) {
+            return false;
+        }
+        int a = intValue(first);
+        Integer result = binary(opcode, a, b);
+        if (result == null) {
+            return false;
+        }
+        insns.remove(first);
+        insns.remove(second);
+        insns.set(op, intConstant(result));
+        return true;
+    }
+
+    private static Integer unary(int opcode, int b) {
+        switch (opcode) {
+            case INEG:
+                return -b;
+            case I2B:
+                return (int)(byte)b;
+            case I2C:
+                return (int)(char)b;
+            case I2S:
+                return (int)(short)b;
+            default:
+                return null;
+        }
+    }
+    
+    private static Integer binary(int opcode, int a, int b) {
+        switch (opcode) {
+            case IADD:
+                return a + b;
+            case ISUB:
+                return a - b;
+            case IMUL:
+                return a * b;
+            case IDIV:
+                return b == 0? null: a / b;
+            case IREM:
+                return b == 0? null: a % b;
+            case IAND:
+                return a & b;
+            case IOR:
+                return a | b;
+            case IXOR:
+                return a ^ b;
+            case ISHL:
+                return a << b;
+            case ISHR:
+                return a >> b;
+            case IUSHR:
+                return a >>> b;
+            default:
+                return null;
+        }
+    }
+    
+    private static AbstractInsnNode intConstant(int value) {
+        if (value >= -1 && value <= 5) {
+            return new InsnNode(ICONST_0 + value);
+        }
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            return new IntInsnNode(BIPUSH, value);
+        }
+        if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            return new IntInsnNode(SIPUSH, value);
+        }
+        return new LdcInsnNode(value);
+    }
+
+    private void shortestConstant(AbstractInsnNode insn) {
+        if (!isPlain(insn)) {
+            return;
+        }
+        AbstractInsnNode replacement = null;
+        if (isIntConstant(insn)) {
+            replacement = intConstant(intValue(insn));
+            if (replacement.getOpcode() == insn.getOpcode()) {
+                return;
+            }
+        } else if (insn.getOpcode() == LDC) {
+            Object cst = ((LdcInsnNode)insn).cst;
+            if (cst instanceof Long) {
+                long value = (Long)cst;
+                if (value == 0L || value == 1L) {
+                    replacement = new InsnNode(LCONST_0 + (int)value);
+                }
+            } else if (cst instanceof Float) {
+                int bits = Float.floatToRawIntBits((Float)cst);
+                if (bits == Float.floatToRawIntBits(0.0F)
+                        || bits == Float.floatToRawIntBits(1.0F)
+                        || bits == Float.floatToRawIntBits(2.0F)) {
+                    replacement = new InsnNode(FCONST_0 + (int)Float.intBitsToFloat(bits));
+                }
+            } else if (cst instanceof Double) {
+                long bits = Double.doubleToRawLongBits((Double)cst);
+                if (bits == Double.doubleToRawLongBits(0.0)
+                        || bits == Double.doubleToRawLongBits(1.0)) {
+                    replacement = new InsnNode(DCONST_0 + (int)Double.longBitsToDouble(bits));
+                }
+            }
+        }
+        if (replacement != null) {
+            insns.set(insn, replacement);
+        }
+    }
+
+    private boolean removeUnreachable() {
+        if (insns.size() == 0) {
+            return false;
+        }
+        Set<AbstractInsnNode> reached = new HashSet<>();
+        Deque<AbstractInsnNode> todo = new ArrayDeque<>();
+        todo.push(insns.getFirst());
+        boolean more = true;
+        while (more) {
+            while (!todo.isEmpty()) {
+                AbstractInsnNode insn = todo.pop();
+                while (insn != null && reached.add(insn)) {
+                    insn = successors(insn, todo);
+                }
+            }
+            more = false;
+            for (TryCatchBlockNode tcb:mnode.tryCatchBlocks) {
+                if (!reached.contains(tcb.handler) && isReached(tcb, reached)) {
+                    todo.push(tcb.handler);
+                    more = true;
+                }
+            }
+        }
+        boolean changed = false;
+        for (AbstractInsnNode insn:insns.toArray()) {
+            if (insn.getOpcode() >= 0 && !reached.contains(insn)) {
+                insns.remove(insn);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // adds branch targets to todo and returns fall through instruction if any
+    private static AbstractInsnNode successors(AbstractInsnNode insn, Deque<AbstractInsnNode> todo) {
+        switch (insn.getType()) {
+            case AbstractInsnNode.JUMP_INSN:
+                JumpInsnNode jump = (JumpInsnNode)insn;
+                todo.push(jump.label);
+                return jump.getOpcode() == GOTO? null: insn.getNext();
+            case AbstractInsnNode.TABLESWITCH_INSN:
+                TableSwitchInsnNode table = (TableSwitchInsnNode)insn;
+                todo.push(table.dflt);
+                pushAll(table.labels, todo);
+                return null;
+            case AbstractInsnNode.LOOKUPSWITCH_INSN:
+                LookupSwitchInsnNode lookup = (LookupSwitchInsnNode)insn;
+                todo.push(lookup.dflt);
+                pushAll(lookup.labels, todo);
+                return null;
+            default:
+                int opcode = insn.getOpcode();
+                if (opcode >= IRETURN && opcode <= RETURN || opcode == ATHROW) {
+                    return null;
+                }
+                return insn.getNext();
+        }
+    }
+
+    private static void pushAll(List<LabelNode> labels, Deque<AbstractInsnNode> todo) {
+        for (LabelNode label:labels) {
+            todo.push(label);
+        }
+    }
+    
+    private static boolean isReached(TryCatchBlockNode tcb, Set<AbstractInsnNode> reached) {
+        for (AbstractInsnNode insn = tcb.start; insn != null && insn != tcb.end; insn = insn.getNext()) {
+            if (insn.getOpcode() >= 0 && reached.contains(insn)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeEmptyTryCatch() {
+        Iterator<TryCatchBlockNode> iter = mnode.tryCatchBlocks.iterator();
+        while (iter.hasNext()) {
+            TryCatchBlockNode tcb = iter.next();
+            AbstractInsnNode insn = tcb.start;
+            while (insn != null && insn != tcb.end && insn.getOpcode() < 0) {
+                insn = insn.getNext();
+            }
+            if (insn == null || insn == tcb.end) {
+                iter.remove();
+            }
+        }
+    }
+
+    // as ldc or ldc_w is not known until the constant pool is built, ldc is assumed
+    public static int codeSize(InsnList insns) {
+        int offset = 0;
+        for (AbstractInsnNode insn:insns) {
+            offset += size(insn, offset);
+        }
+        return offset;
+    }
+
+    private static int size(AbstractInsnNode insn, int offset) {
+        int opcode = insn.getOpcode();
+        switch (insn.getType()) {
+            case AbstractInsnNode.LABEL:
+            case AbstractInsnNode.LINE:
+            case AbstractInsnNode.FRAME:
+                return 0;
+            case AbstractInsnNode.INSN:
+                return 1;
+            case AbstractInsnNode.INT_INSN:
+                return opcode == SIPUSH? 3: 2;
+            case AbstractInsnNode.VAR_INSN:
+                int var = ((VarInsnNode)insn).var;
+                if (var < 4 && opcode != RET) {
+                    return 1;
+                }
+                return var < 256? 2: 4;
+            case AbstractInsnNode.IINC_INSN:
+                IincInsnNode iinc = (IincInsnNode)insn;
+                boolean narrow = iinc.var < 256
+                        && iinc.incr >= Byte.MIN_VALUE && iinc.incr <= Byte.MAX_VALUE;
+                return narrow? 3: 6;
+            case AbstractInsnNode.LDC_INSN:
+                Object cst = ((LdcInsnNode)insn).cst;
+                return cst instanceof Long || cst instanceof Double? 3: 2;
+            case AbstractInsnNode.METHOD_INSN:
+                return opcode == INVOKEINTERFACE? 5: 3;
+            case AbstractInsnNode.INVOKE_DYNAMIC_INSN:
+                return 5;
+            case AbstractInsnNode.MULTIANEWARRAY_INSN:
+                return 4;
+            case AbstractInsnNode.TABLESWITCH_INSN:
+                int tablect = ((TableSwitchInsnNode)insn).labels.size();
+                return 1 + padding(offset) + 12 + 4 * tablect;
+            case AbstractInsnNode.LOOKUPSWITCH_INSN:
+                int lookupct = ((LookupSwitchInsnNode)insn).labels.size();
+                return 1 + padding(offset) + 8 + 8 * lookupct;
+            default:
+                return 3; // type, field and jump instructions
+        }
+    }
+
+    private static int padding(int offset) {
+        return 3 - (offset & 3);
+    }
+    
+}
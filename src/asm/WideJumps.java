@@ -0,0 +1,211 @@
+package asm;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import static org.objectweb.asm.Opcodes.*;
+
+import static jynx.Global.LOG;
+import static jynx.Message.M633;
+
+/*
+    Jumps that may be out of range are emitted as goto_w (or an inverted jump round a goto_w)
+    so that ASM ClassWriter does not have to re-read and re-write the class.
+    Offsets are upper bounds (ldc_w and maximum switch padding assumed)
+    so that a jump left short is always in range.
+*/
+public class WideJumps extends ClassVisitor {
+
+    private static final int GOTO_W = 200;
+    private static final int JSR_W = 201;
+    
+    private final boolean widenConditional;
+    private final Map<String,BitSet> plans;
+    
+    // conditional jumps are only widened if frames are computed (or not required)
+    public WideJumps(ClassVisitor cv, boolean widencond) {
+        super(Opcodes.ASM9, cv);
+        this.widenConditional = widencond;
+        this.plans = new HashMap<>();
+    }
+
+    public void plan(MethodNode mnode) {
+        BitSet wide = widen(mnode);
+        if (!wide.isEmpty()) {
+            plans.put(mnode.name + mnode.desc, wide);
+        }
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+            String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+        BitSet wide = plans.remove(name + descriptor);
+        return wide == null? mv: new WideJumpMethodVisitor(mv, wide);
+    }
+
+    private BitSet widen(MethodNode mnode) {
+        InsnList insnlist = mnode.instructions;
+        BitSet wide = new BitSet();
+        AbstractInsnNode[] insns = insnlist.toArray();
+        int[] offsets = new int[insns.length + 1];
+        if (setOffsets(insns, offsets, wide) <= Short.MAX_VALUE) {
+            return wide;
+        }
+        List<String> widened = new ArrayList<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int jumpct = 0;
+            for (int i = 0; i < insns.length; ++i) {
+                AbstractInsnNode insn = insns[i];
+                if (insn.getType() != AbstractInsnNode.JUMP_INSN) {
+                    continue;
+                }
+                int ordinal = jumpct++;
+                if (wide.get(ordinal)) {
+                    continue;
+                }
+                JumpInsnNode jump = (JumpInsnNode)insn;
+                int opcode = jump.getOpcode();
+                int target = offsets[insnlist.indexOf(jump.label)];
+                int offset = target - offsets[i];
+                boolean inrange = offset >= Short.MIN_VALUE && offset <= Short.MAX_VALUE;
+                boolean unconditional = opcode == GOTO || opcode == JSR;
+                if (!inrange && (unconditional || widenConditional)) {
+                    wide.set(ordinal);
+                    widened.add(offsets[i] + "->" + target);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                setOffsets(insns, offsets, wide);
+            }
+        }
+        if (!widened.isEmpty()) {
+            // "method %s%s: %d jump(s) widened; maximum offsets are %s"
+            LOG(M633, mnode.name, mnode.desc, widened.size(), widened);
+        }
+        return wide;
+    }
+
+    private static int setOffsets(AbstractInsnNode[] insns, int[] offsets, BitSet wide) {
+        int offset = 0;
+        int jumpct = 0;
+        for (int i = 0; i < insns.length; ++i) {
+            offsets[i] = offset;
+            AbstractInsnNode insn = insns[i];
+            if (insn.getType() == AbstractInsnNode.JUMP_INSN) {
+                offset += jumpSize(insn.getOpcode(), wide.get(jumpct++));
+            } else {
+                offset += maxSize(insn);
+            }
+        }
+        offsets[insns.length] = offset;
+        return offset;
+    }
+    
+    private static int jumpSize(int opcode, boolean wide) {
+        if (!wide) {
+            return 3;
+        }
+        return opcode == GOTO || opcode == JSR? 5: 3 + 5;
+    }
+    
+    private static int maxSize(AbstractInsnNode insn) {
+        int opcode = insn.getOpcode();
+        switch (insn.getType()) {
+            case AbstractInsnNode.LABEL:
+            case AbstractInsnNode.LINE:
+            case AbstractInsnNode.FRAME:
+                return 0;
+            case AbstractInsnNode.INSN:
+                return 1;
+            case AbstractInsnNode.INT_INSN:
+                return opcode == SIPUSH? 3: 2;
+            case AbstractInsnNode.VAR_INSN:
+                int var = ((VarInsnNode)insn).var;
+                if (var < 4 && opcode != RET) {
+                    return 1;
+                }
+                return var < 256? 2: 4;
+            case AbstractInsnNode.IINC_INSN:
+                IincInsnNode iinc = (IincInsnNode)insn;
+                boolean narrow = iinc.var < 256
+                        && iinc.incr >= Byte.MIN_VALUE && iinc.incr <= Byte.MAX_VALUE;
+                return narrow? 3: 6;
+            case AbstractInsnNode.LDC_INSN:
+                return 3;
+            case AbstractInsnNode.METHOD_INSN:
+                return opcode == INVOKEINTERFACE? 5: 3;
+            case AbstractInsnNode.INVOKE_DYNAMIC_INSN:
+                return 5;
+            case AbstractInsnNode.MULTIANEWARRAY_INSN:
+                return 4;
+            case AbstractInsnNode.TABLESWITCH_INSN:
+                return 1 + 3 + 12 + 4 * ((TableSwitchInsnNode)insn).labels.size();
+            case AbstractInsnNode.LOOKUPSWITCH_INSN:
+                return 1 + 3 + 8 + 8 * ((LookupSwitchInsnNode)insn).labels.size();
+            default:
+                return 3; // type and field instructions
+        }
+    }
+
+    private static class WideJumpMethodVisitor extends MethodVisitor {
+
+        private final BitSet wide;
+        private int jumpct;
+
+        private WideJumpMethodVisitor(MethodVisitor mv, BitSet wide) {
+            super(Opcodes.ASM9, mv);
+            this.wide = wide;
+            this.jumpct = 0;
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            if (!wide.get(jumpct++)) {
+                super.visitJumpInsn(opcode, label);
+                return;
+            }
+            switch (opcode) {
+                case GOTO:
+                    super.visitJumpInsn(GOTO_W, label);
+                    break;
+                case JSR:
+                    super.visitJumpInsn(JSR_W, label);
+                    break;
+                default:
+                    Label skip = new Label();
+                    super.visitJumpInsn(inverse(opcode), skip);
+                    super.visitJumpInsn(GOTO_W, label);
+                    super.visitLabel(skip);
+                    break;
+            }
+        }
+
+        private static int inverse(int opcode) {
+            if (opcode == IFNULL || opcode == IFNONNULL) {
+                return opcode ^ 1;
+            }
+            return ((opcode + 1) ^ 1) - 1; // IFEQ <-> IFNE etc.
+        }
+
+    }
+}
@@ -14,9 +14,21 @@ public class Instruction {
         this.jvmop = jvmop;
     }
 
+    private static final Instruction[] SIMPLE = new Instruction[JvmOp.values().length];
+    
+    // filled when the class is initialised so the shared instances are safely published to all threads
+    static {
+        for (JvmOp op:JvmOp.values()) {
+            if (!op.isStack()) {
+                SIMPLE[op.ordinal()] = new Instruction(op);
+            }
+        }
+    }
+    
+    // no operand instructions are immutable so are shared
     public static Instruction getInstance(JvmOp jvmop) {
         assert !jvmop.isStack();
-        return new Instruction(jvmop);
+        return SIMPLE[jvmop.ordinal()];
     }
     
     public boolean needLineNumber() {
@@ -31,12 +43,12 @@ public class Instruction {
         stackLocals.adjustStack(jvmop);
     }
 
-    public Integer minLength() {
-        return jvmop.length();
+    public int minLength() {
+        return jvmop.fixedLength();
     }
     
-    public Integer maxLength() {
-        return jvmop.length();
+    public int maxLength() {
+        return jvmop.fixedLength();
     }
     
     public void accept(MethodVisitor mv) {
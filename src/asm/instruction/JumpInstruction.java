@@ -38,27 +38,27 @@ public class JumpInstruction extends Instruction {
     private int wideLength() {
         switch(jvmop) {
             case asm_goto: case opc_goto_w:
-                return JvmOp.opc_goto_w.length();
+                return JvmOp.opc_goto_w.fixedLength();
             case asm_jsr: case opc_jsr_w:
-                return JvmOp.opc_jsr_w.length();
+                return JvmOp.opc_jsr_w.fixedLength();
             default:
-                return jvmop.length() + JvmOp.opc_goto_w.length();
+                return jvmop.fixedLength() + JvmOp.opc_goto_w.fixedLength();
         }
     }
     
     @Override
-    public Integer minLength() {
+    public int minLength() {
         if (isDefinitelyWide) {
             return wideLength();
         } else {
-            return jvmop.length();
+            return jvmop.fixedLength();
         }
     }
     
     @Override
-    public Integer maxLength() {
+    public int maxLength() {
         if (isDefinitelyNotWide) {
-            return jvmop.length();
+            return jvmop.fixedLength();
         } else {
             return wideLength();
         }
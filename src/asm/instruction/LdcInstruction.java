@@ -19,11 +19,11 @@ public class LdcInstruction extends Instruction {
     }
 
     @Override
-    public Integer maxLength() {
+    public int maxLength() {
         if (jvmop == JvmOp.asm_ldc) {
-            return JvmOp.opc_ldc_w.length();
+            return JvmOp.opc_ldc_w.fixedLength();
         }
-        return jvmop.length();
+        return jvmop.fixedLength();
     }
 
     @Override
@@ -1,7 +1,8 @@
 package asm.instruction;
 
-import java.util.Map;
+import java.util.Arrays;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
@@ -14,12 +15,15 @@ import jynx2asm.StackLocals;
 public class LookupInstruction extends SwitchInstruction {
 
     private final JynxLabel dflt;
-    private final Map<Integer,JynxLabel> intlabels;
+    private final int[] keys;
+    private final JynxLabel[] labels;
 
-    public LookupInstruction(JynxLabel dflt, Map<Integer,JynxLabel> intlabels) {
-        super(JvmOp.asm_lookupswitch, minsize(intlabels.size()));
+    public LookupInstruction(JynxLabel dflt, int[] keys, JynxLabel[] labels) {
+        super(JvmOp.asm_lookupswitch, minsize(keys.length));
+        assert keys.length == labels.length;
         this.dflt = dflt;
-        this.intlabels = intlabels;
+        this.keys = keys;
+        this.labels = labels;
     }
 
     private static final int OVERHEAD = 1 + 4 + 4; // opcode, dflt lbel, label count
@@ -31,24 +35,22 @@ public class LookupInstruction extends SwitchInstruction {
     @Override
     public void adjust(StackLocals stackLocals) {
         super.adjust(stackLocals);
-        stackLocals.adjustLabelSwitch(dflt,intlabels.values());
+        stackLocals.adjustLabelSwitch(dflt,Arrays.asList(labels));
     }
 
     @Override
     public void accept(MethodVisitor mv) {
-        Label[] asmlabels = intlabels.values().stream()
-            .map(JynxLabel::asmlabel)
-            .toArray(Label[]::new);
-        int[] asmkeys = intlabels.keySet().stream()
-                .mapToInt(i->(int)i)
-                .toArray();
-        mv.visitLookupSwitchInsn(dflt.asmlabel(), asmkeys, asmlabels);
+        Label[] asmlabels = new Label[labels.length];
+        for (int i = 0; i < labels.length; ++i) {
+            asmlabels[i] = labels[i].asmlabel();
+        }
+        mv.visitLookupSwitchInsn(dflt.asmlabel(), keys, asmlabels);
     }
 
     @Override
     public String toString() {
-        String brlabels = intlabels.entrySet().stream()
-                .map(me-> me.getKey().toString() + " -> " + me.getValue().name())
+        String brlabels = IntStream.range(0, keys.length)
+                .mapToObj(i-> keys[i] + " -> " + labels[i].name())
                 .collect(Collectors.joining(" , "));
         return String.format("%s default %s %s %s %s",
                 jvmop,dflt,ReservedWord.left_array,brlabels,ReservedWord.right_array);
@@ -7,10 +7,25 @@ import jynx2asm.StackLocals;
 
 public class StackInstruction extends Instruction {
 
-    public StackInstruction(JvmOp jop) {
+    private static final StackInstruction[] SHARED = new StackInstruction[JvmOp.values().length];
+    
+    static {
+        for (JvmOp op:JvmOp.values()) {
+            if (op.isStack()) {
+                SHARED[op.ordinal()] = new StackInstruction(op);
+            }
+        }
+    }
+    
+    private StackInstruction(JvmOp jop) {
         super(jop);
     }
 
+    public static StackInstruction getInstance(JvmOp jvmop) {
+        assert jvmop.isStack();
+        return SHARED[jvmop.ordinal()];
+    }
+
     @Override
     public void accept(MethodVisitor mv) {
         mv.visitInsn(jvmop.asmOpcode());
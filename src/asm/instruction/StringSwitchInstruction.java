@@ -0,0 +1,160 @@
+package asm.instruction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import static jvm.Constants.MAX_CODE;
+
+import jynx.ReservedWord;
+import jynx.StringUtil;
+import jynx2asm.JynxLabel;
+import jynx2asm.ops.JvmOp;
+import jynx2asm.StackLocals;
+
+/*
+    as javac; hashCode and lookupswitch on hash, then equals for each key with that hash
+    the String is kept on the stack (not in a local variable) until a key matches
+
+        dup
+        invokevirtual java/lang/String.hashCode()I
+        lookupswitch default NOMATCH .array hash -> HASHn ... .end_array
+    HASHn:
+        dup
+        ldc key
+        invokevirtual java/lang/String.equals(Ljava/lang/Object;)Z
+        ifeq NEXT  ; or NOMATCH if last key with this hash
+        pop
+        goto target
+        ...
+    NOMATCH:
+        pop
+        goto default
+*/
+public class StringSwitchInstruction extends Instruction {
+
+    private static final int HASH_LENGTH = 1 + 3; // dup, invokevirtual
+    private static final int LOOKUP_OVERHEAD = 1 + 4 + 4; // opcode, dflt label, label count
+    private static final int DEFAULT_LENGTH = 1 + 3; // pop, goto
+    private static final int KEY_LENGTH = 1 + 2 + 3 + 3 + 1 + 3; // dup, ldc, invokevirtual, ifeq, pop, goto
+    // ldc_w, goto_w
+    private static final int KEY_MAX_EXTRA = 1 + 2;
+    private static final int DEFAULT_MAX_EXTRA = 2;
+    
+    private final JynxLabel dflt;
+    private final String[] keys;
+    private final JynxLabel[] labels;
+    private final Map<Integer,List<Integer>> buckets; // hash -> indices of keys in source order
+    private final int unpaddedMinLength;
+    private final int unpaddedMaxLength;
+    
+    private int minPadding;
+    private int maxPadding;
+
+    public StringSwitchInstruction(JvmOp jop, JynxLabel dflt, String[] keys, JynxLabel[] labels) {
+        super(jop);
+        assert keys.length == labels.length;
+        this.dflt = dflt;
+        this.keys = keys;
+        this.labels = labels;
+        this.buckets = new TreeMap<>();
+        for (int i = 0; i < keys.length; ++i) {
+            buckets.computeIfAbsent(keys[i].hashCode(), k -> new ArrayList<>()).add(i);
+        }
+        int fixed = HASH_LENGTH + LOOKUP_OVERHEAD + 8 * buckets.size() + DEFAULT_LENGTH;
+        this.unpaddedMinLength = fixed + KEY_LENGTH * keys.length;
+        int maxextra = KEY_MAX_EXTRA * keys.length + DEFAULT_MAX_EXTRA;
+        if (unpaddedMinLength + maxextra + 3 > MAX_CODE / 2) {
+            maxextra += 5 * keys.length; // ifeq may need to be inverted round goto_w
+        }
+        this.unpaddedMaxLength = unpaddedMinLength + maxextra;
+        this.minPadding = 0;
+        this.maxPadding = 3;
+    }
+
+    private int paddingForOffset(int offset) {
+        return 3 - (offset % 4);
+    }
+    
+    @Override
+    public JvmOp resolve(int minoffset, int maxoffset) {
+        minPadding = paddingForOffset(minoffset + HASH_LENGTH);
+        maxPadding = minoffset == maxoffset?minPadding:3;
+        return jvmop;
+    }
+
+    @Override
+    public int minLength() {
+        return minPadding + unpaddedMinLength;
+    }
+
+    @Override
+    public int maxLength() {
+        return maxPadding + unpaddedMaxLength;
+    }
+
+    @Override
+    public void adjust(StackLocals stackLocals) {
+        // dup and ldc key so max stack is correct
+        stackLocals.adjustStackOperand("()Ljava/lang/String;");
+        stackLocals.adjustStackOperand("()Ljava/lang/String;");
+        stackLocals.adjustStackOperand("(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)V");
+        stackLocals.adjustLabelSwitch(dflt, List.of(labels));
+    }
+
+    @Override
+    public void accept(MethodVisitor mv) {
+        Label nomatch = new Label();
+        int[] hashes = new int[buckets.size()];
+        Label[] hashlabels = new Label[buckets.size()];
+        int index = 0;
+        for (int hash:buckets.keySet()) {
+            hashes[index] = hash;
+            hashlabels[index] = new Label();
+            ++index;
+        }
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+        mv.visitLookupSwitchInsn(nomatch, hashes, hashlabels);
+        index = 0;
+        for (List<Integer> bucket:buckets.values()) {
+            mv.visitLabel(hashlabels[index]);
+            ++index;
+            for (int i = 0; i < bucket.size(); ++i) {
+                int keyindex = bucket.get(i);
+                boolean last = i == bucket.size() - 1;
+                Label next = last? nomatch: new Label();
+                mv.visitInsn(Opcodes.DUP);
+                mv.visitLdcInsn(keys[keyindex]);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL,
+                        "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+                mv.visitJumpInsn(Opcodes.IFEQ, next);
+                mv.visitInsn(Opcodes.POP);
+                mv.visitJumpInsn(Opcodes.GOTO, labels[keyindex].asmlabel());
+                if (!last) {
+                    mv.visitLabel(next);
+                }
+            }
+        }
+        mv.visitLabel(nomatch);
+        mv.visitInsn(Opcodes.POP);
+        mv.visitJumpInsn(Opcodes.GOTO, dflt.asmlabel());
+    }
+
+    @Override
+    public String toString() {
+        String brlabels = IntStream.range(0, keys.length)
+                .mapToObj(i-> StringUtil.QuoteEscape(keys[i]) + " -> " + labels[i].name())
+                .collect(Collectors.joining(" , "));
+        return String.format("%s default %s %s %s %s",
+                jvmop,dflt,ReservedWord.left_array,brlabels,ReservedWord.right_array);
+    }
+
+}
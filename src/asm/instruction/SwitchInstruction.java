@@ -1,9 +1,5 @@
 package asm.instruction;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.SortedMap;
-
 import static jvm.Constants.MAX_CODE;
 import static jynx.Global.LOG;
 import static jynx.Message.M224;
@@ -17,6 +13,7 @@ import static jynx2asm.ops.JvmOp.opc_switch;
 
 import jynx.LogIllegalArgumentException;
 import jynx2asm.JynxLabel;
+import jynx2asm.SwitchCases;
 import jynx2asm.ops.JvmOp;
 
 public abstract class SwitchInstruction extends Instruction {
@@ -51,28 +48,29 @@ public abstract class SwitchInstruction extends Instruction {
     }
 
     @Override
-    public Integer minLength() {
+    public int minLength() {
         return minPadding + unpaddedLength;
     }
 
     @Override
-    public Integer maxLength() {
+    public int maxLength() {
         return maxPadding + unpaddedLength;
     }
 
-    public static Instruction getInstance(JvmOp jvmop, JynxLabel dflt, SortedMap<Integer,JynxLabel> swmap) {
-        if (swmap.isEmpty()) {
+    public static Instruction getInstance(JvmOp jvmop, JynxLabel dflt, SwitchCases cases) {
+        cases.sort();
+        if (cases.isEmpty()) {
             if (jvmop == asm_tableswitch) {
                 // "invalid %s as only has %s: case 0 -> %s added"
                 LOG(M224, jvmop, res_default, dflt.name());
-                swmap.put(0, dflt);
+                cases.add(0, dflt);
             } else {
-                return new LookupInstruction(dflt,swmap);        
+                return new LookupInstruction(dflt, cases.keys(), cases.labels());
             }
         }
         
-        int min = swmap.firstKey();
-        int max = swmap.lastKey();
+        int min = cases.minKey();
+        int max = cases.maxKey();
         long range = 1L + max - min;
         long tablesz = TableInstruction.minsize(range);
         if (jvmop == JvmOp.asm_tableswitch && tablesz > UNPADDED_MAX) {
@@ -82,37 +80,27 @@ public abstract class SwitchInstruction extends Instruction {
         }
         
         if (jvmop == JvmOp.asm_tableswitch) {
-            return lookupToTableSwitch(min, max, dflt, swmap);
+            return new TableInstruction(min, max, dflt, cases.table(min, max, dflt));
         }
         
-        long lookupsz = LookupInstruction.minsize(swmap.size());
-        boolean consec = range == swmap.size();
+        long lookupsz = LookupInstruction.minsize(cases.size());
+        boolean consec = range == cases.size();
         boolean tablesmaller = tablesz < lookupsz;
         if (jvmop == opc_switch && tablesmaller) {
-            return lookupToTableSwitch(min, max, dflt, swmap);
+            return new TableInstruction(min, max, dflt, cases.table(min, max, dflt));
         }
         
         // use lookupswitch
         if (jvmop == JvmOp.asm_lookupswitch) {
-            if (consec && swmap.size() > 1) {
+            if (consec && cases.size() > 1) {
                 // "%s could be used as entries are consecutive"
                 LOG(M244,JvmOp.asm_tableswitch);
             } else if (tablesmaller) {
                 // "by adding dflt entries %s (size %d) would still be smaller than %s (size %d); range = %d labels = %d"
-                LOG(M323, JvmOp.asm_tableswitch, tablesz, JvmOp.asm_lookupswitch, lookupsz, range, swmap.size());
+                LOG(M323, JvmOp.asm_tableswitch, tablesz, JvmOp.asm_lookupswitch, lookupsz, range, cases.size());
             }
         }
-        return new LookupInstruction(dflt,swmap);
-    }
-    
-    private static Instruction lookupToTableSwitch(int min, int max, JynxLabel dflt,SortedMap<Integer,JynxLabel> swmap) {
-        assert max >= min;
-        List<JynxLabel> labellist = new ArrayList<>();
-        for (int i = min; i <= max; ++i) {
-            JynxLabel label = swmap.getOrDefault(i, dflt);
-            labellist.add(label);
-        }
-        return new TableInstruction(min, max, dflt, labellist);
+        return new LookupInstruction(dflt, cases.keys(), cases.labels());
     }
     
 }
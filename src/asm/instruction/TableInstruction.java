@@ -1,6 +1,6 @@
 package asm.instruction;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 import org.objectweb.asm.Label;
@@ -16,11 +16,11 @@ public class TableInstruction extends SwitchInstruction {
     private final int min;
     private final int max;
     private final JynxLabel dflt;
-    private final Collection<JynxLabel> labels;
+    private final JynxLabel[] labels;
 
-    public TableInstruction(int min, int max, JynxLabel dflt, Collection<JynxLabel> labels) {
-        super(JvmOp.asm_tableswitch, minsize(labels.size()));
-        assert min <= max;
+    public TableInstruction(int min, int max, JynxLabel dflt, JynxLabel[] labels) {
+        super(JvmOp.asm_tableswitch, minsize(labels.length));
+        assert min <= max && labels.length == 1L + max - min;
         this.min = min;
         this.max = max;
         this.dflt = dflt;
@@ -36,20 +36,21 @@ public class TableInstruction extends SwitchInstruction {
     @Override
     public void adjust(StackLocals stackLocals) {
         super.adjust(stackLocals);
-        stackLocals.adjustLabelSwitch(dflt,labels);
+        stackLocals.adjustLabelSwitch(dflt,Arrays.asList(labels));
     }
 
     @Override
     public void accept(MethodVisitor mv) {
-        Label[] asmlabels = labels.stream()
-            .map(JynxLabel::asmlabel)
-            .toArray(Label[]::new);
+        Label[] asmlabels = new Label[labels.length];
+        for (int i = 0; i < labels.length; ++i) {
+            asmlabels[i] = labels[i].asmlabel();
+        }
         mv.visitTableSwitchInsn(min, max, dflt.asmlabel(), asmlabels);
     }
 
     @Override
     public String toString() {
-        String brlabels = labels.stream()
+        String brlabels = Arrays.stream(labels)
                 .map(JynxLabel::name)
                 .collect(Collectors.joining(" , "));
         return String.format("%s %d default %s %s %s %s",
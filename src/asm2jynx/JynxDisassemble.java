@@ -29,6 +29,7 @@ import static jynx.ReservedWord.*;
 
 import asm.JynxClassReader;
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.ConstType;
 import jvm.JvmVersion;
@@ -38,6 +39,7 @@ import jynx.Directive;
 import jynx.Global;
 import jynx.GlobalOption;
 import jynx.MainOption;
+import jynx.jfr.DisassembleClassEvent;
 import jynx2asm.handles.HandlePart;
 
 public class JynxDisassemble {
@@ -112,11 +114,11 @@ public class JynxDisassemble {
 
     private void printPackage() {
         String cname = cn.name;
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(cn.access,CLASS,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(cn.access,CLASS,jvmVersion);
         ClassType classtype = ClassType.PACKAGE;
         int index = cname.lastIndexOf('/');
         cname = cname.substring(0, index);
-        accflags.removeAll(classtype.getMustHave4Class(jvmVersion));
+        accflags = accflags.without(classtype.getMustHave4Class(jvmVersion));
         Directive dir = classtype.getDir();
         jp.append(dir)
                 .appendFlags(accflags)
@@ -175,9 +177,9 @@ public class JynxDisassemble {
 
     private void printClassHeader() {
         String cname = cn.name;
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(cn.access,CLASS,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(cn.access,CLASS,jvmVersion);
         ClassType classtype = ClassType.from(accflags);
-        accflags.removeAll(classtype.getMustHave4Class(jvmVersion));
+        accflags = accflags.without(classtype.getMustHave4Class(jvmVersion));
         Directive dir = classtype.getDir();
         jp.append(dir)
                 .appendFlags(accflags)
@@ -224,9 +226,9 @@ public class JynxDisassemble {
 
     private void printInner() {
         for (InnerClassNode icn : nonNullList(cn.innerClasses)) {
-            EnumSet<AccessFlag> inneraccflags = AccessFlag.getEnumSet(icn.access,INNER_CLASS,jvmVersion);
+            AccessFlags inneraccflags = AccessFlag.getAccessFlags(icn.access,INNER_CLASS,jvmVersion);
             ClassType classtype = ClassType.from(inneraccflags);
-            inneraccflags.removeAll(classtype.getMustHave4Inner(jvmVersion));
+            inneraccflags = inneraccflags.without(classtype.getMustHave4Inner(jvmVersion));
             Directive inner = classtype.getInnerDir();
             jp.append(inner)
                     .appendFlags(inneraccflags)
@@ -262,7 +264,7 @@ public class JynxDisassemble {
         assert getModuleAbsent().isEmpty();
         assert isAbsent(cn.invisibleTypeAnnotations);
         assert isAbsent(cn.visibleTypeAnnotations);
-        EnumSet<AccessFlag>  accflags = AccessFlag.getEnumSet(cn.access, CLASS,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(cn.access, CLASS,jvmVersion);
         assert accflags.contains(acc_module) && accflags.size() == 1;
         
         jp.append(dir_define_module)
@@ -285,7 +287,7 @@ public class JynxDisassemble {
                 fn.invisibleTypeAnnotations);
         boolean endrequired = annotated || fn.signature != null;
 
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(fn.access, FIELD,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(fn.access, FIELD,jvmVersion);
         jp.append(dir_field)
                 .appendFlags(accflags)
                 .appendName(fn.name)
@@ -312,7 +314,7 @@ public class JynxDisassemble {
     }
 
     private void printModuleInfo(ModuleNode module) {
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(module.access, MODULE,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(module.access, MODULE,jvmVersion);
         jp.append(dir_module)
                 .appendFlags(accflags)
                 .appendName(module.name)
@@ -321,7 +323,7 @@ public class JynxDisassemble {
                 .incrDepth();
         jp.appendDir(dir_main,module.mainClass);
         for (ModuleRequireNode mrn: nonNullList(module.requires)) {
-            accflags = AccessFlag.getEnumSet(mrn.access, REQUIRE,jvmVersion);
+            accflags = AccessFlag.getAccessFlags(mrn.access, REQUIRE,jvmVersion);
             jp.append(dir_requires)
                     .appendFlags(accflags)
                     .appendName(mrn.module)
@@ -329,14 +331,14 @@ public class JynxDisassemble {
                     .nl();
         }
         for (ModuleExportNode men: nonNullList(module.exports)) {
-            accflags = AccessFlag.getEnumSet(men.access, EXPORT,jvmVersion);
+            accflags = AccessFlag.getAccessFlags(men.access, EXPORT,jvmVersion);
             jp.append(dir_exports)
                     .appendFlags(accflags)
                     .appendName(men.packaze)
                     .appendRWArray(res_to, men.modules);
         }
         for (ModuleOpenNode mon: nonNullList(module.opens)) {
-            accflags = AccessFlag.getEnumSet(mon.access, OPEN,jvmVersion);
+            accflags = AccessFlag.getAccessFlags(mon.access, OPEN,jvmVersion);
             jp.append(dir_opens)
                     .appendFlags(accflags)
                     .appendName(mon.packaze)
@@ -369,7 +371,7 @@ public class JynxDisassemble {
         options.stream()
                 .filter(GlobalOption::isExternal)
                 .filter(opt -> MainOption.ASSEMBLY.usesOption(opt))
-                .filter(opt-> opt != GlobalOption.SYSIN)
+                .filter(opt-> opt != GlobalOption.SYSIN && opt != GlobalOption.BINARY)
                 .forEach(jp::append);
         jp.nl()
                 .appendDir(dir_source, cn.sourceFile);
@@ -378,13 +380,25 @@ public class JynxDisassemble {
     public static boolean a2jpw(PrintWriter pw, String fname) {
         Optional<ClassReader> optrdr = JynxClassReader.getClassReader(fname);
         if (optrdr.isPresent()) {
+            DisassembleClassEvent event = new DisassembleClassEvent();
+            event.begin();
+            JynxDisassemble a2j = null;
+            boolean success = false;
             try {
-                JynxDisassemble a2j = JynxDisassemble.getInstance(optrdr.get(),pw);
-                return a2j.print();
+                a2j = JynxDisassemble.getInstance(optrdr.get(),pw);
+                success = a2j.print();
+                return success;
             } catch (Exception ex) {
                 LOG(ex);
                 LOG(M237,fname); // "error accepting class file: %s"
                 return false;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.className = optrdr.get().getClassName();
+                    event.methodCount = a2j == null || a2j.cn.methods == null? 0: a2j.cn.methods.size();
+                    event.success = success;
+                    event.commit();
+                }
             }
         }
         return false;
@@ -1,7 +1,6 @@
 package asm2jynx;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
 
 import org.objectweb.asm.tree.AbstractInsnNode;
@@ -18,6 +17,7 @@ import static jynx.Global.*;
 import static jynx.ReservedWord.*;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.FrameType;
 import jvm.JvmVersion;
 import jvm.StandardAttribute;
@@ -110,7 +110,7 @@ public class JynxMethodPrinter {
     public void printMethod(final MethodNode mn) {
         jp.blankline();
         LOGGER().setLine("method " + mn.name);
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(mn.access,METHOD,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(mn.access,METHOD,jvmVersion);
         jp.append(dir_method)
                 .appendFlags(accflags)
                 .appendName(mn.name + mn.desc);
@@ -123,7 +123,7 @@ public class JynxMethodPrinter {
                 .appendDirArray(dir_throws, mn.exceptions);
         int parmnum = 0;
         for (ParameterNode pn : nonNullList(mn.parameters)) {
-            EnumSet<AccessFlag> pnaccflags = AccessFlag.getEnumSet(pn.access, PARAMETER, jvmVersion);
+            AccessFlags pnaccflags = AccessFlag.getAccessFlags(pn.access, PARAMETER, jvmVersion);
             jp.append(dir_parameter)
                     .append(parmnum)
                     .appendFlags(pnaccflags)
@@ -1,7 +1,6 @@
 package asm2jynx;
 
 import java.util.Arrays;
-import java.util.EnumSet;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.List;
@@ -16,7 +15,7 @@ import static jynx.Message.M81;
 import static jynx.Message.M910;
 import static jynx.ReservedWord.dot_array;
 
-import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jynx.Directive;
 import jynx.LogAssertionError;
 import jynx.LogIllegalStateException;
@@ -198,8 +197,8 @@ public class JynxStringBuilder {
         return appendRWArray(rw, strlist);
     }
     
-    public JynxStringBuilder appendFlags(EnumSet<AccessFlag> flags) {
-        flags.stream().forEach(this::append);
+    public JynxStringBuilder appendFlags(AccessFlags flags) {
+        flags.forEach(this::append);
         return this;
     }
 
@@ -2,6 +2,10 @@ package asm2jynx;
 
 import java.io.PrintWriter;
 
+import static jynx.Global.OPTION;
+import static jynx.GlobalOption.BINARY;
+
+import jynx.JynxBinaryWriter;
 import jynx.MainOption;
 import jynx.MainOptionService;
 
@@ -14,6 +18,9 @@ public class Main2Jynx implements MainOptionService {
 
     @Override
     public boolean call(String fname, PrintWriter pw) {
+        if (OPTION(BINARY)) {
+            pw = new PrintWriter(new JynxBinaryWriter(System.out));
+        }
         return JynxDisassemble.a2jpw(pw,fname);
     }
 
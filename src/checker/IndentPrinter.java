@@ -49,8 +49,29 @@ public class IndentPrinter {
         return split + 1;
     }
     
+    private void printLine(String line) {
+        while(line.length() > MAXIMUM_LINE_LENGTH) {
+            int split = preferredSplit(line, SPLIT_CHARS, MAXIMUM_LINE_LENGTH, MAXIMUM_SEARCH_LENGTH);
+            String head = line.substring(0,split);
+            String tail = line.substring(split);
+            pw.println(head);
+            line = CONTINUATION + tail;
+        }
+        if (!line.equals(CONTINUATION)) {
+            pw.println(line);
+        }
+    }
+    
     public void println(String format, Object... values) {
-        String multiline = String.format(format,values) + NEWLINE;
+        String text = String.format(format,values);
+        if (text.indexOf('\n') < 0) { // usual case; no need to split
+            if (!text.isEmpty()) {
+                printLine(indent + text);
+            }
+            pw.flush();
+            return;
+        }
+        String multiline = text + NEWLINE;
         String[] lines = multiline.split(NEWLINE);
         boolean first = true;
         for (String line:lines) {
@@ -61,17 +82,7 @@ public class IndentPrinter {
             } else {
                 x = INDENT_SHIFT + indent;
             }
-            line = x + line;
-            while(line.length() > MAXIMUM_LINE_LENGTH) {
-                int split = preferredSplit(line, SPLIT_CHARS, MAXIMUM_LINE_LENGTH, MAXIMUM_SEARCH_LENGTH);
-                String head = line.substring(0,split);
-                String tail = line.substring(split);
-                pw.println(head);
-                line = CONTINUATION + tail;
-            }
-            if (!line.equals(CONTINUATION)) {
-                pw.println(line);
-            }
+            printLine(x + line);
         }
         pw.flush();
     }
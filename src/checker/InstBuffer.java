@@ -46,6 +46,7 @@ public class InstBuffer extends AbstractCodeBuffer {
     }
     
     public void checkInsn(IndentPrinter ptr) {
+        boolean print = OPTION(GlobalOption.DETAIL);
         int start = position();
         while(hasRemaining()) {
             int instoff = position() - start;
@@ -58,7 +59,6 @@ public class InstBuffer extends AbstractCodeBuffer {
                 jop = jop.widePrepended();
             }
             OpArg arg = jop.args();
-            boolean print = OPTION(GlobalOption.DETAIL);
             switch(arg) {
                 case arg_switch:
                     align4(instoff + 1);
@@ -85,9 +85,11 @@ public class InstBuffer extends AbstractCodeBuffer {
                     }
                     break;
                 default:
-                    String extra = extra(jop, instoff);
                     if (print) {
+                        String extra = extra(jop, instoff);
                         ptr.println("%5d:  %s%s", instoff, jop, extra);
+                    } else {
+                        checkOperands(jop, instoff, null);
                     }
                     assert start + instoff + jop.length() == position();
                     break;
@@ -96,10 +98,17 @@ public class InstBuffer extends AbstractCodeBuffer {
     }
     
     public String extra(JvmOp jop, int instoff) {
+        StringBuilder sb = new StringBuilder();
+        checkOperands(jop, instoff, sb);
+        return sb.toString();
+    }
+    
+    // operands are always read and checked; they are only rendered if sb is not null
+    private void checkOperands(JvmOp jop, int instoff, StringBuilder sb) {
         OpArg arg = jop.args();
-        String result = "";
+        boolean render = sb != null;
         for (OpPart fmt:arg.getParts()) {
-            String extra;
+            String extra = "";
             switch(fmt) {
                 case CP:
                     CPEntry cp;
@@ -108,18 +117,22 @@ public class InstBuffer extends AbstractCodeBuffer {
                     } else {
                         cp = nextCPEntry();
                     }
-                    extra = stringValue(cp);
                     ConstantPoolType cpt = cp.getType();
-                    if (cpt == ConstantPoolType.CONSTANT_String) {
-                        extra = StringUtil.QuoteEscape(extra);
-                    }
                     arg.checkCPType(cpt);
+                    if (render) {
+                        extra = stringValue(cp);
+                        if (cpt == ConstantPoolType.CONSTANT_String) {
+                            extra = StringUtil.QuoteEscape(extra);
+                        }
+                    }
                     break;
                 case LABEL:
                     int jmplab = jop.isWideForm()?
                             nextBranchLabel(instoff):
                             nextIfLabel(instoff);
-                    extra = "@" + Integer.toString(jmplab);
+                    if (render) {
+                        extra = "@" + Integer.toString(jmplab);
+                    }
                     break;
                 case VAR:
                     int var;
@@ -131,7 +144,9 @@ public class InstBuffer extends AbstractCodeBuffer {
                         var = nextUnsignedByte();
                     }
                     checkLocalVar(var);
-                    extra = jop.isImmediate()? "": Integer.toString(var);
+                    if (render && !jop.isImmediate()) {
+                        extra = Integer.toString(var);
+                    }
                     break;
                 case INCR:
                     int incr;
@@ -140,36 +155,45 @@ public class InstBuffer extends AbstractCodeBuffer {
                     } else {
                         incr = nextByte();
                     }
-                    extra = Integer.toString(incr);
+                    if (render) {
+                        extra = Integer.toString(incr);
+                    }
                     break;
                 case BYTE:
                     int b = nextByte();
-                    extra = Integer.toString(b); 
+                    if (render) {
+                        extra = Integer.toString(b);
+                    }
                     break;
                 case SHORT:
                     int s = nextShort();
-                    extra = Integer.toString(s);
+                    if (render) {
+                        extra = Integer.toString(s);
+                    }
                     break;
                 case TYPE:
                     int t = nextUnsignedByte();
-                    extra = NumType.getInstance(t).externalName();
+                    NumType nt = NumType.getInstance(t);
+                    if (render) {
+                        extra = nt.externalName();
+                    }
                     break;
                 case UBYTE:
                     int u = nextUnsignedByte();
-                    extra = Integer.toString(u);
+                    if (render) {
+                        extra = Integer.toString(u);
+                    }
                     break;
                 case ZERO:
                     int z = nextByte();
-                    extra = "";
                     break;
                 default:
                     throw new EnumConstantNotPresentException(fmt.getClass(), fmt.name());
             }
             if (!extra.isEmpty()) {
-                result += " " + extra;
+                sb.append(' ').append(extra);
             }
         }
-        return result;
     }
     
 }
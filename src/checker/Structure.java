@@ -16,6 +16,7 @@ import static jynx.Message.M503;
 import static jynx.Message.M517;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Attribute;
 import jvm.AttributeType;
 import jvm.ConstantPoolType;
@@ -24,6 +25,7 @@ import jvm.JvmVersion;
 import jynx.ClassUtil;
 import jynx.GlobalOption;
 import jynx.LogIllegalArgumentException;
+import jynx.jfr.StructureCheckEvent;
 
 public class Structure {
 
@@ -38,8 +40,21 @@ public class Structure {
     private static final int MAGIC = 0xcafebabe;
     
     public static void checkInstance(PrintWriter pw, String klass) throws IOException {
+        StructureCheckEvent event = new StructureCheckEvent();
+        event.begin();
+        byte[] ba = ClassUtil.getClassBytes(klass);
+        int poolct = checkInstance(pw, ba);
+        if (event.shouldCommit()) {
+            event.className = klass;
+            event.bytesIn = ba.length;
+            event.poolEntries = poolct;
+            event.commit();
+        }
+    }
+    
+    private static int checkInstance(PrintWriter pw, byte[] ba) {
         IndentPrinter ptr = new IndentPrinter(pw);
-        ByteBuffer bb = ByteBuffer.wrap(ClassUtil.getClassBytes(klass));
+        ByteBuffer bb = ByteBuffer.wrap(ba);
         bb = bb.asReadOnlyBuffer();
         bb.order(ByteOrder.BIG_ENDIAN);
         int qmagic = bb.getInt();
@@ -71,6 +86,7 @@ public class Structure {
         if (!bootok) {
             pool.printCP(ptr,true);
         }
+        return pool.last();
     }
     
     private void checkClass(IndentPrinter ptr, Buffer buffer, int access) {
@@ -203,7 +219,7 @@ public class Structure {
     }
 
     private String accessString(Context context, int access) {
-        return AccessFlag.getEnumSet(access, context, jvmVersion).toString();
+        return AccessFlag.getAccessFlags(access, context, jvmVersion).toString();
     }
 
     private void setLoggerContext(Context context, Buffer buffer) {
@@ -0,0 +1,137 @@
+package com.github.david32768.jynx;
+
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandles;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static jynx.Global.CLASS_NAME;
+import static jynx.Global.LOG;
+import static jynx.Global.LOGGER;
+import static jynx.Message.M626;
+import static jynx.Message.M627;
+
+import jynx.Global;
+import jynx.GlobalOption;
+import jynx.MainOption;
+import jynx.SevereError;
+import jynx2asm.JynxClass;
+import jynx2asm.JynxScanner;
+
+/**
+ * Assembles Jynx source held in memory.
+ * An instance holds validated options and may be shared by concurrent threads.
+ */
+public class Jynx {
+
+    private final EnumSet<GlobalOption> options;
+
+    private Jynx(EnumSet<GlobalOption> options) {
+        this.options = options;
+    }
+
+    public static Jynx getInstance(GlobalOption... options) {
+        EnumSet<GlobalOption> optionset = EnumSet.noneOf(GlobalOption.class);
+        for (GlobalOption option:options) {
+            boolean file = option == GlobalOption.SYSIN || option == GlobalOption.WATCH
+                    || option == GlobalOption.BUNDLE || option == GlobalOption.BINARY;
+            if (file || !MainOption.ASSEMBLY.usesOption(option)) {
+                // "option %s is not valid for in-memory assembly"
+                throw new IllegalArgumentException(M626.format(option));
+            }
+            optionset.add(option);
+        }
+        return new Jynx(optionset);
+    }
+
+    public static Result assemble(CharSequence source, GlobalOption... options) {
+        return getInstance(options).assemble(source);
+    }
+
+    public Result assemble(CharSequence source) {
+        return assemble(new StringReader(source.toString()), null);
+    }
+
+    public Result assemble(Reader reader) {
+        return assemble(reader, null);
+    }
+
+    // sourcename is used if there is no .source directive
+    public Result assemble(Reader reader, String sourcename) {
+        StringWriter sw = new StringWriter();
+        byte[] ba = null;
+        String classname = null;
+        Global previous = Global.setGlobal(null); // the caller's Global is restored when done
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            Global.newGlobal(MainOption.ASSEMBLY, options, pw);
+            try {
+                JynxScanner scanner = JynxScanner.getInstance(reader);
+                String source = sourcename == null? "MEMORY": sourcename;
+                ba = JynxClass.getBytes(source, sourcename, scanner);
+                classname = CLASS_NAME();
+            } catch (RuntimeException ex) {
+                LOG(ex);
+            } catch (SevereError ex) {
+                // already logged
+            }
+            if (LOGGER().numErrors() != 0) {
+                ba = null;
+            }
+        } finally {
+            Global.setGlobal(previous); // pw has been flushed by close
+        }
+        return new Result(classname, ba, sw.toString());
+    }
+    
+    public static class Result {
+
+        private final String classname;
+        private final byte[] bytes;
+        private final String diagnostics;
+
+        private Result(String classname, byte[] bytes, String diagnostics) {
+            this.classname = classname;
+            this.bytes = bytes;
+            this.diagnostics = diagnostics;
+        }
+
+        public boolean isSuccess() {
+            return bytes != null;
+        }
+        
+        // internal form i.e. with '/'
+        public Optional<String> className() {
+            return Optional.ofNullable(classname);
+        }
+
+        public Optional<byte[]> bytes() {
+            return Optional.ofNullable(bytes);
+        }
+
+        public String diagnostics() {
+            return diagnostics;
+        }
+
+        // class must be in same package as lookup class
+        public Class<?> define(MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.defineClass(checkedBytes());
+        }
+
+        private byte[] checkedBytes() {
+            if (bytes == null) {
+                // "no class bytes as assembly of %s failed:%n%s"
+                throw new IllegalStateException(M627.format(classname, diagnostics));
+            }
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return diagnostics;
+        }
+
+    }
+}
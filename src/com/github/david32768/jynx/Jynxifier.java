@@ -13,6 +13,11 @@ public class Jynxifier {
     public static Printer getPrinter() {
         return new JynxText();
     }
+
+    // pw must also be passed to TraceClassVisitor
+    public static Printer getStreamingPrinter(PrintWriter pw) {
+        return new JynxText(pw);
+    }
     
     public static void main(final String[] args) throws IOException {
         byte[] ba = ClassUtil.getClassBytes(args[0]);
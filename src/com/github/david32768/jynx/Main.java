@@ -97,6 +97,7 @@ public class Main {
             success = main.run(optname);
         } catch (SevereError ex) {
             if (OPTION(GlobalOption.DEBUG)) {
+                LOGGER().flush();
                 ex.printStackTrace();;
             }
             success = false;
@@ -112,7 +113,12 @@ public class Main {
     }
     
     public static void main(String[] args) {
-        boolean success = mainz(args);
+        boolean success;
+        try {
+            success = mainz(args);
+        } finally {
+            LOGGER().flush();
+        }
         if (!success) {
             System.exit(1);
         }
@@ -1,6 +1,8 @@
 package jvm;
 
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -224,29 +226,84 @@ public enum AccessFlag implements JvmVersioned {
                 .filter(AccessFlag::relevent);
     }
     
+    private static final Map<String,AccessFlag> BY_NAME = new HashMap<>();
+    
+    static {
+        for (AccessFlag flag:values()) {
+            BY_NAME.putIfAbsent(flag.stringValue(), flag); // acc_strict before valhalla_acc_strict
+        }
+    }
+    
     public static Optional<AccessFlag> fromString(String token) {
         String tokenx = token.equals("fpstrict")? acc_strict.toString(): token;
-        return stream()
-                .filter(acc->acc.stringValue().equals(tokenx))
-                .findFirst();
+        return Optional.ofNullable(BY_NAME.get(tokenx))
+                .filter(AccessFlag::relevent);
     }
 
-    private boolean isPresent(int access,Context state) {
-        return isValid(state) && (this.access_flag & access) != 0;
-    }
+    // flags of a context by access bit and the access bits valid for each version
+    private static class ContextMasks {
+
+        private final AccessFlag[] bybit;
+        private final int known;
+        private final int[] valid;
 
-    private boolean isPresent(int access,Context state, JvmVersion jvmversion) {
-        return isPresent(access,state) && jvmversion.supports(this);
+        private ContextMasks(Context context) {
+            this.bybit = new AccessFlag[Integer.SIZE];
+            int knownmask = 0;
+            for (AccessFlag flag:values()) {
+                if (flag.access_flag != 0 && flag.isValid(context) && flag.relevent()) {
+                    int bitnum = Integer.numberOfTrailingZeros(flag.access_flag);
+                    assert bybit[bitnum] == null;
+                    bybit[bitnum] = flag;
+                    knownmask |= flag.access_flag;
+                }
+            }
+            this.known = knownmask;
+            JvmVersion[] versions = JvmVersion.values();
+            this.valid = new int[versions.length];
+            for (JvmVersion version:versions) {
+                int validmask = 0;
+                for (AccessFlag flag:bybit) {
+                    if (flag != null && version.supports(flag)) {
+                        validmask |= flag.access_flag;
+                    }
+                }
+                valid[version.ordinal()] = validmask;
+            }
+        }
+        
+        private AccessFlags flagsOf(int access) {
+            long bits = 0L;
+            for (int rest = access & known; rest != 0; rest &= rest - 1) {
+                bits |= AccessFlags.bit(bybit[Integer.numberOfTrailingZeros(rest)]);
+            }
+            return AccessFlags.ofBits(bits);
+        }
+    }
+    
+    // indexed by [valhalla][context]; computed on first use
+    private static final ContextMasks[][] MASKS = new ContextMasks[2][Context.values().length];
+    
+    private static ContextMasks masks(Context context) {
+        int valhalla = OPTION(VALHALLA)? 1: 0;
+        ContextMasks masks = MASKS[valhalla][context.ordinal()];
+        if (masks == null) {
+            masks = new ContextMasks(context);
+            MASKS[valhalla][context.ordinal()] = masks;
+        }
+        return masks;
     }
 
     // basic check and disambiguate
-    public static EnumSet<AccessFlag> getEnumSet(int access, Context acctype, JvmVersion jvmversion) {
+    public static AccessFlags getAccessFlags(int access, Context acctype, JvmVersion jvmversion) {
         assert acctype.usesAccessFlags(): "" + acctype.toString();
-        var flags = valid(access, acctype, jvmversion);
-        int invalid = access &~ getAccess(flags);
+        ContextMasks masks = masks(acctype);
+        int validmask = masks.valid[jvmversion.ordinal()];
+        AccessFlags flags = masks.flagsOf(access & validmask);
+        int invalid = access &~ validmask;
         if (invalid != 0) {
-            var posflags = known(invalid, acctype);
-            int unknown = invalid &~ getAccess(posflags);
+            AccessFlags posflags = masks.flagsOf(invalid);
+            int unknown = invalid &~ masks.known;
             if (!posflags.isEmpty()) {
                 // "access flag(s) %s in context %s not valid for version %s"
                 LOG(M110, posflags, acctype, jvmversion);
@@ -256,40 +313,12 @@ public enum AccessFlag implements JvmVersioned {
                 LOG(M107, unknown, acctype);
             }
         }
-        return flags;
-    }
-
-    public static EnumSet<AccessFlag> valid(int access, Context context, JvmVersion jvmversion) {
-        assert context.usesAccessFlags(): "" + context.toString();
-        var flagset = stream()
-                .filter(flag->flag.isPresent(access, context, jvmversion))
-                .collect(()->EnumSet.noneOf(AccessFlag.class), EnumSet::add, EnumSet::addAll);
-        if (OPTION(VALHALLA) && (context == CLASS || context == INNER_CLASS)) {
-            if (flagset.contains(acc_super) || flagset.contains(valhalla_acc_identity)) {
-            } else {
-                flagset.add(valhalla_acc_value);
+        if (OPTION(VALHALLA) && (acctype == CLASS || acctype == INNER_CLASS)) {
+            if (!flags.contains(acc_super) && !flags.contains(valhalla_acc_identity)) {
+                flags = flags.with(valhalla_acc_value);
             }
         }
-        return flagset;
-    }
-
-    public static EnumSet<AccessFlag> known(int access, Context acctype) {
-        assert acctype.usesAccessFlags(): "" + acctype.toString();
-        return stream()
-                    .filter(flag->flag.isPresent(access, acctype))
-                    .collect(()->EnumSet.noneOf(AccessFlag.class), EnumSet::add, EnumSet::addAll);
-    }
-
-    public static String[] stringArrayOf(EnumSet<AccessFlag> flags) {
-        return flags.stream()
-                .map(AccessFlag::stringValue)
-                .toArray(String[]::new);
-    }
-
-    public static int getAccess(EnumSet<AccessFlag> flags) {
-        return flags.stream()
-                .mapToInt(AccessFlag::getAccessFlag)
-                .reduce(0, (accumulator, _item) -> accumulator | _item);
+        return flags;
     }
 
 }
@@ -0,0 +1,137 @@
+package jvm;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// immutable set of access flags held as a mask of AccessFlag ordinals
+//  (not access bits as several flags share a bit and pseudo flags have none)
+public final class AccessFlags {
+
+    private static final AccessFlag[] FLAGS = AccessFlag.values();
+    
+    public static final AccessFlags NONE = new AccessFlags(0L);
+    
+    static {
+        assert FLAGS.length <= Long.SIZE;
+    }
+    
+    private final long bits;
+
+    private AccessFlags(long bits) {
+        this.bits = bits;
+    }
+
+    static AccessFlags ofBits(long bits) {
+        return bits == 0L? NONE: new AccessFlags(bits);
+    }
+    
+    static long bit(AccessFlag flag) {
+        return 1L << flag.ordinal();
+    }
+    
+    public static AccessFlags of(AccessFlag... flags) {
+        long bits = 0L;
+        for (AccessFlag flag:flags) {
+            bits |= bit(flag);
+        }
+        return ofBits(bits);
+    }
+    
+    public boolean contains(AccessFlag flag) {
+        return (bits & bit(flag)) != 0;
+    }
+
+    public boolean containsAll(AccessFlags flags) {
+        return (bits & flags.bits) == flags.bits;
+    }
+
+    public boolean isEmpty() {
+        return bits == 0L;
+    }
+    
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    public int countOf(AccessFlags flags) {
+        return Long.bitCount(bits & flags.bits);
+    }
+    
+    public AccessFlags with(AccessFlag flag) {
+        return ofBits(bits | bit(flag));
+    }
+    
+    public AccessFlags with(AccessFlags flags) {
+        return ofBits(bits | flags.bits);
+    }
+    
+    public AccessFlags without(AccessFlag flag) {
+        return ofBits(bits & ~bit(flag));
+    }
+    
+    public AccessFlags without(AccessFlags flags) {
+        return ofBits(bits & ~flags.bits);
+    }
+    
+    public AccessFlags filter(Predicate<AccessFlag> pred) {
+        long result = 0L;
+        for (long rest = bits; rest != 0L; rest &= rest - 1) {
+            AccessFlag flag = FLAGS[Long.numberOfTrailingZeros(rest)];
+            if (pred.test(flag)) {
+                result |= bit(flag);
+            }
+        }
+        return result == bits? this: ofBits(result);
+    }
+    
+    public int getAccess() {
+        int access = 0;
+        for (long rest = bits; rest != 0L; rest &= rest - 1) {
+            access |= FLAGS[Long.numberOfTrailingZeros(rest)].getAccessFlag();
+        }
+        return access;
+    }
+
+    // in declaration order
+    public void forEach(Consumer<AccessFlag> action) {
+        for (long rest = bits; rest != 0L; rest &= rest - 1) {
+            action.accept(FLAGS[Long.numberOfTrailingZeros(rest)]);
+        }
+    }
+
+    public Stream<AccessFlag> stream() {
+        Stream.Builder<AccessFlag> builder = Stream.builder();
+        forEach(builder);
+        return builder.build();
+    }
+    
+    public AccessFlag[] toArray() {
+        return stream().toArray(AccessFlag[]::new);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof AccessFlags && ((AccessFlags)obj).bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    // same form as EnumSet
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        forEach(flag -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(flag);
+        });
+        return sb.append(']').toString();
+    }
+    
+}
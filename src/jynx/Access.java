@@ -1,10 +1,7 @@
 package jynx;
 
-import java.util.Arrays;
-import java.util.EnumSet;
-import java.util.function.LongPredicate;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static jvm.AccessFlag.*;
 import static jvm.Context.*;
@@ -16,6 +13,7 @@ import static jynx.GlobalOption.VALHALLA;
 import static jynx.Message.*;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.Context;
 import jvm.Feature;
@@ -24,24 +22,23 @@ import jynx2asm.NameDesc;
 
 public class Access {
 
-    private final EnumSet<AccessFlag> accflags;
+    private AccessFlags accflags;
     private final JvmVersion jvmVersion;
     private final String name;
     private final ClassType classType;
 
-    private Access(EnumSet<AccessFlag> accflags, JvmVersion jvmVersion, String name, ClassType classtype) {
+    private Access(AccessFlags accflags, JvmVersion jvmVersion, String name, ClassType classtype) {
         this.accflags = accflags;
         this.jvmVersion = jvmVersion;
         this.name = name;
         this.classType = classtype;
     }
 
-    public static Access getInstance(EnumSet<AccessFlag> accflags,
+    public static Access getInstance(AccessFlags accflags,
             JvmVersion jvmversion, String name, ClassType classtype) {
-        var myflags = accflags.clone();
+        var myflags = accflags;
         if (OPTION(GlobalOption.VALHALLA) && SUPPORTS(Feature.value) && myflags.contains(acc_strict)) {
-            myflags.remove(acc_strict);
-            myflags.add(valhalla_acc_strict);
+            myflags = myflags.without(acc_strict).with(valhalla_acc_strict);
         }
         return new Access(myflags, jvmversion, name, classtype);
     }
@@ -63,7 +60,7 @@ public class Access {
     }
 
     public void setComponent() {
-        accflags.add(xxx_component);
+        accflags = accflags.with(xxx_component);
     }
     
     private boolean isComponent() {
@@ -71,27 +68,24 @@ public class Access {
     }
 
     public int getAccess() {
-        return AccessFlag.getAccess(accflags);
+        return accflags.getAccess();
     }
 
-    private String access2string(EnumSet<AccessFlag> flags) {
+    private String access2string(AccessFlags flags) {
         return flags.stream()
                 .map(AccessFlag::toString)
                 .collect(Collectors.joining(" "));
     }
 
     private String access2string(AccessFlag... flags) {
-        EnumSet<AccessFlag> flagset = EnumSet.of(flags[0], Arrays.copyOfRange(flags, 1, flags.length));
-        return access2string(flagset);
+        return access2string(AccessFlags.of(flags));
     }
 
-    private boolean checkCount(LongPredicate pred, AccessFlag... flags) {
-        long ct = Stream.of(flags)
-                .filter(accflags::contains)
-                .count();
-        boolean valid = pred.test(ct);
+    private boolean checkCount(IntPredicate pred, AccessFlag... flags) {
+        AccessFlags flagset = AccessFlags.of(flags);
+        boolean valid = pred.test(accflags.countOf(flagset));
         if (!valid) {
-            accflags.removeAll(Arrays.asList(flags));
+            accflags = accflags.without(flagset);
         }
         return valid;
     }
@@ -100,7 +94,7 @@ public class Access {
         boolean valid = checkCount(ct -> ct == 1, flags);
         if (!valid) {
             LOG(M120,access2string(flags));  // "Requires only one of {%s} specified"
-            accflags.add(flags[0]);
+            accflags = accflags.with(flags[0]);
         }
     }
 
@@ -108,7 +102,7 @@ public class Access {
         boolean valid = checkCount(ct -> ct <= 1, flags);
         if (!valid) {
             LOG(M114,access2string(flags));  // "Requires at most one of {%s} specified"
-            accflags.add(flags[0]);
+            accflags = accflags.with(flags[0]);
         }
     }
 
@@ -116,12 +110,12 @@ public class Access {
         boolean valid = checkCount(ct -> ct == flags.length, flags);
         if (!valid) {
             LOG(M118,access2string(flags));  // "Requires all of {%s} specified"
-            accflags.addAll(Arrays.asList(flags));
+            accflags = accflags.with(AccessFlags.of(flags));
         }
     }
 
-    private void allOf(EnumSet<AccessFlag> flags) {
-        allOf(flags.toArray(AccessFlag[]::new));
+    private void allOf(AccessFlags flags) {
+        allOf(flags.toArray());
     }
     
     private void noneOf(AccessFlag... flags) {
@@ -134,21 +128,15 @@ public class Access {
     private void checkValid(Context state, Directive dir) {
         mostOneOf(acc_public, acc_protected, acc_private);
         mostOneOf(acc_final, acc_abstract);
-        EnumSet<AccessFlag> unknown = EnumSet.noneOf(AccessFlag.class);
-        accflags.stream()
-                .filter(flag -> !flag.isValid(state,dir))
-                .forEach(unknown::add);
+        AccessFlags unknown = accflags.filter(flag -> !flag.isValid(state,dir));
         if (!unknown.isEmpty()) {
             LOG(M160,unknown,state);  // "invalid access flags %s for %s are dropped"
-            accflags.removeAll(unknown);
+            accflags = accflags.without(unknown);
         }
-        EnumSet<AccessFlag> invalid = EnumSet.noneOf(AccessFlag.class);
-        accflags.stream()
-                .filter(flag -> !jvmVersion.supports(flag))
-                .forEach(invalid::add);
+        AccessFlags invalid = accflags.filter(flag -> !jvmVersion.supports(flag));
         if (!invalid.isEmpty()) {
             LOG(M110, invalid, state, jvmVersion);  // "access flag(s) %s in context %s not valid for version %s"
-            accflags.removeAll(invalid);
+            accflags = accflags.without(invalid);
         }
     }
 
@@ -1,6 +1,5 @@
 package jynx;
 
-import java.util.EnumSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -15,7 +14,7 @@ import static jynx.Message.M283;
 import static jynx.Message.M327;
 import static jynx2asm.NameDesc.CLASS_NAME;
 
-import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.JvmVersion;
 
@@ -26,51 +25,53 @@ public enum ClassType {
             // ANNOTATION must come before INTERFACE
     ANNOTATION_CLASS(Constants.OBJECT_CLASS, true,
             dir_define_annotation, dir_inner_define_annotation,
-            EnumSet.of(acc_annotation),
-            EnumSet.of(acc_annotation, acc_interface, acc_abstract)),
+            AccessFlags.of(acc_annotation),
+            AccessFlags.of(acc_annotation, acc_interface, acc_abstract)),
             // INTERFACE must be after ANNOTATION
     INTERFACE(Constants.OBJECT_CLASS, false,
             dir_interface, dir_inner_interface,
-            EnumSet.of(acc_interface),
-            EnumSet.of(acc_interface, acc_abstract)),
+            AccessFlags.of(acc_interface),
+            AccessFlags.of(acc_interface, acc_abstract)),
             // PACKAGE must be after INTERFACE
     PACKAGE(Constants.OBJECT_CLASS, true,
             dir_package, null,
             null,
-            EnumSet.of(acc_interface,acc_abstract)),
+            AccessFlags.of(acc_interface,acc_abstract)),
     ENUM(Constants.ENUM_SUPER, false,
             dir_enum, dir_inner_enum,
-            EnumSet.of(acc_enum),
-            EnumSet.of(acc_enum, acc_super)),
+            AccessFlags.of(acc_enum),
+            AccessFlags.of(acc_enum, acc_super)),
     MODULE_CLASS(null, true,
             dir_define_module, null,
-            EnumSet.of(acc_module),
-            EnumSet.of(acc_module)),
+            AccessFlags.of(acc_module),
+            AccessFlags.of(acc_module)),
     RECORD(Constants.RECORD_SUPER, true,
             dir_record, dir_inner_record,
-            EnumSet.of(acc_record),
-            EnumSet.of(acc_record, acc_super)),
+            AccessFlags.of(acc_record),
+            AccessFlags.of(acc_record, acc_super)),
     BASIC(Constants.OBJECT_CLASS, false,
             dir_class, dir_inner_class,
-            EnumSet.of(acc_super),
-            EnumSet.of(acc_super)),
+            AccessFlags.of(acc_super),
+            AccessFlags.of(acc_super)),
     VALUE_CLASS(Constants.OBJECT_CLASS, false,
             dir_class, dir_inner_class,
-            EnumSet.of(valhalla_acc_value),
-            EnumSet.noneOf(AccessFlag.class)),
+            AccessFlags.of(valhalla_acc_value),
+            AccessFlags.NONE),
     ;
 
     private final String defaultSuper;
     private final boolean mandatedSuper;
     private final Directive dir;
     private final Directive innerDir;
-    private final EnumSet<AccessFlag> determinator;
-    private final EnumSet<AccessFlag> must;
+    private final AccessFlags determinator;
+    private final AccessFlags must;
+    private final AccessFlags[] must4class; // by JvmVersion; computed on first use
+    private final AccessFlags[] must4inner;
 
     private ClassType(Constants defaultSuper, boolean mandated,
             Directive dir, Directive innerDir,
-            EnumSet<AccessFlag> determinator,
-            EnumSet<AccessFlag> must) {
+            AccessFlags determinator,
+            AccessFlags must) {
         assert determinator == null || must.isEmpty() || must.containsAll(determinator);
         this.defaultSuper = defaultSuper == null? null: defaultSuper.stringValue();
         this.mandatedSuper = mandated;
@@ -78,6 +79,8 @@ public enum ClassType {
         this.innerDir = innerDir;
         this.determinator = determinator;
         this.must = must;
+        this.must4class = new AccessFlags[JvmVersion.values().length];
+        this.must4inner = new AccessFlags[JvmVersion.values().length];
     }
 
     public String defaultSuper() {
@@ -87,11 +90,11 @@ public enum ClassType {
         return defaultSuper;
     }
     
-    private boolean isMe(EnumSet<AccessFlag> accflags) {
+    private boolean isMe(AccessFlags accflags) {
         return determinator != null && accflags.containsAll(determinator);
     }
     
-    public static ClassType from(EnumSet<AccessFlag> accflags) {
+    public static ClassType from(AccessFlags accflags) {
         var classtype = Stream.of(values())
                 .filter(ct->ct.isMe(accflags))
                 .findFirst()
@@ -99,7 +102,7 @@ public enum ClassType {
         return classtype;
     }
 
-    public static ClassType of(Directive dir, EnumSet<AccessFlag> flags) {
+    public static ClassType of(Directive dir, AccessFlags flags) {
         var classtype =  Stream.of(values())
                 .filter(ct->ct.dir == dir)
                 .findFirst()
@@ -120,18 +123,24 @@ public enum ClassType {
         return innerDir;
     }
 
-    private EnumSet<AccessFlag> getMustHave(JvmVersion jvmversion, boolean inner) {
-        return must.stream()
-                .filter(flag->jvmversion.supports(flag))
-                .filter(flag->!(inner && flag == acc_super))
-                .collect(()->EnumSet.noneOf(AccessFlag.class),EnumSet::add,EnumSet::addAll);
+    private AccessFlags getMustHave(JvmVersion jvmversion, boolean inner) {
+        AccessFlags[] cache = inner? must4inner: must4class;
+        AccessFlags flags = cache[jvmversion.ordinal()];
+        if (flags == null) {
+            flags = must.filter(flag->jvmversion.supports(flag));
+            if (inner) {
+                flags = flags.without(acc_super);
+            }
+            cache[jvmversion.ordinal()] = flags;
+        }
+        return flags;
     }
 
-    public EnumSet<AccessFlag> getMustHave4Class(JvmVersion jvmversion) {
+    public AccessFlags getMustHave4Class(JvmVersion jvmversion) {
         return getMustHave(jvmversion, false);
     }
 
-    public EnumSet<AccessFlag> getMustHave4Inner(JvmVersion jvmversion) {
+    public AccessFlags getMustHave4Inner(JvmVersion jvmversion) {
         return getMustHave(jvmversion, true);
     }
 
@@ -1,5 +1,6 @@
 package jynx;
 
+import java.io.PrintWriter;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Objects;
@@ -9,6 +10,7 @@ import static jynx.Message.M218;
 import static jynx.Message.M219;
 import static jynx.Message.M32;
 import static jynx.Message.M4;
+import static jynx.Message.M619;
 import static jynx.Message.M73;
 import static jynx.Message.M999;
 
@@ -34,74 +36,117 @@ public class Global {
         this.main = null;
     }
 
-    private Global(MainOption type, EnumSet<GlobalOption> options) {
+    private Global(MainOption type, EnumSet<GlobalOption> options, Logger logger) {
         this.main = type;
         this.options = options;
-        this.logger  = new Logger(type.name().toLowerCase());
+        this.logger  = logger;
         this.jvmVersion = null;
     }
     
-    private static Global global = new Global();
+    // each thread has its own so that classes can be assembled concurrently
+    private static final ThreadLocal<Global> GLOBAL = ThreadLocal.withInitial(Global::new);
+    
+    private static Global global() {
+        return GLOBAL.get();
+    }
     
     public static void newGlobal(MainOption type) {
-        global = new Global(type, EnumSet.noneOf(GlobalOption.class));
+        global().logger.flush();
+        Logger logger = new Logger(type.name().toLowerCase());
+        GLOBAL.set(new Global(type, EnumSet.noneOf(GlobalOption.class), logger));
         // "%nJynx %s %s; Java runtime version %s"
         LOG(M4, type.name(), type.version(), Runtime.version());
     }
     
+    public static void newGlobal(MainOption type, EnumSet<GlobalOption> options, PrintWriter pw) {
+        Logger logger = new Logger(type.name().toLowerCase(), pw);
+        GLOBAL.set(new Global(type, EnumSet.noneOf(GlobalOption.class), logger));
+        ADD_OPTIONS(options);
+    }
+    
+    // a fork has its own logger but the same options, version, class name and translator
+    public static Global forkGlobal(PrintWriter pw) {
+        Global current = global();
+        Global fork = new Global(current.main, EnumSet.copyOf(current.options), current.logger.fork(pw));
+        fork.jvmVersion = current.jvmVersion;
+        fork.classname = current.classname;
+        fork.ttanslator = current.ttanslator;
+        return fork;
+    }
+    
+    // returns the previous Global of this thread
+    public static Global setGlobal(Global global) {
+        Global previous = global();
+        GLOBAL.set(global);
+        return previous;
+    }
+    
+    public static void removeGlobal() {
+        global().logger.flush();
+        GLOBAL.remove();
+    }
+    
     public static Logger LOGGER() {
-        return global.logger;
+        return global().logger;
     }
 
     public static void setJvmVersion(JvmVersion jvmversion) {
-        assert global.jvmVersion == null || global.jvmVersion == jvmversion;
-        global.jvmVersion = jvmversion;
+        assert global().jvmVersion == null || global().jvmVersion == jvmversion;
+        global().jvmVersion = jvmversion;
     }
     
     public static void setTranslator(Translator translator) {
-        assert global.ttanslator == null;
-        global.ttanslator = translator;
+        assert global().ttanslator == null;
+        global().ttanslator = translator;
     }
     
     public static void setClassName(String classname) {
-        assert global.classname == null;
-        global.classname = classname;
+        assert global().classname == null;
+        global().classname = classname;
     }
     
     public static JvmVersion JVM_VERSION() {
-        Objects.nonNull(global.jvmVersion);
-        return global.jvmVersion;
+        Objects.nonNull(global().jvmVersion);
+        return global().jvmVersion;
     }
     
     public static String CLASS_NAME() {
-        Objects.nonNull(global.classname);
-        return global.classname;
+        Objects.nonNull(global().classname);
+        return global().classname;
     }
     
     public static boolean CHECK_SUPPORTS(JvmVersioned feature) {
-        if (feature != null && global.jvmVersion != null) {
-            return global.jvmVersion.checkSupports(feature);
+        if (feature != null && global().jvmVersion != null) {
+            return global().jvmVersion.checkSupports(feature);
         }
         return true;
     }
     
     public static boolean CHECK_CAN_LOAD(ConstantPoolType cp) {
-        if (global.jvmVersion != null) {
-            return cp.checkLoadableBy(global.jvmVersion);
+        if (global().jvmVersion != null) {
+            return cp.checkLoadableBy(global().jvmVersion);
         }
         return true;
     }
     
     public static boolean SUPPORTS(JvmVersioned feature) {
-        if (feature != null && global.jvmVersion != null) {
-            return global.jvmVersion.supports(feature);
+        if (feature != null && global().jvmVersion != null) {
+            return global().jvmVersion.supports(feature);
         }
         return feature == null;
     }
     
     public static boolean ADD_OPTION(GlobalOption option) {
-        if (global.main.usesOption(option)) {
-            return global.options.add(option);
+        if (global().main.usesOption(option)) {
+            if (option.isValidationLevel()) {
+                for (GlobalOption other:global().options) {
+                    if (other != option && other.isValidationLevel()) {
+                        LOG(M619,option,other); // "option %s ignored as conflicts with option %s"
+                        return false;
+                    }
+                }
+            }
+            return global().options.add(option);
         } else {
             LOG(M73,option); // "irrelevant option %s ignored"
             return false;
@@ -114,11 +159,11 @@ public class Global {
     }
     
     public static boolean OPTION(GlobalOption option) {
-        return global.options.contains(option);
+        return global().options.contains(option);
     }
     
     public static EnumSet<GlobalOption> OPTIONS() {
-        return global.options.clone();
+        return global().options.clone();
     }
     
     public static Optional<String> setOptions(String[] args) {
@@ -154,22 +199,24 @@ public class Global {
     }
 
     public static void LOG(Message msg,Object... objs) {
-        global.logger.log(msg,objs);
+        global().logger.log(msg,objs);
     }
 
     public static void LOG(String linestr, Message msg, Object... objs) {
-        global.logger.log(linestr, msg, objs);
+        global().logger.log(linestr, msg, objs);
     }
 
     public static void LOG(Throwable ex, Message msg, Object... objs) {
         if (OPTION(GlobalOption.DEBUG)) {
+            global().logger.flush();
             ex.printStackTrace();;
         }
-        global.logger.log(msg, objs);
+        global().logger.log(msg, objs);
     }
 
     public static void LOG(Throwable ex) {
         if (OPTION(GlobalOption.DEBUG)) {
+            global().logger.flush();
             ex.printStackTrace();;
         }
         if (ex instanceof LogIllegalArgumentException) {
@@ -185,26 +232,26 @@ public class Global {
     }
 
     public static boolean END_MESSAGES(String classname) {
-        return global.logger.printEndInfo(classname);
+        return global().logger.printEndInfo(classname);
     }
     
     public static MainOption MAIN_OPTION() {
-        return global.main;
+        return global().main;
     }
 
     public static String TRANSLATE_DESC(String str) {
-        return global.ttanslator.translateDesc(CLASS_NAME(),str);
+        return global().ttanslator.translateDesc(CLASS_NAME(),str);
     }
     
     public static String TRANSLATE_PARMS(String str) {
-        return global.ttanslator.translateParms(CLASS_NAME(),str);
+        return global().ttanslator.translateParms(CLASS_NAME(),str);
     }
     
     public static String TRANSLATE_TYPE(String str, boolean semi) {
-        return global.ttanslator.translateType(CLASS_NAME(),str, semi);
+        return global().ttanslator.translateType(CLASS_NAME(),str, semi);
     }
     
     public static String TRANSLATE_OWNER(String str) {
-        return global.ttanslator.translateOwner(CLASS_NAME(),str);
+        return global().ttanslator.translateOwner(CLASS_NAME(),str);
     }
 }
@@ -1,5 +1,6 @@
 package jynx;
 
+import java.util.EnumSet;
 import java.util.function.Function;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -26,6 +27,13 @@ public enum GlobalOption {
     SYMBOLIC_LOCAL(M44), // "local variables are symbolic not absolute integers"
     USE_CLASSFILE(M74), // "use java.lang.classfile"
     VALHALLA(M601), // "Valhalla - limited support; may change"
+    VALIDATION_FULL(M616), // "validate using Jynx checks, ASM Analyzer and ASM CheckClassAdapter (default)"
+    VALIDATION_STANDARD(M617), // "validate using Jynx checks and ASM Analyzer"
+    VALIDATION_FAST(M618), // "validate using Jynx checks only (labels, limits and switch sizes)"
+    WATCH(M621), // "file name is a directory; reassemble changed files in it until interrupted"
+    BUNDLE(M639), // "file holds several classes, each starting with .version and optionally ending with .end_class"
+    PARALLEL_METHODS(M644), // "assemble and verify method bodies concurrently (output and messages are in source order)"
+    BINARY(M641), // "produce pre-tokenised binary Jynx (.jxb) instead of text (2jynx, tojynx) or a class file (jynx)"
     
     SKIP_CODE(M39), // "do not produce code"
     SKIP_DEBUG(M29), // "do not produce debug info"
@@ -33,12 +41,16 @@ public enum GlobalOption {
     SKIP_ANNOTATIONS(M18), // "do not produce annotations"
     DOWN_CAST(M14), // "if necessary reduces JVM release to maximum supported by ASM version"
     GENERIC_SWITCH(M148), // "optimise switch instruction size"
+    OPTIMISE(M628), // "apply peephole optimisations to method code"
+    REUSE_LOCALS(M645), // "with SYMBOLIC_LOCAL, variables of the same type whose live ranges do not overlap share a slot"
+    LDC_BY_FREQUENCY(M631), // "give constants most used by ldc the lowest constant pool indices"
     SKIP_STACK(M609), // "do not print stack after each instruction"
     
     DEBUG(M13), // "print stack trace(s)"
     DETAIL(M17),  // "prints constant pool, instructions and other detail"
     INCREASE_MESSAGE_SEVERITY(M25), // "treat warnings as errors etc."
     SUPPRESS_WARNINGS(M27), // "suppress warnings"
+    JSON_MESSAGES(M620), // "print messages as JSON lines"
     
     // internal
 
@@ -88,10 +100,20 @@ public enum GlobalOption {
     private final static String OPTION_PREFIX = "--";
     private final static String ABBREV_PREFIX = "-";
 
+    private static final String VALIDATION_PREFIX = "VALIDATION=";
+
+    // VALIDATION=<level> is the same as VALIDATION_<level>
+    private static String levelName(String optname) {
+        int length = VALIDATION_PREFIX.length();
+        if (optname.regionMatches(true, 0, VALIDATION_PREFIX, 0, length)) {
+            return "VALIDATION_" + optname.substring(length);
+        }
+        return optname;
+    }
+    
     private static boolean isEqual(String myname, String option, String prefix) {
         return myname != null && option.startsWith(prefix)
-                && option
-                    .substring(prefix.length())
+                && levelName(option.substring(prefix.length()))
                     .replace('-', '_')
                     .equalsIgnoreCase(myname);
     }
@@ -104,6 +126,13 @@ public enum GlobalOption {
         return isEqual(name(), option, OPTION_PREFIX) || isEqual(abbrev, option, ABBREV_PREFIX);
     }
     
+    private static final EnumSet<GlobalOption> VALIDATION_LEVELS
+            = EnumSet.of(VALIDATION_FULL, VALIDATION_STANDARD, VALIDATION_FAST);
+    
+    public boolean isValidationLevel() {
+        return VALIDATION_LEVELS.contains(this);
+    }
+    
     public String asArg() {
         return OPTION_PREFIX + name();
     }
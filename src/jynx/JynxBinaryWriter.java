@@ -0,0 +1,139 @@
+package jynx;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*
+    binary pre-tokenised Jynx source
+        int magic; short version;
+        varint string_count; { varint length; UTF-8 bytes } string_count
+        varint line_count; { varint linect_delta; varint indent; varint token_count; { varint string_index } }
+    comment and empty lines are dropped but line numbers are those of the text source
+*/
+public class JynxBinaryWriter extends Writer implements Consumer<String> {
+
+    public final static int MAGIC = 0x4A594E42; // "JYNB"
+    public final static int VERSION = 1;
+    
+    private final OutputStream out;
+    private final Map<String,Integer> strings;
+    private final ByteArrayOutputStream lines;
+    private final StringBuilder partial;
+
+    private int linect;
+    private int lastct;
+    private int linecount;
+    
+    public JynxBinaryWriter(OutputStream out) {
+        this.out = out;
+        this.strings = new LinkedHashMap<>();
+        this.lines = new ByteArrayOutputStream();
+        this.partial = new StringBuilder();
+        this.linect = 0;
+        this.lastct = 0;
+        this.linecount = 0;
+    }
+
+    public static void convert(BufferedReader reader, OutputStream out) throws IOException {
+        try (JynxBinaryWriter jbw = new JynxBinaryWriter(out)) {
+            String linestr;
+            while ((linestr = reader.readLine()) != null) {
+                jbw.addLine(linestr);
+            }
+        }
+    }
+    
+    @Override
+    public void accept(String str) {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        for (int i = off; i < off + len; ++i) {
+            char c = cbuf[i];
+            if (c == '\n') {
+                addLine(partial.toString());
+                partial.setLength(0);
+            } else if (c != '\r') {
+                partial.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        char[] cbuf = new char[len];
+        str.getChars(off, off + len, cbuf, 0);
+        write(cbuf, 0, len);
+    }
+    
+    private void addLine(String line) {
+        ++linect;
+        String str = line.trim();
+        if (str.isEmpty() || str.charAt(0) == ';') {
+            return;
+        }
+        int indent = 0;
+        while (Character.isWhitespace(line.charAt(indent))) ++indent;
+        str = StringUtil.unescapeUnicode(str);
+        String[] tokens = StringUtil.tokenise(str);
+        if (tokens.length == 0) {
+            return;
+        }
+        putVarint(lines, linect - lastct);
+        lastct = linect;
+        putVarint(lines, indent);
+        putVarint(lines, tokens.length);
+        for (String token : tokens) {
+            Integer index = strings.putIfAbsent(token, strings.size());
+            putVarint(lines, index == null? strings.size() - 1: index);
+        }
+        ++linecount;
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (partial.length() != 0) {
+            addLine(partial.toString());
+            partial.setLength(0);
+        }
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        putVarint(table, strings.size());
+        for (String str : strings.keySet()) {
+            byte[] ba = str.getBytes(StandardCharsets.UTF_8);
+            putVarint(table, ba.length);
+            table.write(ba, 0, ba.length);
+        }
+        putVarint(table, linecount);
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeShort(VERSION);
+        table.writeTo(dos);
+        lines.writeTo(dos);
+        dos.close();
+    }
+    
+    private static void putVarint(ByteArrayOutputStream baos, int value) {
+        assert value >= 0;
+        while ((value & ~0x7f) != 0) {
+            baos.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        baos.write(value);
+    }
+    
+}
@@ -1,6 +1,10 @@
 package jynx;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.Objects;
@@ -10,44 +14,72 @@ import static jynx.Global.OPTION;
 
 import static jynx.Message.*;
 
+import jynx2asm.Line;
+
 public class Logger {
 
     private static final int MAX_ERRORS = 20;
 
-    private final Deque<String> contexts;
-    private final Deque<String> lines;
-    private final Set<String> endinfo;
+    // line context is kept as an object and only converted to a String if a message is printed
+    private final Deque<Object> contexts;
+    private final Deque<Object> lines;
+    private final Set<EndInfo> endinfo;
     private final String type;
+    private final PrintWriter out;
+    private final int[] counts;
 
-    private String currentLine;
-    private String lastErrorLine;
+    private Object currentLine;
+    private Object lastErrorLine;
     
     private int errct;
     private final int maxerr;
 
     Logger(String type) {
+        this(type, new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.err))));
+    }
+
+    Logger(String type, PrintWriter out) {
         this.contexts = new ArrayDeque<>();
         this.lines = new ArrayDeque<>();
         this.endinfo = new LinkedHashSet<>(); // so order of info messages is reproducible
         this.type = type;
+        this.out = out;
+        this.counts = new int[Message.values().length];
         this.errct = 0;
         this.maxerr = MAX_ERRORS;
     }
 
+    Logger fork(PrintWriter pw) {
+        Logger fork = new Logger(type, pw);
+        Object context = contexts.peekFirst();
+        if (context != null) {
+            fork.contexts.push(context);
+        }
+        return fork;
+    }
+    
     public int numErrors() {
         return errct;
     }
 
-    public void setLine(String line) {
+    public int count(Message msg) {
+        return counts[msg.ordinal()];
+    }
+    
+    public void setLine(Object line) {
         this.currentLine = line;
     }
     
+    public Object getLine() {
+        return currentLine;
+    }
+    
     public void pushContext() {
         contexts.push(currentLine); // addFirst
     }
     
     public void popContext() {
-        String line = contexts.pop(); // removeFirst
+        Object line = contexts.pop(); // removeFirst
     }
 
     public void pushCurrent() {
@@ -58,39 +90,152 @@ public class Logger {
         currentLine = lines.pop(); // removeFirst
     }
 
+    public void flush() {
+        out.flush();
+    }
+    
+    // adds the messages of a fork whose output was captured in text
+    public void merge(Logger fork, String text) {
+        out.print(text);
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] += fork.counts[i];
+        }
+        endinfo.addAll(fork.endinfo);
+        if (fork.lastErrorLine != null) {
+            lastErrorLine = fork.lastErrorLine;
+        }
+        errct += fork.errct;
+        if (errct > maxerr) {
+            printInfo(M85,type); // "%s terminated because of too many errors"
+            out.flush();
+            throw new SevereError();
+        }
+    }
+    
+    private static boolean isJson() {
+        return OPTION(GlobalOption.JSON_MESSAGES);
+    }
+    
     private void printInfo(Message msg, Object... args) {
-        System.err.println(msg.format(args));
+        if (isJson()) {
+            printJson(msg.getLogtype(), msg, null, args);
+        } else {
+            out.println(msg.format(args));
+        }
     }
     
-    private void printLineMessage(Message msg, Object... args) {
+    private void printLineMessage(LogMsgType logtype, Message msg, Object... args) {
+        if (isJson()) {
+            printJson(logtype, msg, currentLine, args);
+            return;
+        }
         if (Objects.equals(currentLine,lastErrorLine)) {
         } else {
-            System.err.println();
-            String context = contexts.peekFirst();
+            out.println();
+            Object context = contexts.peekFirst();
             if (context != null && !Objects.equals(context,currentLine)) {
-                System.err.println(context);
+                out.println(context);
             }
             if (currentLine != null) {
-                System.err.println(currentLine);
+                out.println(currentLine);
             }
         }
         lastErrorLine = currentLine;
-        printInfo(msg, args);
+        out.println(msg.format(args));
     }
 
-    private void printError(Message msg, Object... args) {
-        printLineMessage(msg, args);
+    private void printError(LogMsgType logtype, Message msg, Object... args) {
+        printLineMessage(logtype, msg, args);
         errct++;
     }
 
+    private void printJson(LogMsgType logtype, Message msg, Object line, Object... args) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        appendJson(sb, "type", logtype.name());
+        sb.append(',');
+        appendJson(sb, "id", msg.name());
+        if (line instanceof Line) {
+            Line jline = (Line)line;
+            sb.append(",\"lineno\":").append(jline.getLinect()).append(',');
+            appendJson(sb, "source", jline.getLine());
+        } else if (line != null) {
+            sb.append(',');
+            appendJson(sb, "source", line.toString());
+        }
+        Object context = contexts.peekFirst();
+        if (line != null && context != null && !Objects.equals(context,line)) {
+            sb.append(',');
+            appendJson(sb, "context", context.toString());
+        }
+        sb.append(',');
+        appendJson(sb, "message", String.format(msg.getFormat(), args));
+        sb.append('}');
+        out.println(sb);
+    }
+
+    private void printJsonCounts(String classname) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        appendJson(sb, "type", "SUMMARY");
+        sb.append(',');
+        appendJson(sb, "class", classname);
+        sb.append(",\"errors\":").append(errct);
+        sb.append(",\"counts\":{");
+        String sep = "";
+        for (Message msg:Message.values()) {
+            int count = counts[msg.ordinal()];
+            if (count != 0) {
+                sb.append(sep).append('"').append(msg.name()).append("\":").append(count);
+                sep = ",";
+            }
+        }
+        sb.append("}}");
+        out.println(sb);
+    }
+
+    private static void appendJson(StringBuilder sb, String name, String value) {
+        sb.append('"').append(name).append("\":\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                case '\\':
+                    sb.append('\\').append(c);
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        sb.append(String.format("\\u%04x", (int)c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        sb.append('"');
+    }
+    
     private void addEndInfo(Message msg, Object... args) {
-        endinfo.add(msg.format(args));
+        endinfo.add(new EndInfo(msg, args));
     }
     
     boolean printEndInfo(String classname){
-        System.err.println();
-        for (String msg:endinfo) {
-            System.err.println(msg);
+        if (!isJson()) {
+            out.println();
+        }
+        Set<String> printed = new LinkedHashSet<>(); // as args may be equal only as strings
+        for (EndInfo info:endinfo) {
+            if (printed.add(info.msg.format(info.args))) {
+                printInfo(info.msg, info.args);
+            }
         }
         endinfo.clear();
         if (errct == 0) {
@@ -99,7 +244,11 @@ public class Logger {
              // "class %s %s completed  unsuccesfully - number of errors is %d"
             printInfo(M131,classname,type,errct);
         }
+        if (isJson()) {
+            printJsonCounts(classname);
+        }
         currentLine = null;
+        out.flush();
         return errct == 0;
     }
 
@@ -116,23 +265,26 @@ public class Logger {
     
     @SuppressWarnings("fallthrough")
     void log(Message msg, Object... objs) {
-       LogMsgType logtype = msgType(msg);
+        ++counts[msg.ordinal()];
+        LogMsgType logtype = msgType(msg);
         switch (logtype) {
             case SEVERE:
-                printError(msg,objs);
+                printError(logtype,msg,objs);
                 printInfo(M84,type); // "%s terminated because of severe error"
+                out.flush();
                 throw new SevereError();
             case LINE:
                 // fall through to warning
             case STYLE:
                 // fall through to warning
             case WARNING:
-                printLineMessage(msg,objs);
+                printLineMessage(logtype,msg,objs);
                 break;
             case ERROR:
-                printError(msg,objs);
+                printError(logtype,msg,objs);
                 if (errct > maxerr) {
                     printInfo(M85,type); // "%s terminated because of too many errors"
+                    out.flush();
                     throw new SevereError();
                 }
                 break;
@@ -163,4 +315,30 @@ public class Logger {
         popCurrent();
     }
 
+    // formatted only when printed
+    private static class EndInfo {
+        
+        private final Message msg;
+        private final Object[] args;
+
+        private EndInfo(Message msg, Object[] args) {
+            this.msg = msg;
+            this.args = args;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof EndInfo) {
+                EndInfo that = (EndInfo)obj;
+                return msg == that.msg && Arrays.equals(args, that.args);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * msg.hashCode() + Arrays.hashCode(args);
+        }
+        
+    }
 }
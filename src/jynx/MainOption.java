@@ -18,8 +18,10 @@ public enum MainOption {
             EnumSet.of(SYSIN, USE_STACK_MAP, WARN_UNNECESSARY_LABEL, WARN_STYLE, 
                     GENERATE_LINE_NUMBERS, BASIC_VERIFIER, ALLOW_CLASS_FORNAME,
                     CHECK_REFERENCES, VALIDATE_ONLY, TRACE, SYMBOLIC_LOCAL,
-                    DEBUG, INCREASE_MESSAGE_SEVERITY, SUPPRESS_WARNINGS,
-                    VALHALLA, GENERIC_SWITCH,
+                    DEBUG, INCREASE_MESSAGE_SEVERITY, SUPPRESS_WARNINGS, JSON_MESSAGES,
+                    VALHALLA, GENERIC_SWITCH, OPTIMISE, REUSE_LOCALS, LDC_BY_FREQUENCY,
+                    VALIDATION_FULL, VALIDATION_STANDARD, VALIDATION_FAST, WATCH, BUNDLE, BINARY,
+                    PARALLEL_METHODS,
                     __STRUCTURED_LABELS, __WARN_INDENT)
     ),
     DISASSEMBLY("2jynx",
@@ -28,7 +30,7 @@ public enum MainOption {
             String.format("any %s options are added to %s directive",
                     ASSEMBLY.extname.toUpperCase(), Directive.dir_version),
             EnumSet.of(SKIP_CODE, SKIP_DEBUG, SKIP_FRAMES, SKIP_ANNOTATIONS, DOWN_CAST,
-                    VALHALLA,
+                    VALHALLA, BINARY,
                     DEBUG, INCREASE_MESSAGE_SEVERITY)
     ),
     TOJYNX("tojynx",
@@ -37,7 +39,7 @@ public enum MainOption {
             String.format("any %s options are added to %s directive",
                     ASSEMBLY.extname.toUpperCase(), Directive.dir_version),
             EnumSet.of(SKIP_CODE, SKIP_DEBUG, SKIP_FRAMES, SKIP_ANNOTATIONS, DOWN_CAST,
-                    VALHALLA, SKIP_STACK,
+                    VALHALLA, SKIP_STACK, BINARY,
                     DEBUG, INCREASE_MESSAGE_SEVERITY)
     ),
     ROUNDTRIP("roundtrip",
@@ -46,7 +48,7 @@ public enum MainOption {
                     DISASSEMBLY.extname.toUpperCase(), ASSEMBLY.extname.toUpperCase()),
             "",
             EnumSet.of(USE_STACK_MAP, USE_CLASSFILE, BASIC_VERIFIER, ALLOW_CLASS_FORNAME,
-                    SKIP_FRAMES, DOWN_CAST, DEBUG, SUPPRESS_WARNINGS)
+                    SKIP_FRAMES, DOWN_CAST, DEBUG, SUPPRESS_WARNINGS, JSON_MESSAGES)
     ),
     STRUCTURE("structure",
             " {options}  class-name|class_file",
@@ -60,6 +62,7 @@ public enum MainOption {
     private final static int JYNX_RELEASE = 23;
     private final static int JYNX_BUILD = 4;
     public final static String SUFFIX = ".jx";
+    public final static String BINARY_SUFFIX = ".jxb";
 
 
     private final int version;
@@ -102,6 +105,7 @@ public enum MainOption {
     }
 
     public void appUsageSummary() {
+        Global.LOGGER().flush();
         System.err.println(usage);
         System.err.format("   (%s)%n", longdesc);
         if (adddesc.isEmpty()) {
@@ -115,6 +119,7 @@ public enum MainOption {
     public void appUsage() {
         appUsageSummary();
         Global.LOG(M6); // "Options are:%n"
+        Global.LOGGER().flush();
         for (GlobalOption opt:options) {
             if (opt.isExternal()) {
                 System.err.println(" " + opt.description());            
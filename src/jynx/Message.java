@@ -411,6 +411,38 @@ public enum Message {
     M613(BLANK,"slot %d name = %s type = %s"),
     M614(BLANK,"%s handled at %s"),
     M615(BLANK,"%s handler"),
+    M616(BLANK,"validate using Jynx checks, ASM Analyzer and ASM CheckClassAdapter (default)"),
+    M617(BLANK,"validate using Jynx checks and ASM Analyzer"),
+    M618(BLANK,"validate using Jynx checks only (labels, limits and switch sizes)"),
+    M619(WARNING,"option %s ignored as conflicts with option %s"),
+    M620(BLANK,"print messages as JSON lines"),
+    M621(BLANK,"file name is a directory; reassemble changed files in it until interrupted"),
+    M622(INFO,"watching %s for changed %s files"),
+    M623(BLANK,"%s reassembled in %d ms"),
+    M624("%s is not a directory"),
+    M625(INFO,"watch of %s ended"),
+    M626("option %s is not valid for in-memory assembly"),
+    M627("no class bytes as assembly of %s failed:%n%s"),
+    M628(BLANK,"apply peephole optimisations to method code"),
+    M629(INFO,"method %s%s code size reduced from %d to %d bytes"),
+    M630(INFO,"method %s%s not optimised as it has a stack map or uses jsr"),
+    M631(BLANK,"give constants most used by ldc the lowest constant pool indices"),
+    M632(INFO,"%d of %d constants loaded by ldc have been given a constant pool index below 256"),
+    M633(INFO,"method %s%s: %d jump(s) widened; maximum offsets are %s"),
+    M634(WARNING,"duplicate key %s; target = %s"),
+    M635("ambiguous key %s; previous target = %s, current target = %s"),
+    M636("%s cannot be used with %s as its internal labels need stack map frames"),
+    M637("invalid opcode %d at offset %d"),
+    M638("invalid stack map frame type %d at offset %d"),
+    M639(BLANK,"file holds several classes, each starting with .version and optionally ending with .end_class"),
+    M640(INFO,"%d of %d classes in %s assembled successfully"),
+    M641(BLANK,"produce pre-tokenised binary Jynx (.jxb) instead of text (2jynx, tojynx) or a class file (jynx)"),
+    M642("not a binary Jynx file or unsupported version: magic = %#x version = %d"),
+    M643("invalid token count or string index in binary Jynx line %d"),
+    M644(BLANK,"assemble and verify method bodies concurrently (output and messages are in source order)"),
+    M645(BLANK,"with SYMBOLIC_LOCAL, variables of the same type whose live ranges do not overlap share a slot"),
+    M646(INFO,"method %s%s max locals reduced from %d to %d"),
+    M647(INFO,"method %s%s locals not reallocated as it has a stack map, uses jsr, has local variable annotations or a local used with different types"),
 
     M800(ENDINFO,"line number 0 changed to 1; ASM Issue #317989"),
     M801(FINE,"min length = %d max length = %d"),
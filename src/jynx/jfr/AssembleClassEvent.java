@@ -0,0 +1,31 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jynx.AssembleClass")
+@Label("Assemble Class")
+@Category("Jynx")
+@Description("Assembly of a Jynx source to a class file")
+public class AssembleClassEvent extends JynxEvent {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Bytes Out")
+    @DataAmount
+    public int bytesOut;
+
+    @Label("Method Count")
+    public int methodCount;
+
+    @Label("Error Count")
+    public int errorCount;
+
+}
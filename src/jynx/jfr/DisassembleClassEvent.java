@@ -0,0 +1,23 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jynx.DisassembleClass")
+@Label("Disassemble Class")
+@Category("Jynx")
+@Description("Disassembly of a class file to Jynx source")
+public class DisassembleClassEvent extends JynxEvent {
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Method Count")
+    public int methodCount;
+
+    @Label("Success")
+    public boolean success;
+
+}
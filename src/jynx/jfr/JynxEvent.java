@@ -0,0 +1,13 @@
+package jynx.jfr;
+
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/*
+    Base of the Flight Recorder events; fields are only set when shouldCommit() is true
+    so the events cost nothing when not recording.
+*/
+@Enabled(true)
+@StackTrace(false)
+public abstract class JynxEvent extends Event {}
@@ -0,0 +1,23 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jynx.MacroLib")
+@Label("Load Macro Library")
+@Category("Jynx")
+@Description("Load of a macro library service")
+public class MacroLibEvent extends JynxEvent {
+
+    @Label("Library")
+    public String library;
+
+    @Label("Op Count")
+    public int opCount;
+
+    @Label("Found")
+    public boolean found;
+
+}
@@ -0,0 +1,69 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.MethodNode;
+
+@Name("jynx.Method")
+@Label("Method Phase")
+@Category("Jynx")
+@Description("Parse, verify or emit phase of a method")
+public class MethodEvent extends JynxEvent {
+
+    public static final String PARSE = "parse"; // from .method to the end of the method node
+    public static final String VERIFY = "verify";
+    public static final String EMIT = "emit";
+    
+    @Label("Phase")
+    public String phase;
+
+    @Label("Method Name")
+    public String methodName;
+
+    @Label("Descriptor")
+    public String descriptor;
+
+    @Label("Instruction Count")
+    public int instructionCount;
+
+    @Label("Label Count")
+    public int labelCount;
+
+    @Label("Max Stack")
+    public int maxStack;
+
+    @Label("Max Locals")
+    public int maxLocals;
+
+    public MethodEvent(String phase) {
+        this.phase = phase;
+    }
+    
+    public void commit(MethodNode mnode) {
+        if (mnode == null || !shouldCommit()) {
+            return;
+        }
+        methodName = mnode.name;
+        descriptor = mnode.desc;
+        int insnct = 0;
+        int labct = 0;
+        for (AbstractInsnNode insn = mnode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LabelNode) {
+                ++labct;
+            } else if (insn.getOpcode() >= 0) {
+                ++insnct;
+            }
+        }
+        instructionCount = insnct;
+        labelCount = labct;
+        maxStack = mnode.maxStack;
+        maxLocals = mnode.maxLocals;
+        commit();
+    }
+    
+}
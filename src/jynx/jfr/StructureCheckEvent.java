@@ -0,0 +1,25 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jynx.StructureCheck")
+@Label("Check Class Structure")
+@Category("Jynx")
+@Description("Structure check of a class file")
+public class StructureCheckEvent extends JynxEvent {
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Bytes In")
+    @DataAmount
+    public int bytesIn;
+
+    @Label("Pool Entries")
+    public int poolEntries;
+
+}
@@ -0,0 +1,23 @@
+package jynx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jynx.TypeLookup")
+@Label("Type Hierarchy Lookup")
+@Category("Jynx")
+@Description("Common super class not resolved by type hints so class loading used")
+public class TypeLookupEvent extends JynxEvent {
+
+    @Label("Type 1")
+    public String type1;
+
+    @Label("Type 2")
+    public String type2;
+
+    @Label("Common Super Class")
+    public String common;
+
+}
@@ -1,11 +1,10 @@
 package jynx2asm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.TreeMap;
 
 import org.objectweb.asm.Handle;
 
@@ -21,6 +20,7 @@ import asm.JynxComponentNode;
 import asm.JynxFieldNode;
 import asm.JynxMethodNode;
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.Context;
 import jvm.Feature;
@@ -56,13 +56,17 @@ public class ClassChecker {
     private int specialct;
     private int newct;
     
+    ClassChecker(ClassChecker parent) {
+        this(parent.classAccess);
+    }
+    
     private ClassChecker(Access classAccess) {
         this.className = classAccess.name();
         this.classAccess = classAccess;
         this.classType = classAccess.classType();
         this.jvmVersion = classAccess.jvmVersion();
-        this.ownMethodsUsed = new TreeMap<>(); // sorted for reproducibilty
-        this.ownMethods = new TreeMap<>(); // sorted for reproducibilty
+        this.ownMethodsUsed = new HashMap<>();
+        this.ownMethods = new HashMap<>();
         this.hasImplements = false;
     }
 
@@ -85,6 +89,10 @@ public class ClassChecker {
     private final static ObjectLine<HandleType> VIRTUAL_METHOD_HANDLE_LINE = new ObjectLine<>(REF_invokeVirtual, Line.EMPTY);
     private final static ObjectLine<HandleType> STATIC_METHOD_HANDLE_LINE = new ObjectLine<>(REF_invokeStatic, Line.EMPTY);
     
+    public DeferredClassChecker deferred() {
+        return new DeferredClassChecker(this);
+    }
+    
     public static ClassChecker getInstance(Access classAccess) {
         ClassChecker checker = new ClassChecker(classAccess);
         checker.addStandardMethods();
@@ -183,13 +191,13 @@ public class ClassChecker {
     }
     
     public Access getAccess(Context context, Line line) {
-        EnumSet<AccessFlag> flags = line.getAccFlags();
+        AccessFlags flags = line.getAccFlags();
         String name = line.nextToken().asName();
         return Access.getInstance(flags, jvmVersion, name, classType);
     }
     
     public Access getAccessOptName(Context context, Line line) {
-        EnumSet<AccessFlag> flags = line.getAccFlags();
+        AccessFlags flags = line.getAccFlags();
         Token optname = line.nextToken();
         String name = optname.isEndToken()? null: optname.asName();
         return Access.getInstance(flags, jvmVersion, name, classType);
@@ -207,8 +215,7 @@ public class ClassChecker {
     public void checkMethod(JynxMethodNode jmn) {
         LocalMethodHandle lmh = jmn.getLocalMethodHandle();
         String name = jmn.getName();
-        specialct = 0;
-        newct = 0;
+        resetCounts();
         HandleType ht;
         if (jmn.isStatic()) {
             ht = REF_invokeStatic;
@@ -253,6 +260,11 @@ public class ClassChecker {
         }
    }    
 
+    void resetCounts() {
+        specialct = 0;
+        newct = 0;
+    }
+    
     public void endMethod(JynxMethodNode jmn) {
         if (jmn.isInit()) {
             int standard = Constants.isObjectClass(className)? 0: 1;
@@ -359,7 +371,7 @@ public class ClassChecker {
     }
 
     private boolean isMethodDefined(MethodHandle mh, HandleType ht) {
-        LocalMethodHandle lmh = LocalMethodHandle.getInstance(mh.name()+mh.desc());
+        LocalMethodHandle lmh = new LocalMethodHandle(mh.name(), mh.desc());
         ObjectLine<HandleType> objline = ownMethods.get(lmh);
         return objline != null && objline.object() == ht;
     }
@@ -378,75 +390,99 @@ public class ClassChecker {
         mustHaveVirtualMethod(EQUALS_METHOD);
     }
     
+    // one pass over own methods
     private void visitClassEnd() {
-        boolean init = ownMethods.keySet().stream()
-            .filter(LocalMethodHandle::isInit)
-            .findFirst()
-            .isPresent();
-        long instanceMethodCoumt = ownMethods.values().stream()
-            .filter(ol-> ol.object() == REF_invokeVirtual)
-            .filter(ol->ol.line() != Line.EMPTY)
-            .count();
-        if (!init && (instanceFieldCt != 0 || instanceMethodCoumt != 0)) {
+        boolean init = false;
+        long instanceMethodCount = 0;
+        LocalMethodHandle xequals = null; // lowest virtual method named equals
+        for (Map.Entry<LocalMethodHandle,ObjectLine<HandleType>> me : ownMethods.entrySet()) {
+            LocalMethodHandle lmh = me.getKey();
+            ObjectLine<HandleType> objline = me.getValue();
+            init |= lmh.isInit();
+            if (objline.object() == REF_invokeVirtual) {
+                if (objline.line() != Line.EMPTY) {
+                    ++instanceMethodCount;
+                }
+                if (lmh.name().equals(EQUALS_METHOD.name())
+                        && (xequals == null || lmh.compareTo(xequals) < 0)) {
+                    xequals = lmh;
+                }
+            }
+        }
+        if (!init && (instanceFieldCt != 0 || instanceMethodCount != 0)) {
             LOG(M156,NameDesc.CLASS_INIT_NAME); // "instance variables or methods with no %s method"
         }
-        boolean equals = ownMethods.keySet().stream()
-            .filter(ond -> ond.equals(EQUALS_METHOD))
-            .findFirst()
-            .isPresent();
+        boolean equals = ownMethods.containsKey(EQUALS_METHOD);
         if (equals) {
             shouldHaveVirtualMethod(EQUALS_METHOD, HASHCODE_METHOD);
         }
-        Optional<LocalMethodHandle> xequals = ownMethods.entrySet().stream()
-            .filter(me -> me.getValue().object() == REF_invokeVirtual)
-            .map(me -> me.getKey())
-            .filter(lmh -> lmh.name().equals(EQUALS_METHOD.name()))
-            .findFirst();
-        if (xequals.isPresent() && !equals) {
+        if (xequals != null && !equals) {
             //"%s does not override object equals method in %s"
-            LOG(M239,xequals.get().ond(),className);
-        }
-        ownMethodsUsed.entrySet().stream()
-                .filter(me -> me.getValue().object() == REF_newInvokeSpecial)
-                .forEach(me->{
-                    if (!isMethodDefined(me.getKey(),REF_newInvokeSpecial)) {
-                         // "own init method %s not found"
-                        LOG(me.getValue().line().toString(), M252, me.getKey().name());
-                    }
-                });
-        checkMissing(REF_invokeVirtual);
+            LOG(M239,xequals.ond(),className);
+        }
     }
 
-    private void checkMissing(HandleType ht) {
-        ObjectLine<HandleType> virtual = new ObjectLine<>(ht, Line.EMPTY); 
-        ownMethods.putIfAbsent(EQUALS_METHOD, virtual);
-        ownMethods.putIfAbsent(HASHCODE_METHOD, virtual);
-        ownMethods.putIfAbsent(TOSTRING_METHOD, virtual);
-        String[] missing = ownMethodsUsed.entrySet().stream()
-                .filter(me -> me.getValue().object() == ht)
-                .map(me-> me.getKey())
-                .filter(k->!isMethodDefined(k,ht))
-                .map(k->k.name())
+    // one pass over own methods used; as maps are not sorted, methods not found are sorted for reproducibility
+    private void checkUsed(HandleType missingtype) {
+        if (missingtype != null) {
+            ObjectLine<HandleType> virtual = new ObjectLine<>(missingtype, Line.EMPTY); 
+            ownMethods.putIfAbsent(EQUALS_METHOD, virtual);
+            ownMethods.putIfAbsent(HASHCODE_METHOD, virtual);
+            ownMethods.putIfAbsent(TOSTRING_METHOD, virtual);
+        }
+        boolean classend = missingtype == REF_invokeVirtual;
+        List<Map.Entry<MethodHandle,ObjectLine<HandleType>>> notfound = new ArrayList<>();
+        for (Map.Entry<MethodHandle,ObjectLine<HandleType>> me : ownMethodsUsed.entrySet()) {
+            HandleType ht = me.getValue().object();
+            boolean checked = ht == REF_invokeStatic
+                    || ht == missingtype
+                    || classend && ht == REF_newInvokeSpecial;
+            if (checked && !isMethodDefined(me.getKey(), ht)) {
+                notfound.add(me);
+            }
+        }
+        if (notfound.isEmpty()) {
+            return;
+        }
+        notfound.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<MethodHandle,ObjectLine<HandleType>> me : notfound) {
+            if (me.getValue().object() == REF_newInvokeSpecial) {
+                 // "own init method %s not found"
+                LOG(me.getValue().line().toString(), M252, me.getKey().name());
+            }
+        }
+        String[] missing = notfound.stream()
+                .filter(me -> me.getValue().object() == missingtype)
+                .map(me -> me.getKey().name())
                 .toArray(String[]::new);
         if (missing.length != 0) {
             // "the following own virtual method(s) are used but not found in class (but may be in super class or interface)%n    %s"
            LOG(M250,Arrays.asList(missing));
         }
+        for (Map.Entry<MethodHandle,ObjectLine<HandleType>> me : notfound) {
+            if (me.getValue().object() == REF_invokeStatic) {
+                 // "own static method %s not found (but may be in super class)"
+                LOG(me.getValue().line().toString(), M251, me.getKey().name());
+            }
+        }
     }
     
     public void visitEnd() {
+        HandleType missingtype = null; // own methods of this type that are used must be found
         switch (classType) {
             case RECORD:
                 visitRecordEnd();
                 visitClassEnd();
+                missingtype = REF_invokeVirtual;
                 break;
             case ENUM:
             case BASIC:
             case VALUE_CLASS:
                 visitClassEnd();
+                missingtype = REF_invokeVirtual;
                 break;
             case INTERFACE:
-                checkMissing(REF_invokeInterface);
+                missingtype = REF_invokeInterface;
                 break;
             case ANNOTATION_CLASS:
                 break;
@@ -457,14 +493,7 @@ public class ClassChecker {
             default:
                 throw new EnumConstantNotPresentException(classType.getClass(), classType.name());
         }
-        ownMethodsUsed.entrySet().stream()
-                .filter(me -> me.getValue().object() == REF_invokeStatic)
-                .forEach(me->{
-                    if (!isMethodDefined(me.getKey(), REF_invokeStatic)) {
-                         // "own static method %s not found (but may be in super class)"
-                        LOG(me.getValue().line().toString(), M251, me.getKey().name());
-                    }
-                });
+        checkUsed(missingtype);
         if (ownMethods.containsKey(FINALIZE_METHOD) && classType != ClassType.ENUM ) {
             jvmVersion.checkSupports(Feature.finalize);
         }
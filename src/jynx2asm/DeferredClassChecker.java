@@ -0,0 +1,85 @@
+package jynx2asm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static jynx.Global.LOGGER;
+
+import asm.JynxMethodNode;
+import jvm.Context;
+import jynx2asm.handles.FieldHandle;
+import jynx2asm.handles.MethodHandle;
+import jynx2asm.ops.JvmOp;
+
+// records the checks made while a method body is assembled on another thread
+// so that they can be applied to the class checker in source order
+public class DeferredClassChecker extends ClassChecker {
+
+    private final ClassChecker parent;
+    private final List<Object> lines;
+    private final List<Runnable> checks;
+
+    DeferredClassChecker(ClassChecker parent) {
+        super(parent);
+        this.parent = parent;
+        this.lines = new ArrayList<>();
+        this.checks = new ArrayList<>();
+    }
+
+    private void defer(Runnable check) {
+        lines.add(LOGGER().getLine());
+        checks.add(check);
+    }
+    
+    // on the thread that owns the class checker
+    public void replay() {
+        LOGGER().pushCurrent();
+        parent.resetCounts();
+        for (int i = 0; i < checks.size(); ++i) {
+            LOGGER().setLine(lines.get(i));
+            checks.get(i).run();
+        }
+        LOGGER().popCurrent();
+    }
+    
+    @Override
+    public void checkMethod(JynxMethodNode jmn) {
+        parent.checkMethod(jmn);
+    }
+
+    @Override
+    public boolean isComponent(Context context, String name, String desc) {
+        return parent.isComponent(context, name, desc);
+    }
+
+    @Override
+    public void usedMethod(MethodHandle mh, JvmOp jvmop, Line line) {
+        defer(() -> parent.usedMethod(mh, jvmop, line));
+    }
+
+    @Override
+    public void usedNew(String classname) {
+        defer(() -> parent.usedNew(classname));
+    }
+
+    @Override
+    public void mayBeHandle(Object handleobj, Line line) {
+        defer(() -> parent.mayBeHandle(handleobj, line));
+    }
+
+    @Override
+    public void usedField(FieldHandle fh) {
+        defer(() -> parent.usedField(fh));
+    }
+
+    @Override
+    public void checkSignature4Method(String signature, String name, String desc) {
+        defer(() -> parent.checkSignature4Method(signature, name, desc));
+    }
+
+    @Override
+    public void endMethod(JynxMethodNode jmn) {
+        defer(() -> parent.endMethod(jmn));
+    }
+
+}
@@ -1,7 +1,5 @@
 package jynx2asm;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,16 +45,31 @@ public enum FrameElement {
         this.localsOnly = localsOnly;
     }
 
-    private final static Map<Character, FrameElement> TYPE_MAP;
+    private final static FrameElement[] TYPE_MAP = new FrameElement[128]; // indexed by type char
     
     static {
-        TYPE_MAP = new HashMap<>();
         for (FrameElement fe:values()) {
-            FrameElement shouldbenull = TYPE_MAP.put(fe.typeChar,fe);
+            assert fe.typeChar < TYPE_MAP.length;
+            FrameElement shouldbenull = TYPE_MAP[fe.typeChar];
             assert shouldbenull == null;
+            TYPE_MAP[fe.typeChar] = fe;
         }
     }
 
+    private static FrameElement fromTypeChar(char type) {
+        return type < TYPE_MAP.length? TYPE_MAP[type]: null;
+    }
+    
+    public byte typeByte() {
+        return (byte)typeChar;
+    }
+    
+    public static FrameElement fromTypeByte(byte type) {
+        FrameElement fe = TYPE_MAP[type];
+        assert fe != null;
+        return fe;
+    }
+
     private boolean isObject() {
         return instChar == 'a';
     }
@@ -144,7 +157,7 @@ public enum FrameElement {
     }
     
     public static FrameElement fromStack(char type) {
-        FrameElement stack = TYPE_MAP.get(type);
+        FrameElement stack = fromTypeChar(type);
         if (stack == null || stack.isLocalsOnly()) {
             throw new LogIllegalArgumentException(M206, type,(int)type); // "Invalid type letter '%c' (%d)"
         }
@@ -159,7 +172,7 @@ public enum FrameElement {
     }
     
     public static FrameElement fromLocal(char type) {
-        FrameElement local = TYPE_MAP.get(type);
+        FrameElement local = fromTypeChar(type);
         if (local == null) {
             throw new LogIllegalArgumentException(M206, type,(int)type); // "Invalid type letter '%c' (%d)"
         }
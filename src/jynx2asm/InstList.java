@@ -28,39 +28,48 @@ public class InstList {
 
     private final List<Instruction> instructions;
     private final StackLocals stackLocals;
-    private final Line line;
-    private final String spacer;
+    private Line line;
+    private String spacer;
 
-    private final boolean expand;
-    private final boolean stack;
-    private final boolean locals;
-    private final boolean offset;
+    private boolean expand;
+    private boolean stack;
+    private boolean locals;
+    private boolean offset;
 
     private boolean addLineNumber;
     
     private String stackb;
     private String localsb;
     
-    public InstList(StackLocals stacklocals, Line line, EnumMap<ReservedWord, Integer> options) {
+    // reused for each line of a method
+    public InstList(StackLocals stacklocals) {
         this.instructions = new ArrayList<>();
         this.stackLocals = stacklocals;
+    }
+
+    public void reset(Line line, EnumMap<ReservedWord, Integer> options) {
+        this.instructions.clear();
         this.line = line;
-        int indent = line.getIndent();
-        char[] chars = new char[indent];
-        Arrays.fill(chars, ' ');
-        this.spacer = String.valueOf(chars);
-        this.expand = options.containsKey(res_expand);
-        this.stack = options.containsKey(res_stack);
-        this.locals = options.containsKey(res_locals);
-        this.offset = options.containsKey(res_offset);
+        boolean print = !options.isEmpty();
+        this.spacer = print? spacer(line.getIndent()): "";
+        this.expand = print && options.containsKey(res_expand);
+        this.stack = print && options.containsKey(res_stack);
+        this.locals = print && options.containsKey(res_locals);
+        this.offset = print && options.containsKey(res_offset);
         this.stackb = this.stack? stackLocals.stringStack(): "";
         this.localsb = this.locals? stackLocals.stringLocals(): "";
-        if (!options.isEmpty()) {
+        if (print) {
             LOG(M990,line); // "%s"
         }
         this.addLineNumber = OPTION(GlobalOption.GENERATE_LINE_NUMBERS);
     }
 
+    private static String spacer(int indent) {
+        char[] chars = new char[indent];
+        Arrays.fill(chars, ' ');
+        return String.valueOf(chars);
+    }
+
     public Line getLine() {
         return line;
     }
@@ -100,7 +109,7 @@ public class InstList {
         if (expand) {
             LOG(M292,spacer,insn); // "%s  +%s"
         }
-        boolean ok = stackLocals.visitInsn(insn, line);
+        boolean ok = stackLocals.visitInsn(insn);
         if (ok) {
             instructions.add(insn);
             if (expand) {
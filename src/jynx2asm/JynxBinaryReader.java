@@ -0,0 +1,130 @@
+package jynx2asm;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static jynx.Message.M642;
+import static jynx.Message.M643;
+
+import jynx.JynxBinaryWriter;
+import jynx.LogIllegalArgumentException;
+
+class JynxBinaryReader {
+
+    private final DataInputStream in;
+    private final String[] strings;
+    private final Token[] tokens; // created when first used
+    private int linesleft;
+    private int linect;
+
+    private JynxBinaryReader(DataInputStream in, String[] strings, int linecount) {
+        this.in = in;
+        this.strings = strings;
+        this.tokens = new Token[strings.length];
+        this.linesleft = linecount;
+        this.linect = 0;
+    }
+
+    static boolean isBinary(BufferedInputStream bis) throws IOException {
+        bis.mark(4);
+        int magic = 0;
+        for (int i = 0; i < 4; ++i) {
+            int b = bis.read();
+            if (b < 0) {
+                break;
+            }
+            magic = magic << 8 | b;
+        }
+        bis.reset();
+        return magic == JynxBinaryWriter.MAGIC;
+    }
+    
+    static JynxBinaryReader getInstance(InputStream is) {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+        try {
+            int magic = in.readInt();
+            int version = in.readUnsignedShort();
+            if (magic != JynxBinaryWriter.MAGIC || version != JynxBinaryWriter.VERSION) {
+                // "not a binary Jynx file or unsupported version: magic = %#x version = %d"
+                throw new LogIllegalArgumentException(M642, magic, version);
+            }
+            String[] strings = new String[getVarint(in)];
+            for (int i = 0; i < strings.length; ++i) {
+                byte[] ba = new byte[getVarint(in)];
+                in.readFully(ba);
+                strings[i] = new String(ba, StandardCharsets.UTF_8);
+            }
+            int linecount = getVarint(in);
+            return new JynxBinaryReader(in, strings, linecount);
+        } catch (IOException ioex) {
+            throw new AssertionError(ioex);
+        }
+    }
+    
+    Line next(Function<Line,TokenArray> arrayfn) {
+        if (linesleft == 0) {
+            close();
+            return null;
+        }
+        --linesleft;
+        try {
+            linect += getVarint(in);
+            int indent = getVarint(in);
+            int count = getVarint(in);
+            if (count == 0) {
+                // "invalid token count or string index in binary Jynx line %d"
+                throw new LogIllegalArgumentException(M643, linect);
+            }
+            Token[] linetokens = new Token[count];
+            for (int i = 0; i < linetokens.length; ++i) {
+                linetokens[i] = token(getVarint(in));
+            }
+            return Line.fromTokens(linetokens, linect, indent, arrayfn);
+        } catch (IOException ioex) {
+            throw new AssertionError(ioex);
+        }
+    }
+
+    // each distinct token is validated once
+    private Token token(int index) {
+        if (index >= strings.length) {
+            // "invalid token count or string index in binary Jynx line %d"
+            throw new LogIllegalArgumentException(M643, linect);
+        }
+        Token token = tokens[index];
+        if (token == null) {
+            token = Token.getInstance(strings[index]);
+            tokens[index] = token;
+        }
+        return token;
+    }
+    
+    private void close() {
+        try {
+            in.close();
+        } catch (IOException ioex) {
+            throw new AssertionError(ioex);
+        }
+    }
+    
+    private static int getVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint too long");
+    }
+    
+}
@@ -0,0 +1,172 @@
+package jynx2asm;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static jynx.Global.*;
+import static jynx.GlobalOption.TRACE;
+import static jynx.Message.M298;
+import static jynx.Message.M640;
+
+import jynx.Directive;
+import jynx.Global;
+import jynx.GlobalOption;
+import jynx.MainOption;
+import jynx.SevereError;
+
+// a bundle holds several classes, each starting with a .version directive and optionally ending with .end_class
+// the classes are split on these lines, assembled concurrently each with its own Global,
+//  and their messages printed in bundle order
+class JynxBundle {
+
+    private static class Unit {
+
+        private final int linesbefore;
+        private final String source;
+
+        private Unit(int linesbefore, String source) {
+            this.linesbefore = linesbefore;
+            this.source = source;
+        }
+
+    }
+
+    private static class Result {
+
+        private final boolean success;
+        private final String messages;
+
+        private Result(boolean success, String messages) {
+            this.success = success;
+            this.messages = messages;
+        }
+
+    }
+    
+    private final String fname;
+    private final EnumSet<GlobalOption> options;
+
+    private JynxBundle(String fname, EnumSet<GlobalOption> options) {
+        this.fname = fname;
+        this.options = options;
+    }
+
+    static boolean assemble(String fname, BufferedReader reader) throws IOException {
+        List<Unit> units;
+        try (BufferedReader br = reader) {
+            units = split(br);
+        }
+        JynxBundle bundle = new JynxBundle(fname, OPTIONS());
+        int threads = OPTION(TRACE)? 1: Runtime.getRuntime().availableProcessors();
+        threads = Math.max(1, Math.min(threads, units.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int ok = 0;
+        try {
+            List<Future<Result>> results = new ArrayList<>();
+            for (Unit unit : units) {
+                results.add(executor.submit(() -> bundle.assemble(unit)));
+            }
+            for (Future<Result> future : results) {
+                Result result = getResult(future);
+                LOGGER().flush();
+                System.err.print(result.messages);
+                System.err.flush();
+                if (result.success) {
+                    ++ok;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG(M640, ok, units.size(), fname); // "%d of %d classes in %s assembled successfully"
+        return ok == units.size();
+    }
+
+    private static Result getResult(Future<Result> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            // assemble(Unit) catches everything except Errors
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+    
+    private static boolean isDirective(String trimmed, Directive dir) {
+        String name = dir.externalName();
+        return trimmed.startsWith(name)
+                && (trimmed.length() == name.length() || Character.isWhitespace(trimmed.charAt(name.length())));
+    }
+
+    // a unit includes any comments before its .version; its .end_class line is dropped
+    //  as the scanner supplies an .end_class at end of unit
+    private static List<Unit> split(BufferedReader reader) throws IOException {
+        List<Unit> units = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        int linect = 0;
+        int start = 0;
+        boolean versioned = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            ++linect;
+            String trimmed = line.trim();
+            if (isDirective(trimmed, Directive.dir_version)) {
+                if (versioned) {
+                    units.add(new Unit(start, sb.toString()));
+                    sb.setLength(0);
+                    start = linect - 1;
+                }
+                versioned = true;
+            } else if (versioned && isDirective(trimmed, Directive.end_class)) {
+                units.add(new Unit(start, sb.toString()));
+                sb.setLength(0);
+                start = linect;
+                versioned = false;
+                continue;
+            }
+            sb.append(line).append('\n');
+        }
+        if (versioned || units.isEmpty()) {
+            units.add(new Unit(start, sb.toString()));
+        }
+        return units;
+    }
+    
+    private Result assemble(Unit unit) {
+        StringWriter sw = new StringWriter();
+        boolean success = false;
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            Global.newGlobal(MainOption.ASSEMBLY, options, pw);
+            try {
+                JynxScanner scanner = JynxScanner.getInstance(new StringReader(unit.source), unit.linesbefore);
+                success = MainJynx.assemble(fname, scanner);
+            } catch (IOException | RuntimeException ex) {
+                LOG(ex);
+            } catch (SevereError ex) {
+                // already logged
+            }
+            if (!success) {
+                String classname = CLASS_NAME();
+                if (classname == null) {
+                    classname = String.format("%s:%d", fname, unit.linesbefore + 1);
+                }
+                LOG(M298, MainOption.ASSEMBLY.name(), classname); // "%s of %s failed"
+            }
+            Global.removeGlobal();
+        }
+        return new Result(success, sw.toString());
+    }
+    
+}
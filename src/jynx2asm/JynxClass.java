@@ -1,6 +1,8 @@
 package jynx2asm;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,7 +25,7 @@ import asm.JynxComponentNode;
 import asm.JynxFieldNode;
 import asm.JynxMethodNode;
 import asm.JynxModule;
-import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.Feature;
 import jvm.JvmVersion;
@@ -33,10 +35,14 @@ import jynx.Directive;
 import jynx.Global;
 import jynx.GlobalOption;
 import jynx.LogAssertionError;
+import jynx.Logger;
 import jynx.MainOption;
 import jynx.SevereError;
 import jynx.State;
+import jynx.jfr.AssembleClassEvent;
+import jynx.jfr.MethodEvent;
 import jynx2asm.ops.JynxOps;
+import org.objectweb.asm.tree.MethodNode;
 
 public class JynxClass implements ContextDependent {
 
@@ -54,6 +60,7 @@ public class JynxClass implements ContextDependent {
     private JynxComponentNode jcompnode;
     private JynxFieldNode jfieldnode;
     private JynxMethodNode jmethodnode;
+    private MethodEvent parse;
     private JynxCodeHdr jcodehdr;
     private JynxModule jmodule;
     
@@ -61,7 +68,15 @@ public class JynxClass implements ContextDependent {
     
     private final Map<Directive,Line> unique_directives;
     private JynxOps opmap;
+    private int methodct;
+    private int instct;
+    private int labct;
+    private int dirct;
     
+    private ParallelMethods<ForkedMethod> methods; // null unless PARALLEL_METHODS
+    private boolean forked; // method body assembled on a worker thread
+    private MethodNode verified;
+    private boolean aborted;
 
     private JynxClass(String file_source, String default_source, JynxScanner js) {
         this.js = js;
@@ -72,50 +87,89 @@ public class JynxClass implements ContextDependent {
         this.sd = this;
     }
 
+    // assembles a method body on a worker thread
+    private JynxClass(JynxClass parent, JynxScanner js, JynxMethodNode jmethodnode) {
+        this(parent.file_source, parent.defaultSource, js);
+        this.jvmVersion = parent.jvmVersion;
+        this.opmap = parent.opmap;
+        this.jclassnode = parent.jclassnode;
+        this.jmethodnode = jmethodnode;
+        this.sd = jmethodnode;
+        this.state = State.METHOD_BLOCK;
+        this.forked = true;
+    }
+
     public static byte[] getBytes(String file_source, JynxScanner lines) {
         int index = file_source.lastIndexOf(File.separatorChar);
         String default_source = file_source.substring(index + 1);
+        if (default_source.endsWith(MainOption.BINARY_SUFFIX)) { // binary is derived from text source
+            int length = default_source.length() - MainOption.BINARY_SUFFIX.length();
+            default_source = default_source.substring(0, length) + MainOption.SUFFIX;
+        }
         return getBytes(file_source, default_source, lines);
     }
     
     public static byte[] getBytes(String source, String default_source, JynxScanner lines) {
+        AssembleClassEvent event = new AssembleClassEvent();
+        event.begin();
+        JynxClass jclass = null;
+        byte[] ba = null;
         try {
-            JynxClass jclass =  new JynxClass(source, default_source, lines);
+            jclass =  new JynxClass(source, default_source, lines);
             boolean ok = jclass.assemble();
-            if (!ok) {
-                return null;
+            if (ok) {
+                ba = jclass.toByteArray();
             }
-            return jclass.toByteArray();
+            return ba;
         } catch (RuntimeException rtex) {
             if (OPTION(GlobalOption.DEBUG)) {
                 rtex.printStackTrace();;
             }
             LOG(M123, source, rtex); // "compilation of %s failed because of %s"
             return null;
+        } finally {
+            if (event.shouldCommit()) {
+                event.source = source;
+                if (jclass != null) {
+                    event.className = jclass.jclassnode == null? null: jclass.jclassnode.getClassName();
+                    event.methodCount = jclass.methodct;
+                }
+                event.bytesOut = ba == null? 0: ba.length;
+                event.errorCount = LOGGER().numErrors();
+                event.commit();
+            }
+            if (jclass != null && jclass.methods != null) {
+                jclass.methods.shutdown();
+            }
+        }
+    }
+    
+    private Directive getDirective(Line line) {
+        if (line.isDirective()) {
+            Token token = line.firstToken();
+            dirct++;
+            return token.asDirective();
+        }
+        if (line.isLabel()) {
+            ++labct;
+        } else {
+            instct++;
         }
+        return Directive.state_opcode;
     }
     
     private boolean assemble() {
-        int instct = 0;
-        int labct = 0;
-        int dirct = 0;
         while (js.hasNext()) {
             try {
                 Line line = js.next();
-                Directive dir;
-                if (line.isDirective()) {
-                    Token token = line.firstToken();
-                    dir = token.asDirective();
-                    dirct++;
-                } else {
-                    dir = Directive.state_opcode;
-                    if (line.isLabel()) {
-                        ++labct;
-                    } else {
-                        instct++;
-                    }
+                Directive dir = getDirective(line);
+                if (methods != null && dir != Directive.dir_method) {
+                    acceptMethods(true);
                 }
                 state = dir.visit(this,state);
+                if (state == State.METHOD_BLOCK && jmethodnode == null) { // method body is on a worker thread
+                    state = State.END_METHOD;
+                }
             } catch (IllegalArgumentException ex) {
                 LOG(ex);
                 js.skipTokens();    // use js as may not be original line
@@ -135,6 +189,124 @@ public class JynxClass implements ContextDependent {
         return success;
     }
 
+    // on a worker thread; the lines are those after the .method line up to and including .end_method
+    private void assembleMethod() {
+        parse = new MethodEvent(MethodEvent.PARSE);
+        parse.begin();
+        while (state != State.END_METHOD && js.hasNext()) {
+            try {
+                Line line = js.next();
+                Directive dir = getDirective(line);
+                if (dir == Directive.end_class) { // .end_method missing
+                    --dirct; // as .end_class is internal
+                    state = state.changeToValidState(this, EnumSet.of(State.END_METHOD));
+                    break;
+                }
+                state = dir.visit(this,state);
+            } catch (IllegalArgumentException ex) {
+                LOG(ex);
+                js.skipTokens();    // use js as may not be original line
+            } catch (SevereError | IllegalStateException ex) {
+                LOG(ex);
+                aborted = true;
+                return;
+            }
+        }
+    }
+    
+    private static class ForkedMethod {
+        
+        private final Line methodLine;
+        private final Global global;
+        private final Logger logger;
+        private final StringWriter text;
+        private final DeferredClassChecker deferred;
+        private final JynxClass jclass;
+        
+        private RuntimeException failure;
+
+        private ForkedMethod(Line methodline, Global global, Logger logger, StringWriter text,
+                DeferredClassChecker deferred, JynxClass jclass) {
+            this.methodLine = methodline;
+            this.global = global;
+            this.logger = logger;
+            this.text = text;
+            this.deferred = deferred;
+            this.jclass = jclass;
+        }
+        
+        private ForkedMethod assemble() {
+            Global.setGlobal(global);
+            try {
+                jclass.assembleMethod();
+            } catch (RuntimeException ex) {
+                failure = ex;
+            } finally {
+                Global.removeGlobal();
+            }
+            return this;
+        }
+    }
+    
+    // the .method line is read on this thread and the rest of the method on a worker thread, each with
+    //      a forked Global; messages and class checks are added in source order as methods are accepted
+    private void forkMethod(Line line) {
+        StringWriter sw = new StringWriter();
+        Global fork = Global.forkGlobal(new PrintWriter(sw));
+        Global main = Global.setGlobal(fork);
+        Logger forklogger = LOGGER();
+        ForkedMethod forked;
+        try {
+            LOGGER().setLine(line);
+            DeferredClassChecker deferred = jclassnode.deferredChecker();
+            JynxMethodNode jmn = jclassnode.getJynxMethodNode(line, deferred);
+            LOGGER().pushContext();
+            JynxClass jc = new JynxClass(this, js.methodBody(), jmn);
+            forked = new ForkedMethod(line, fork, forklogger, sw, deferred, jc);
+        } catch (RuntimeException | SevereError ex) {
+            Global.setGlobal(main);
+            acceptMethods(true);
+            forklogger.flush();
+            LOGGER().merge(forklogger, sw.toString());
+            throw ex;
+        }
+        Global.setGlobal(main);
+        methods.submit(forked::assemble);
+        acceptMethods(false);
+    }
+    
+    private void acceptMethods(boolean all) {
+        ForkedMethod forked;
+        while ((forked = methods.next(all)) != null) {
+            acceptMethod(forked);
+        }
+    }
+
+    private void acceptMethod(ForkedMethod forked) {
+        JynxClass jc = forked.jclass;
+        LOGGER().merge(forked.logger, forked.text.toString());
+        instct += jc.instct;
+        labct += jc.labct;
+        dirct += jc.dirct;
+        methodct += jc.methodct;
+        if (forked.failure != null) {
+            throw forked.failure;
+        }
+        if (jc.aborted) {
+            LOGGER().setLine(forked.logger.getLine());
+            throw new SevereError(); // already logged
+        }
+        LOGGER().pushCurrent();
+        LOGGER().setLine(forked.methodLine);
+        LOGGER().pushContext();
+        forked.deferred.replay();
+        LOGGER().popContext();
+        LOGGER().popCurrent();
+        if (jc.verified != null) {
+            jclassnode.acceptVerifiedMethod(jc.verified);
+        }
+    }
+
     private void visitJvmVersion(JvmVersion jvmversion) {
         if (this.jvmVersion != null) {
             throw new IllegalStateException();
@@ -208,11 +380,11 @@ public class JynxClass implements ContextDependent {
         }
     }
 
-    private Access getAccess(Line line, EnumSet<AccessFlag> flags, ClassType classtype, JvmVersion jvmversion) {
+    private Access getAccess(Line line, AccessFlags flags, ClassType classtype, JvmVersion jvmversion) {
         String cname;
         switch (classtype) {
             case MODULE_CLASS:
-                flags = EnumSet.noneOf(AccessFlag.class); // read in JynxModule
+                flags = AccessFlags.NONE; // read in JynxModule
                 cname = Constants.MODULE_CLASS_NAME.stringValue();
                 break;
             case PACKAGE:
@@ -227,7 +399,7 @@ public class JynxClass implements ContextDependent {
                 break;
         }
         line.noMoreTokens();
-        flags.addAll(classtype.getMustHave4Class(jvmversion)); 
+        flags = flags.with(classtype.getMustHave4Class(jvmversion));
         Access accessname = Access.getInstance(flags, jvmversion, cname, classtype);
         accessname.check4Class();
         return accessname;
@@ -272,6 +444,9 @@ public class JynxClass implements ContextDependent {
         jclassnode.acceptClassHdr(jclasshdr);
         jclasshdr = null;
         sd = null;
+        if (OPTION(GlobalOption.PARALLEL_METHODS)) {
+            methods = new ParallelMethods<>();
+        }
     }
 
     public void setComponent(Directive dir) {
@@ -316,6 +491,12 @@ public class JynxClass implements ContextDependent {
                     throw new IllegalStateException();
                 }
                 Line line = js.getLine();
+                if (methods != null) {
+                    forkMethod(line);
+                    break;
+                }
+                parse = new MethodEvent(MethodEvent.PARSE);
+                parse.begin();
                 jmethodnode = jclassnode.getJynxMethodNode(line);
                 sd = jmethodnode;
                 LOGGER().pushContext();
@@ -357,8 +538,14 @@ public class JynxClass implements ContextDependent {
             }
         }
         if (ok) {
-            jclassnode.acceptMethod(jmethodnode);
+            if (forked) {
+                verified = jclassnode.verifyMethod(jmethodnode, parse); // accepted in source order
+            } else {
+                jclassnode.acceptMethod(jmethodnode, parse);
+            }
         }
+        ++methodct;
+        parse = null;
         jmethodnode = null;
         jcodehdr = null;
         sd = null;
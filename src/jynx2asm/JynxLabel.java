@@ -1,16 +1,17 @@
 package jynx2asm;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 import org.objectweb.asm.Label;
 
 import static jynx.Global.*;
 import static jynx.Message.*;
 
+import jynx.ReservedWord;
 import jynx2asm.frame.JynxLabelFrame;
 import jynx2asm.frame.LocalFrame;
 import jynx2asm.frame.OperandStackFrame;
@@ -18,12 +19,14 @@ import jynx2asm.frame.OperandStackFrame;
 public class JynxLabel {
 
     private final String name;
-    private final ArrayList<Line> usedList;
-    private final ArrayList<Line> weakList;
     private final Label asmlab;
     private final Map<Integer,Integer> usedAtMap;
 
     private Line defined;
+    private Line firstUsed; // only first use is kept for diagnostics
+    private int[] usedLinects;
+    private int usedct;
+    private int weakct;
     private boolean usedInCode;
     private JynxLabelFrame jlf;
     private boolean startBlock;
@@ -35,8 +38,10 @@ public class JynxLabel {
         this.name = name;
         this.defined = null;
         this.usedInCode = false;
-        this.usedList = new ArrayList<>();
-        this.weakList = new ArrayList<>();
+        this.firstUsed = null;
+        this.usedLinects = EMPTY_LINECTS;
+        this.usedct = 0;
+        this.weakct = 0;
         this.asmlab = new Label();
         this.jlf = new JynxLabelFrame(name);
         this.minLimit = Integer.MAX_VALUE;
@@ -49,8 +54,10 @@ public class JynxLabel {
         return defined != null;
     }
 
+    private static final int[] EMPTY_LINECTS = new int[0];
+    
     public boolean isUnused() {
-        return isDefined() && usedList.isEmpty() && weakList.isEmpty();
+        return isDefined() && usedct == 0 && weakct == 0;
     }
 
     public boolean isUsedInCode() {
@@ -101,7 +108,17 @@ public class JynxLabel {
     }
     
     public void addUsed(Line line) {
-        usedList.add(line);
+        if (firstUsed == null) {
+            firstUsed = line;
+        }
+        addUsedLinect(line.getLinect());
+    }
+    
+    private void addUsedLinect(int linect) {
+        if (usedct == usedLinects.length) {
+            usedLinects = Arrays.copyOf(usedLinects, Math.max(4, 2*usedct));
+        }
+        usedLinects[usedct++] = linect;
     }
     
     public void addCodeUsed(Line line) {
@@ -109,8 +126,8 @@ public class JynxLabel {
         usedInCode = true;
     }
     
-    public void addWeakUsed(Line line) {
-        weakList.add(line);
+    public void addWeakUsed() {
+        ++weakct;
     }
     
     public void usedAt(int minoffset, int maxoffset, int adjust) {
@@ -144,8 +161,17 @@ public class JynxLabel {
         return asmlab;
     }
     
-    public Stream<Line> used() {
-        return usedList.stream();
+    public String usage() {
+        if (firstUsed == null) {
+            return "";
+        }
+        if (usedct == 1) {
+            return firstUsed.toString();
+        }
+        String others = Arrays.stream(usedLinects, 1, usedct)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(","));
+        return String.format("%s%n  and %s = %s", firstUsed, ReservedWord.res_lineno, others);
     }
     
     public void visitCatch(List<JynxCatch> catchlist) {
@@ -163,8 +189,13 @@ public class JynxLabel {
         jlf = base.jlf.merge(jlf);
         assert base.isDefined() && isDefined();
         base.usedInCode |= usedInCode;
-        base.usedList.addAll(usedList);
-        base.weakList.addAll(weakList);
+        if (base.firstUsed == null) {
+            base.firstUsed = firstUsed;
+        }
+        for (int i = 0; i < usedct; ++i) {
+            base.addUsedLinect(usedLinects[i]);
+        }
+        base.weakct += weakct;
     }
     
     public void updateLocal(LocalFrame osfx) {
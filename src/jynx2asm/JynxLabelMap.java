@@ -77,8 +77,8 @@ public class JynxLabelMap {
         return lab;
     }
 
-    public JynxLabel weakUseOfJynxLabel(JynxLabel lastlab, Line line) {
-        lastlab.addWeakUsed(line);
+    public JynxLabel weakUseOfJynxLabel(JynxLabel lastlab) {
+        lastlab.addWeakUsed();
         return lastlab;
     }
 
@@ -98,9 +98,9 @@ public class JynxLabelMap {
         return defineJynxLabel(name, line);
     }
 
-    public void aliasJynxLabel(String alias, Line line, JynxLabel base) {
+    public void aliasJynxLabel(String alias, JynxLabel base) {
         NameDesc.LABEL.validate(alias);
-        base.addWeakUsed(line);
+        base.addWeakUsed();
         labelmap.put(alias,base);
     }
 
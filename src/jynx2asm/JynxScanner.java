@@ -1,9 +1,11 @@
 package jynx2asm;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,6 +19,7 @@ import static jynx.Message.*;
 
 import jynx.Directive;
 import jynx.LogIllegalArgumentException;
+import jynx.MainOption;
 
 public class JynxScanner implements Iterator<Line> {
 
@@ -24,17 +27,27 @@ public class JynxScanner implements Iterator<Line> {
     private Line line;
     private boolean reread;
     private int precomments;
+    private boolean eof;
+    private String pushback; // text line returned by next readLine
+    private Line pushbackLine; // binary line returned by next binary read
 
     private final BufferedReader lines;
+    private final JynxBinaryReader binary; // null if text
     private final Function<Line,TokenArray> arrayfn;
 
     private JynxScanner(BufferedReader  lines) {
+        this(lines, null);
+    }
+
+    private JynxScanner(BufferedReader  lines, JynxBinaryReader binary) {
         this.lines = lines;
+        this.binary = binary;
 
         this.linect = 0;
         this.line = Line.EMPTY;
         this.reread = false;
         this.precomments = 0;
+        this.eof = false;
         this.arrayfn = (linex) -> TokenArray.getInstance(this, linex);
     }
 
@@ -43,7 +56,31 @@ public class JynxScanner implements Iterator<Line> {
     }
 
     public static JynxScanner getInstance(InputStream in) {
-        JynxScanner js =  new JynxScanner(new BufferedReader(new InputStreamReader(in)));
+        BufferedInputStream bis = new BufferedInputStream(in);
+        JynxScanner js;
+        try {
+            if (JynxBinaryReader.isBinary(bis)) {
+                js = new JynxScanner(null, JynxBinaryReader.getInstance(bis));
+            } else {
+                js = new JynxScanner(new BufferedReader(new InputStreamReader(bis)));
+            }
+        } catch (IOException ioex) {
+            throw new AssertionError(ioex);
+        }
+        js.skipPreComments();
+        return js;
+    }
+    
+    public static JynxScanner getInstance(Reader reader) {
+        JynxScanner js =  new JynxScanner(new BufferedReader(reader));
+        js.skipPreComments();
+        return js;
+    }
+    
+    // reader starts at line linesbefore + 1 of the file, e.g. a class in a bundle
+    public static JynxScanner getInstance(Reader reader, int linesbefore) {
+        JynxScanner js =  new JynxScanner(new BufferedReader(reader));
+        js.linect = linesbefore;
         js.skipPreComments();
         return js;
     }
@@ -53,15 +90,29 @@ public class JynxScanner implements Iterator<Line> {
     }
     
     public static JynxScanner getInstance(Path path) throws IOException {
-        JynxScanner js = new JynxScanner(Files.newBufferedReader(path));
+        JynxScanner js;
+        if (path.toString().endsWith(MainOption.BINARY_SUFFIX)) {
+            js = new JynxScanner(null, JynxBinaryReader.getInstance(Files.newInputStream(path)));
+        } else {
+            js = new JynxScanner(Files.newBufferedReader(path));
+        }
         js.skipPreComments();
         return js;
     }
     
     private String readLine() {
+        if (pushback != null) {
+            String linestr = pushback;
+            pushback = null;
+            return linestr;
+        }
+        if (eof) {
+            return null;
+        }
         try {
             String linestr = lines.readLine();
             if (linestr == null) {
+                eof = true;
                 lines.close();
             }
             return linestr;
@@ -71,6 +122,18 @@ public class JynxScanner implements Iterator<Line> {
     }
     
     private void  skipPreComments() {
+        if (binary != null) {
+            line = binary.next(arrayfn);
+            if (line == null) {
+                // "no Jynx directives in file!"
+                throw new LogIllegalArgumentException(M273);
+            }
+            precomments = line.getLinect() - linect - 1;
+            linect = line.getLinect();
+            LOGGER().setLine(line);
+            reread = true;
+            return;
+        }
         String linestr;
         do {
             linestr = readLine();
@@ -83,7 +146,7 @@ public class JynxScanner implements Iterator<Line> {
         } while (!linestr.trim().startsWith(".")); // ignore lines until directive
         --precomments;
         line = Line.tokenise(linestr, linect, arrayfn);
-        LOGGER().setLine(line.toString());
+        LOGGER().setLine(line);
         reread = true;
     }
     
@@ -94,6 +157,14 @@ public class JynxScanner implements Iterator<Line> {
     private void nextLine() {
         assert line != null:M79.format(); // "Trying to read beyond end of file"
         line.noMoreTokens();
+        if (binary != null) {
+            line = readBinaryLine();
+            if (line != null) {
+                linect = line.getLinect();
+                LOGGER().setLine(line);
+            }
+            return;
+        }
         String linestr;
         do {
             linestr = readLine();
@@ -104,9 +175,67 @@ public class JynxScanner implements Iterator<Line> {
             ++linect;
         } while (linestr.trim().length() == 0 || linestr.trim().startsWith(";")); // ignore empty lines and comments
         line = Line.tokenise(linestr, linect, arrayfn);
-        LOGGER().setLine(line.toString());
+        LOGGER().setLine(line);
     }
 
+    private Line readBinaryLine() {
+        Line binline = pushbackLine;
+        pushbackLine = null;
+        return binline == null? binary.next(arrayfn): binline;
+    }
+    
+    private static Directive directiveOf(String linestr) {
+        String str = linestr.trim();
+        if (str.isEmpty() || str.charAt(0) != Line.DIRECTIVE_INICATOR) {
+            return null;
+        }
+        String dirstr = str.split("\\s", 2)[0];
+        return Directive.getDirInstance(dirstr.substring(1)).orElse(null);
+    }
+    
+    // the lines after the current .method line up to and including its .end_method, as a scanner that
+    //      can be used on another thread; a .method or .end_class line that ends the block is read next as usual
+    public JynxScanner methodBody() {
+        line.noMoreTokens();
+        int linesbefore = linect;
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            String linestr;
+            Line binline = null;
+            if (binary != null) {
+                binline = readBinaryLine();
+                if (binline == null) {
+                    break;
+                }
+                for (int i = linect + 1; i < binline.getLinect(); ++i) {
+                    sb.append('\n'); // keep line numbers
+                }
+                linestr = binline.getLine();
+                linect = binline.getLinect();
+            } else {
+                linestr = readLine();
+                if (linestr == null) {
+                    break;
+                }
+                ++linect;
+            }
+            Directive dir = directiveOf(linestr);
+            if (dir == Directive.dir_method || dir == Directive.end_class) {
+                pushback = binline == null? linestr: null;
+                pushbackLine = binline;
+                --linect;
+                break;
+            }
+            sb.append(linestr).append('\n');
+            if (dir == Directive.end_method) {
+                break;
+            }
+        }
+        JynxScanner body = new JynxScanner(new BufferedReader(new StringReader(sb.toString())));
+        body.linect = linesbefore;
+        return body;
+    }
+    
     @Override
     public boolean hasNext() {
         return line != null;
@@ -118,7 +247,7 @@ public class JynxScanner implements Iterator<Line> {
             throw new NoSuchElementException();
         }
         if (reread) {
-            LOGGER().setLine(line.toString());
+            LOGGER().setLine(line);
             reread = false;
             return line;
         }
@@ -0,0 +1,144 @@
+package jynx2asm;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static jynx.Global.ADD_OPTIONS;
+import static jynx.Global.LOG;
+import static jynx.Global.LOGGER;
+import static jynx.Global.OPTIONS;
+import static jynx.Message.M298;
+import static jynx.Message.M622;
+import static jynx.Message.M623;
+import static jynx.Message.M624;
+import static jynx.Message.M625;
+
+import jynx.Global;
+import jynx.GlobalOption;
+import jynx.MainOption;
+
+class JynxWatcher {
+
+    // an editor save is often several events; wait until the directory is quiet
+    private static final long QUIET_MS = 100;
+    
+    private final Path dir;
+    private final EnumSet<GlobalOption> options;
+    private final WatchService watcher;
+    private final Map<WatchKey,Path> keys;
+
+    private JynxWatcher(Path dir, EnumSet<GlobalOption> options, WatchService watcher) {
+        this.dir = dir;
+        this.options = options;
+        this.watcher = watcher;
+        this.keys = new HashMap<>();
+    }
+
+    static boolean watch(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            LOG(M624, dir); // "%s is not a directory"
+            return false;
+        }
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            JynxWatcher jw = new JynxWatcher(dir, OPTIONS(), watcher);
+            jw.registerAll(dir);
+            LOG(M622, dir, MainOption.SUFFIX); // "watching %s for changed %s files"
+            LOGGER().flush();
+            jw.run();
+        } catch (IOException ex) {
+            LOG(ex);
+            return false;
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            Thread.currentThread().interrupt();
+        }
+        LOG(M625, dir); // "watch of %s ended"
+        return true;
+    }
+    
+    private void registerAll(Path start) throws IOException {
+        try (Stream<Path> paths = Files.walk(start)) {
+            for (Path path:(Iterable<Path>)paths.filter(Files::isDirectory)::iterator) {
+                WatchKey key = path.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                keys.put(key, path);
+            }
+        }
+    }
+    
+    private void run() throws IOException, InterruptedException {
+        while (true) {
+            Set<Path> changed = new LinkedHashSet<>();
+            WatchKey key = watcher.take();
+            while (key != null) {
+                collect(key, changed);
+                key = watcher.poll(QUIET_MS, TimeUnit.MILLISECONDS);
+            }
+            for (Path path:changed) {
+                reassemble(path);
+            }
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) throws IOException {
+        Path parent = keys.get(key);
+        for (WatchEvent<?> event:key.pollEvents()) {
+            if (parent == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path path = parent.resolve((Path)event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    registerAll(path);
+                }
+            } else if (path.toString().endsWith(MainOption.SUFFIX)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+    
+    private void reassemble(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        String fname = path.toString();
+        Global.newGlobal(MainOption.ASSEMBLY);
+        ADD_OPTIONS(options);
+        boolean success;
+        try {
+            // read whole file so that the source is not held open across an edit
+            byte[] source = Files.readAllBytes(path);
+            JynxScanner scanner = JynxScanner.getInstance(new ByteArrayInputStream(source));
+            success = MainJynx.assemble(fname, scanner);
+        } catch (IOException | RuntimeException ex) {
+            LOG(ex);
+            success = false;
+        }
+        if (success) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LOG(M623, fname, ms); // "%s reassembled in %d ms"
+        } else {
+            LOG(M298, MainOption.ASSEMBLY.name(), fname); // "%s of %s failed"
+        }
+        LOGGER().flush();
+    }
+
+}
@@ -122,6 +122,25 @@ public class Line implements TokenDeque {
         return new Line(line,linect,indent,tokens,linetype,arrayfn);
     }
 
+    // source text is reconstructed from the tokens of a binary Jynx line
+    static Line fromTokens(Token[] tokenarr, int linect, int indent, Function<Line,TokenArray> arrayfn) {
+        StringBuilder sb = new StringBuilder(indent + 16 * tokenarr.length);
+        Deque<Token> tokens = new ArrayDeque<>(tokenarr.length + 1);
+        for (int i = 0; i < indent; ++i) {
+            sb.append(' ');
+        }
+        for (Token token : tokenarr) {
+            if (!tokens.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append(token.asString());
+            tokens.addLast(token);
+        }
+        LineType linetype = lineTypeOf(tokenarr[0].asString());
+        tokens.addLast(Token.END_TOKEN);
+        return new Line(sb.toString(),linect,indent,tokens,linetype,arrayfn);
+    }
+
     @Override
     public String toString() {
         return String.format("%s ; %s = %d",line,ReservedWord.res_lineno,linect);
@@ -43,7 +43,7 @@ public class LinesIterator implements Iterator<Line>,AutoCloseable {
             throw new NoSuchElementException();
         }
         hasNexted = false;
-        LOGGER().setLine(line.toString());
+        LOGGER().setLine(line);
         return line;
     }
 
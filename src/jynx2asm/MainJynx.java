@@ -1,20 +1,29 @@
 package jynx2asm;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Optional;
 
 import static jynx.Global.CLASS_NAME;
 import static jynx.Global.LOG;
 import static jynx.Global.OPTION;
+import static jynx.GlobalOption.BINARY;
+import static jynx.GlobalOption.BUNDLE;
 import static jynx.GlobalOption.SYSIN;
 import static jynx.GlobalOption.VALIDATE_ONLY;
+import static jynx.GlobalOption.WATCH;
 import static jynx.Message.M116;
 import static jynx.Message.M222;
+import static jynx.Message.M619;
 import static jynx.Message.M97;
 
+import jynx.JynxBinaryWriter;
 import jynx.MainOption;
 import jynx.MainOptionService;
 
@@ -32,15 +41,37 @@ public class MainJynx implements MainOptionService {
             return false;
         }
         String fname = optfname.orElse("SYSIN");
+        if (OPTION(WATCH)) {
+            if (OPTION(BUNDLE)) {
+                LOG(M619, BUNDLE, WATCH); // "option %s ignored as conflicts with option %s"
+            }
+            if (OPTION(BINARY)) {
+                LOG(M619, BINARY, WATCH); // "option %s ignored as conflicts with option %s"
+            }
+            return JynxWatcher.watch(Paths.get(fname));
+        }
         try {
             JynxScanner scanner;
             if (optfname.isPresent()) {
-                if (!fname.endsWith(MainOption.SUFFIX)) {
+                boolean text = fname.endsWith(MainOption.SUFFIX);
+                boolean binary = fname.endsWith(MainOption.BINARY_SUFFIX) && !OPTION(BUNDLE) && !OPTION(BINARY);
+                if (!text && !binary) {
                     LOG(M97, fname, MainOption.SUFFIX); // "file(%s) does not have %s suffix"
                     return false;
                 }
                 Path pathj = Paths.get(fname);
+                if (OPTION(BINARY)) {
+                    return toBinary(fname, pathj);
+                }
+                if (OPTION(BUNDLE)) {
+                    return JynxBundle.assemble(fname, Files.newBufferedReader(pathj));
+                }
                 scanner = JynxScanner.getInstance(pathj);
+            } else if (OPTION(BINARY)) {
+                JynxBinaryWriter.convert(new BufferedReader(new InputStreamReader(System.in)), System.out);
+                return true;
+            } else if (OPTION(BUNDLE)) {
+                return JynxBundle.assemble(fname, new BufferedReader(new InputStreamReader(System.in)));
             } else {
                 scanner = JynxScanner.getInstance(System.in);
             }
@@ -51,7 +82,17 @@ public class MainJynx implements MainOptionService {
         }
     }
     
-    private static boolean assemble(String fname, JynxScanner scanner) throws IOException {
+    private static boolean toBinary(String fname, Path pathj) throws IOException {
+        String bfname = fname.substring(0, fname.length() - MainOption.SUFFIX.length()) + MainOption.BINARY_SUFFIX;
+        Path pathb = Paths.get(bfname);
+        try (BufferedReader reader = Files.newBufferedReader(pathj)) {
+            JynxBinaryWriter.convert(reader, Files.newOutputStream(pathb));
+        }
+        LOG(M116,pathb,Files.size(pathb)); // "%s created - size %d bytes"
+        return true;
+    }
+    
+    static boolean assemble(String fname, JynxScanner scanner) throws IOException {
         byte[] ba = JynxClass.getBytes(fname,scanner);
         if (ba == null) {
             return false;
@@ -70,9 +111,29 @@ public class MainJynx implements MainOptionService {
                 pathc = parent.resolve(pathc);
             }
         }
-        Files.write(pathc, ba);
+        if (OPTION(WATCH)) {
+            replace(pathc, ba);
+        } else {
+            Files.write(pathc, ba);
+        }
         LOG(M116,pathc,ba.length); // "%s created - size %d bytes"
         return true;
     }
     
+    // a class loader or tool reading the class file never sees a partly written file
+    private static void replace(Path pathc, byte[] ba) throws IOException {
+        Path dir = pathc.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, pathc.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, ba);
+            try {
+                Files.move(tmp, pathc, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, pathc, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+    
 }
@@ -0,0 +1,54 @@
+package jynx2asm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// tasks run concurrently but their results are taken in submission order
+class ParallelMethods<T> {
+
+    private final ExecutorService executor;
+    private final Deque<Future<T>> pending;
+    private final int maxpending;
+
+    ParallelMethods() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.pending = new ArrayDeque<>();
+        this.maxpending = 4 * threads; // limits memory used by method bodies waiting to be accepted
+    }
+
+    void submit(Callable<T> task) {
+        pending.addLast(executor.submit(task));
+    }
+
+    // returns null if none pending or, unless wait, the first is not done and not too many are pending
+    T next(boolean wait) {
+        Future<T> future = pending.peekFirst();
+        if (future == null || !wait && !future.isDone() && pending.size() < maxpending) {
+            return null;
+        }
+        pending.removeFirst();
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -145,7 +145,7 @@ public class StackLocals {
             if (OPTION(WARN_UNNECESSARY_LABEL)) {
                 LOG(M220,target.name(),base.name()); // "label %s is an alias for label %s"
             }
-            labelmap.aliasJynxLabel(target.name(), target.definedLine(), base);
+            labelmap.aliasJynxLabel(target.name(), base);
             target.aliasOf(base);
             locals.visitAlias(target, base,lastLab);
             stack.visitAlias(target, base);
@@ -159,16 +159,16 @@ public class StackLocals {
         }
     }
 
-    private void visitLineNumber(Line line) {
+    private void visitLineNumber() {
         if (lastLab.isPresent()) {
-            JynxLabel jlabel = labelmap.weakUseOfJynxLabel(lastLab.get(), line);
+            labelmap.weakUseOfJynxLabel(lastLab.get());
         }
         changeCompletionTo(Last.LINE);
     }
     
-    public void visitFrame(List<Object> stackarr, List<Object> localarr, Line line) {
+    public void visitFrame(List<Object> stackarr, List<Object> localarr) {
         if (lastLab.isPresent()) {
-            labelmap.weakUseOfJynxLabel(lastLab.get(), line);
+            labelmap.weakUseOfJynxLabel(lastLab.get());
         }
         stack.visitFrame(stackarr,lastLab);
         locals.visitFrame(localarr,lastLab);
@@ -197,7 +197,7 @@ public class StackLocals {
         }
     }
     
-    public boolean visitInsn(Instruction in, Line line) {
+    public boolean visitInsn(Instruction in) {
         if (in == null) {
             return false;
         }
@@ -213,7 +213,7 @@ public class StackLocals {
             return false;
         }
         if (in instanceof LineInstruction) {
-            visitLineNumber(line);
+            visitLineNumber();
             return true;
         }
         assert jvmop.opcode() >= 0;
@@ -227,7 +227,7 @@ public class StackLocals {
         }
         hasThrow |= jvmop == JvmOp.asm_athrow; 
         if (jvmop == JvmOp.asm_new && lastLab.isPresent()) {
-            labelmap.weakUseOfJynxLabel(lastLab.get(), line);
+            labelmap.weakUseOfJynxLabel(lastLab.get());
         }
         if (frameRequired && SUPPORTS(Feature.stackmap) && OPTION(GlobalOption.USE_STACK_MAP)) {
                 LOG(M124);  // "stack frame is definitely required here"
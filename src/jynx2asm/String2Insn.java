@@ -1,12 +1,11 @@
 package jynx2asm;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.objectweb.asm.ConstantDynamic;
 
+import static jvm.StandardAttribute.StackMapTable;
 import static jynx.Global.*;
 import static jynx.GlobalOption.GENERATE_LINE_NUMBERS;
 import static jynx.Message.*;
@@ -22,6 +21,7 @@ import jvm.HandleType;
 import jvm.OpArg;
 import jynx.GlobalOption;
 import jynx.LogIllegalStateException;
+import jynx.StringUtil;
 import jynx2asm.frame.OperandStack;
 import jynx2asm.frame.OperandStackFrame;
 import jynx2asm.handles.FieldHandle;
@@ -38,6 +38,7 @@ public class String2Insn {
     private Line line;
     private boolean multi;
     private int macroCount;
+    private MacroOp lineMacro;
     private int indent;
     
     private String2Insn(JynxLabelMap labelmap, ClassChecker checker, JynxOps opmap) {
@@ -107,19 +108,20 @@ public class String2Insn {
         line = instlist.getLine();
         multi = false;
         macroCount = 0;
-        add(jynxop, new ArrayDeque<>(), macroCount, instlist);
+        lineMacro = null;
+        add(jynxop, null, macroCount, instlist);
         line.noMoreTokens();
     }
     
     private final static int MAX_MACROS_FOR_LINE = 64;
     
-    private void add(JynxOp jop, Deque<MacroOp> macrostack, int macct, InstList instlist) {
+    private void add(JynxOp jop, MacroOp macroop, int macct, InstList instlist) {
         if (multi) {
             LOG(M254,jop); // "%s is used in a macro after a mulit-line op"
         }
         if (jop instanceof SelectOp) {
             SelectOp selector = (SelectOp)jop;
-            add(selector.getOp(line, instlist), macrostack, macct, instlist);
+            add(selector.getOp(line, instlist), macroop, macct, instlist);
         } else if (jop instanceof JvmOp) {
             JvmOp jvmop = (JvmOp)jop;
             addJvmOp(jvmop,instlist);
@@ -128,23 +130,43 @@ public class String2Insn {
             instlist.add(dynamicop.getInstruction(line, checker));
         } else if (jop instanceof LineOp) {
             LineOp lineop = (LineOp)jop;
-            lineop.adjustLine(line, macct, macrostack.peekLast(), labelStack);
+            lineop.adjustLine(line, macct, macroop, labelStack);
         } else if (jop instanceof MacroOp) {
-            MacroOp macroop = (MacroOp) jop;
-            macrostack.addLast(macroop);
+            addMacro((MacroOp)jop, instlist);
+        } else {
+            throw new AssertionError();
+        }
+    }
+    
+    private void addMacro(MacroOp macroop, InstList instlist) {
+        MacroTemplate template = opmap.getTemplate(macroop);
+        int[] macctarr = new int[template.macroCount()];
+        int next = 0;
+        for (int i = 0; i < template.size(); ++i) {
+            next = enterMacros(template, next, template.entered(i), macctarr);
+            int enclosing = template.enclosing(i);
+            add(template.op(i), template.macro(enclosing), macctarr[enclosing], instlist);
+        }
+        enterMacros(template, next, template.enteredAtEnd(), macctarr);
+    }
+    
+    private int enterMacros(MacroTemplate template, int next, int count, int[] macctarr) {
+        for (int i = 0; i < count; ++i, ++next) {
+            MacroOp macroop = template.macro(next);
+            if (multi && next != 0) { // compiled macro already checked in add
+                LOG(M254,macroop); // "%s is used in a macro after a mulit-line op"
+            }
+            if (lineMacro == null) {
+                lineMacro = macroop;
+            }
             ++macroCount;
             if (macroCount > MAX_MACROS_FOR_LINE) {
                 // "number of macro ops exceeds maximum of %d for %s"
-                throw new LogIllegalStateException(M317, MAX_MACROS_FOR_LINE, macrostack.peekFirst());
+                throw new LogIllegalStateException(M317, MAX_MACROS_FOR_LINE, lineMacro);
             }
-            macct = macroCount;
-            for (JynxOp mjop:macroop.getJynxOps()) {
-                add(mjop, macrostack, macct, instlist);
-            }
-            macrostack.removeLast();
-        } else {
-            throw new AssertionError();
+            macctarr[next] = macroCount;
         }
+        return next;
     }
     
     public void visitEnd() {
@@ -363,22 +385,25 @@ public class String2Insn {
     }
     
     private Instruction arg_stack(JvmOp jvmop) {
-        return new StackInstruction(jvmop);
+        return StackInstruction.getInstance(jvmop);
     }
 
     private Instruction arg_switch(JvmOp jvmop) {
         line.nextToken().mustBe(res_default);
         JynxLabel dflt = getJynxLabel(line.nextToken());
+        if (jvmop == JvmOp.opc_string_switch) {
+            return stringSwitch(jvmop, dflt);
+        }
         if (OPTION(GlobalOption.GENERIC_SWITCH)) {
             jvmop = JvmOp.opc_switch;
         }
-        SortedMap<Integer,JynxLabel> swmap = new TreeMap<>();
+        SwitchCases cases = new SwitchCases();
         try (TokenArray dotarray = line.getTokenArray()) {
             multi |= dotarray.isMultiLine(); 
             while (true) {
                 Token value = dotarray.firstToken();
                 if (value.is(right_array)) {
-                    return SwitchInstruction.getInstance(jvmop, dflt, swmap);
+                    return SwitchInstruction.getInstance(jvmop, dflt, cases);
                 }
                 int key = value.asInt();
                 dotarray.nextToken().mustBe(right_arrow);
@@ -390,16 +415,42 @@ public class String2Insn {
                     // "unneccessary case %d -> %s in %s as target is default label"
                     LOG(M189, key, target, jvmop);
                 }
-                JynxLabel previous = swmap.putIfAbsent(key, target);
-                if (previous != null) {
-                    if (previous.equals(target)) {
-                        // "duplicate key %d; target = %s"
-                        LOG(M255, key, target.name());
-                    } else {
-                        // "ambiguous key %d; previous target = %s, current target = %s"
-                        LOG(M229, key, previous.name(), target.name());
-                    }
-                } 
+                cases.add(key, target);
+            }
+        }
+    }
+
+    private Instruction stringSwitch(JvmOp jvmop, JynxLabel dflt) {
+        if (OPTION(GlobalOption.USE_STACK_MAP) && SUPPORTS(StackMapTable)) {
+            // "%s cannot be used with %s as its internal labels need stack map frames"
+            LOG(M636, jvmop, GlobalOption.USE_STACK_MAP);
+        }
+        Map<String,JynxLabel> cases = new LinkedHashMap<>(); // keys in source order
+        try (TokenArray dotarray = line.getTokenArray()) {
+            multi |= dotarray.isMultiLine(); 
+            while (true) {
+                Token value = dotarray.firstToken();
+                if (value.is(right_array)) {
+                    String[] keys = cases.keySet().toArray(new String[0]);
+                    JynxLabel[] labels = cases.values().toArray(new JynxLabel[0]);
+                    return new StringSwitchInstruction(jvmop, dflt, keys, labels);
+                }
+                String key = value.asQuoted();
+                dotarray.nextToken().mustBe(right_arrow);
+                Token label = dotarray.nextToken();
+                JynxLabel target = getJynxLabel(label);
+                dotarray.noMoreTokens();
+                JynxLabel previous = cases.putIfAbsent(key, target);
+                if (previous == null) {
+                    continue;
+                }
+                String quoted = StringUtil.QuoteEscape(key);
+                if (previous.equals(target)) {
+                    LOG(M634, quoted, target); // "duplicate key %s; target = %s"
+                } else {
+                    // "ambiguous key %s; previous target = %s, current target = %s"
+                    LOG(M635, quoted, previous, target);
+                }
             }
         }
     }
@@ -0,0 +1,110 @@
+package jynx2asm;
+
+import java.util.Arrays;
+
+import static jynx.Global.LOG;
+import static jynx.Message.M229;
+import static jynx.Message.M255;
+
+public class SwitchCases {
+
+    private int[] keys;
+    private JynxLabel[] labels;
+    private int size;
+    private boolean sorted;
+
+    public SwitchCases() {
+        this.keys = new int[16];
+        this.labels = new JynxLabel[16];
+        this.size = 0;
+        this.sorted = true;
+    }
+
+    public void add(int key, JynxLabel label) {
+        if (size == keys.length) {
+            int newlen = 2 * size;
+            keys = Arrays.copyOf(keys, newlen);
+            labels = Arrays.copyOf(labels, newlen);
+        }
+        sorted &= size == 0 || keys[size - 1] < key;
+        keys[size] = key;
+        labels[size] = label;
+        ++size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int minKey() {
+        assert sorted && size > 0;
+        return keys[0];
+    }
+    
+    public int maxKey() {
+        assert sorted && size > 0;
+        return keys[size - 1];
+    }
+
+    public int[] keys() {
+        assert sorted;
+        return Arrays.copyOf(keys, size);
+    }
+
+    public JynxLabel[] labels() {
+        assert sorted;
+        return Arrays.copyOf(labels, size);
+    }
+    
+    public JynxLabel[] table(int min, int max, JynxLabel dflt) {
+        assert sorted && max >= min;
+        JynxLabel[] table = new JynxLabel[max - min + 1];
+        Arrays.fill(table, dflt);
+        for (int i = 0; i < size; ++i) {
+            table[keys[i] - min] = labels[i];
+        }
+        return table;
+    }
+
+    // sorts by key keeping first target of duplicate keys
+    public void sort() {
+        if (sorted) {
+            return;
+        }
+        long[] keyindex = new long[size];
+        for (int i = 0; i < size; ++i) {
+            keyindex[i] = (long)keys[i] << 32 | i;
+        }
+        Arrays.sort(keyindex);
+        int[] newkeys = new int[size];
+        JynxLabel[] newlabels = new JynxLabel[size];
+        int ct = 0;
+        for (long ki : keyindex) {
+            int key = (int)(ki >> 32);
+            JynxLabel target = labels[(int)ki];
+            if (ct > 0 && newkeys[ct - 1] == key) {
+                JynxLabel previous = newlabels[ct - 1];
+                if (previous.equals(target)) {
+                    // "duplicate key %d; target = %s"
+                    LOG(M255, key, target.name());
+                } else {
+                    // "ambiguous key %d; previous target = %s, current target = %s"
+                    LOG(M229, key, previous.name(), target.name());
+                }
+                continue;
+            }
+            newkeys[ct] = key;
+            newlabels[ct] = target;
+            ++ct;
+        }
+        keys = newkeys;
+        labels = newlabels;
+        size = ct;
+        sorted = true;
+    }
+
+}
@@ -1,7 +1,6 @@
 package jynx2asm;
 
 import java.util.Deque;
-import java.util.EnumSet;
 import java.util.Optional;
 
 import static jynx.Global.LOG;
@@ -10,6 +9,7 @@ import static jynx.Message.M402;
 import static jynx.Message.M90;
 
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jynx.LogIllegalStateException;
 import jynx.ReservedWord;
 
@@ -112,8 +112,8 @@ public interface TokenDeque {
         return Optional.empty();
     }
 
-    public default EnumSet<AccessFlag> getAccFlags()  {
-          EnumSet<AccessFlag> accflags = EnumSet.noneOf(AccessFlag.class);
+    public default AccessFlags getAccFlags()  {
+          AccessFlags accflags = AccessFlags.NONE;
           while (true) {
               Token token = peekToken();
               if (token.isEndToken()) {
@@ -122,7 +122,7 @@ public interface TokenDeque {
               Optional<AccessFlag> afopt = AccessFlag.fromString(token.asString());
               if (afopt.isPresent()) {
                   nextToken();
-                  accflags.add(afopt.get());
+                  accflags = accflags.with(afopt.get());
               } else {
                   break;
               }
@@ -120,7 +120,7 @@ public class TypeHints {
         }
         String sub = subtype.getInternalName();
         String base = basetype.getInternalName();
-        if (subtypes.computeIfAbsent(base, k-> new HashSet<>()).contains(sub)) {
+        if (subtypes.getOrDefault(base, Set.of()).contains(sub)) { // read only as methods may be verified concurrently
             Global.LOG(M58, sub,res_subtypes,base); // "used hint: %s %s %s"
             return true;
         }
@@ -161,7 +161,7 @@ public class TypeHints {
             name1 = name2;
             name2 = temp;
         }
-        String common = commons.computeIfAbsent(name1,k->new HashMap<>()).get(name2);
+        String common = commons.getOrDefault(name1, Map.of()).get(name2);
         if (common == null) {
             // "(redundant?) checkcasts or hint needed to obtain common supertype of%n    %s and %s"
             LOG(M404, name1,name2);
@@ -11,6 +11,10 @@ public class ConstantFrameArray extends FrameArray {
         super(array, sz, fc);
     }
 
+    protected ConstantFrameArray(byte[] array, int sz, FrameClass fc) {
+        super(array, sz, fc);
+    }
+
     @Override
     public final void set(int index, FrameElement fe) {
         throw new UnsupportedOperationException();
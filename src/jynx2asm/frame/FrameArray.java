@@ -1,7 +1,11 @@
 package jynx2asm.frame;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.BiPredicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static jynx.Global.LOG;
@@ -17,24 +21,43 @@ import jynx2asm.FrameElement;
 public abstract class FrameArray {
 
     private final static int MAXSZ = 1 << 16;
+    private final static int INITSZ = 16;
+    private final static byte UNUSED = FrameElement.UNUSED.typeByte();
 
     static {
         assert MAXSZ == NumType.t_short.unsignedMaxvalue() + 1:
                 String.format("%s != %s",MAXSZ,NumType.t_short.unsignedMaxvalue() + 1);
     }
     
-    private final FrameElement[] array;
+    private byte[] array; // type chars of frame elements
+    private final int capacity;
     private final FrameClass fc;
     private int sz;
     private int hwm;
 
+    private LocalFrame snapshot; // shared until next change
+    private Map<FrameArray,LocalFrame> snapshots;
+
     protected FrameArray(FrameElement[] array, int sz, FrameClass fc) {
+        assert sz <= array.length && sz <= MAXSZ;
+        assert validate(Arrays.copyOf(array, sz), fc);
+        this.array = new byte[sz];
+        for (int i = 0; i < sz; ++i) {
+            this.array[i] = array[i].typeByte();
+        }
+        this.capacity = sz;
+        this.sz = sz;
+        this.hwm = sz;
+        this.fc = fc;
+    }
+
+    protected FrameArray(byte[] array, int sz, FrameClass fc) {
         assert sz <= array.length && sz <= MAXSZ;
         this.array = Arrays.copyOf(array, sz);
+        this.capacity = sz;
         this.sz = sz;
         this.hwm = sz;
         this.fc = fc;
-        assert validate(this.array, this.fc);
     }
 
     protected FrameArray(int sz) {
@@ -48,11 +71,12 @@ public abstract class FrameArray {
     private FrameArray(int initsz, int maxsz) {
         assert initsz <= maxsz;
         assert maxsz <= MAXSZ;
-        this.array = new FrameElement[maxsz];
+        this.array = new byte[Math.max(initsz, Math.min(INITSZ, maxsz))];
+        this.capacity = maxsz;
         this.sz = initsz;
         this.hwm = sz;
         this.fc = FrameClass.LOCALS;
-        Arrays.fill(array, 0, maxsz, FrameElement.UNUSED);
+        Arrays.fill(array, UNUSED);
     }
 
     private static boolean validate(FrameElement[] array, FrameClass fc) {
@@ -62,12 +86,26 @@ public abstract class FrameArray {
                 .count();
     }
     
+    private void ensureCapacity(int required) {
+        assert required <= capacity;
+        int oldlen = array.length;
+        if (required > oldlen) {
+            int newlen = Math.min(capacity, Math.max(required, 2 * oldlen));
+            array = Arrays.copyOf(array, newlen);
+            Arrays.fill(array, oldlen, newlen, UNUSED);
+        }
+    }
+    
+    private void changed() {
+        snapshot = null;
+    }
+    
     public int size() {
         return sz;
     }
 
     public int capacity() {
-        return array.length;
+        return capacity;
     }
 
     public int hwm() {
@@ -79,7 +117,7 @@ public abstract class FrameArray {
             // "invalid index (%d) for %s frame array [0,%d]"
             throw new LogIllegalArgumentException(M122, index, fc, sz);
         }
-        FrameElement fe = array[index];
+        FrameElement fe = FrameElement.fromTypeByte(array[index]);
         return fe;
     }
     
@@ -125,19 +163,25 @@ public abstract class FrameArray {
             throw new LogIllegalArgumentException(M201, fe, fc);
         }
         int slots = fc.slots(fe);
-        if (num < 0 || num > array.length - slots) {
+        if (num < 0 || num > capacity - slots) {
             // "invalid index (%d) for %s frame array [0,%d]"
-            throw new LogIllegalArgumentException(M122, num, fc, array.length);
+            throw new LogIllegalArgumentException(M122, num, fc, capacity);
         }
-        array[num] = fe;
+        ensureCapacity(num + slots);
+        array[num] = fe.typeByte();
         if (slots == 2) {
-            array[num + 1] = fe.next();
+            array[num + 1] = fe.next().typeByte();
         }
+        changed();
         adjust(num, slots);
     }
     
     private void adjust(int num, int slots) {
-        sz = Math.max(sz, num + slots);
+        if (num + slots > sz) {
+            ensureCapacity(num + slots);
+            sz = num + slots;
+            changed();
+        }
         hwm = Math.max(sz, hwm);
         assert hwm <= MAXSZ;
     }
@@ -145,30 +189,32 @@ public abstract class FrameArray {
     public void set(FrameArray fa) {
         clear();
         int index = fa.sz;
-        if (index < 0 || index > array.length) {
+        if (index < 0 || index > capacity) {
             // "invalid index (%d) for %s frame array [0,%d]"
-            throw new LogIllegalArgumentException(M122, index, fc, array.length);
+            throw new LogIllegalArgumentException(M122, index, fc, capacity);
         }
+        ensureCapacity(fa.sz);
         System.arraycopy(fa.array, 0, array, 0, fa.sz);
         sz = fa.sz;
         hwm = Math.max(hwm,sz);
     }
     
     public void clear() {
-        Arrays.fill(array, 0, sz, FrameElement.UNUSED);
+        Arrays.fill(array, 0, sz, UNUSED);
         this.sz = 0;
+        changed();
     }
     
     public Stream<FrameElement> stream() {
-        return Stream.of(array)
-                .limit(sz);
+        return IntStream.range(0, sz)
+                .mapToObj(i -> FrameElement.fromTypeByte(array[i]));
     }
     
     public String stringForm() {
-        if (array.length == 0) {
+        if (capacity == 0) {
             return "empty";
         }
-        return FrameElement.stringForm(stream());
+        return new String(array, 0, sz, StandardCharsets.ISO_8859_1);
     }
 
     @Override
@@ -191,6 +237,9 @@ public abstract class FrameArray {
         if (fa1 == null || fa2 == null || fa1.fc != fa2.fc) {
             return false;
         }
+        if (fa1.sameElements(fa2)) {
+            return true;
+        }
         int max = Math.max(fa1.sz, fa2.sz);
         for (int i = 0; i < max; ++i) {
             FrameElement fe1 = fa1.atUnchecked(i);
@@ -202,9 +251,24 @@ public abstract class FrameArray {
         return true;
     }
     
+    private boolean sameElements(FrameArray that) {
+        return this.sz == that.sz && Arrays.equals(this.array, 0, sz, that.array, 0, sz);
+    }
+    
+    // identical frames share an instance so most comparisons are by identity
     public LocalFrame asLocalFrame() {
         assert fc == FrameClass.LOCALS;
-        return new LocalFrame(array,sz);
+        if (snapshot == null) {
+            LocalFrame lf = new LocalFrame(array,sz);
+            if (snapshots == null) {
+                snapshots = new HashMap<>();
+            }
+            snapshot = snapshots.putIfAbsent(lf, lf);
+            if (snapshot == null) {
+                snapshot = lf;
+            }
+        }
+        return snapshot;
     }
     
     @Override
@@ -214,14 +278,18 @@ public abstract class FrameArray {
         }
         if (obj instanceof FrameArray) {
             FrameArray that = (FrameArray)obj;
-            return this.fc == that.fc && this.sz == that.sz && equivalent(this, that, (fe1,fe2) -> fe1 == fe2);
+            return this.fc == that.fc && sameElements(that);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return stringForm().hashCode();
+        int result = 1;
+        for (int i = 0; i < sz; ++i) {
+            result = 31 * result + array[i];
+        }
+        return result;
     }
 
 }
@@ -16,6 +16,10 @@ public class LocalFrame extends ConstantFrameArray {
         super(locals, sz, FrameClass.LOCALS);
     }
 
+    LocalFrame(byte[] locals, int sz) {
+        super(locals, sz, FrameClass.LOCALS);
+    }
+
 
     // static because may be null
     public static LocalFrame combine(LocalFrame osf1,LocalFrame osf2) {
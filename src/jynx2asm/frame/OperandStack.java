@@ -1,9 +1,10 @@
 package jynx2asm.frame;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -28,17 +29,23 @@ public class OperandStack {
 
     private static final int MAXSTACK = 1 << 16;
 
-    private final Deque<FrameElement> stack;
+    private byte[] stack; // type chars of frame elements
+    private int depth;
     private final LimitValue stacksz;
+    private final Map<OperandStackFrame,OperandStackFrame> frames;
     
     private int sz;
     private boolean startblock;
+    private OperandStackFrame current; // shared until stack changes
     
     private OperandStack() {
         this.stacksz = new LimitValue(LimitValue.Type.stack);
-        this.stack = new ArrayDeque<>();
+        this.stack = new byte[16];
+        this.depth = 0;
+        this.frames = new HashMap<>();
         this.sz = 0;
         this.startblock = false;
+        this.current = null;
     }
 
     public static OperandStack getInstance() {
@@ -60,23 +67,25 @@ public class OperandStack {
 
     private void clear() {
         sz = 0;
-        stack.clear();
+        depth = 0;
+        current = null;
     }
     
     public FrameElement peekTOS() {
-        if (stack.isEmpty()) {
+        if (depth == 0) {
             assert sz == 0;
             return FrameElement.ERROR;
         }
-        return stack.peekLast();
+        return FrameElement.fromTypeByte(stack[depth - 1]);
     }
     
     private FrameElement pop() {
-        if (stack.isEmpty()) {
+        if (depth == 0) {
             throw new LogIllegalStateException(M163); // "stack underflow"
         }
-        FrameElement fe = stack.removeLast();
+        FrameElement fe = FrameElement.fromTypeByte(stack[--depth]);
         sz -=fe.slots();
+        current = null;
         return fe;
     }
     
@@ -101,7 +110,11 @@ public class OperandStack {
             throw new IllegalStateException();
         }
         stacksz.adjust(sz);
-        stack.addLast(fe);
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, 2 * depth);
+        }
+        stack[depth++] = fe.typeByte();
+        current = null;
     }
     
     private void pushArray(FrameElement[] fes) {
@@ -260,6 +273,12 @@ public class OperandStack {
         return startblock;
     }
 
+    // stack is known, e.g. from a stack map frame when disassembling
+    public void restart(OperandStackFrame osf) {
+        setStack(osf);
+        startblock = false;
+    }
+
     public void visitAlias(JynxLabel alias, JynxLabel base) {
         visitLabel(base);
     }
@@ -290,9 +309,16 @@ public class OperandStack {
         label.updateStack(osf);
     }
 
+    // identical frames share an instance so most comparisons are by identity
     public OperandStackFrame currentFrame() {
-        FrameElement[] array = stack.toArray(FrameElement[]::new);
-        return new OperandStackFrame(array);
+        if (current == null) {
+            OperandStackFrame osf = new OperandStackFrame(stack, depth);
+            current = frames.putIfAbsent(osf, osf);
+            if (current == null) {
+                current = osf;
+            }
+        }
+        return current;
     }
     
     private void checkStack(JynxLabel label) {
@@ -18,6 +18,10 @@ public class OperandStackFrame extends ConstantFrameArray {
         super(stack, sz, FrameClass.STACK);
     }
 
+    OperandStackFrame(byte[] stack, int sz) {
+        super(stack, sz, FrameClass.STACK);
+    }
+
     public static OperandStackFrame getInstance(List<Object> objs) {
         FrameElement[] framestack = getFrameArray(objs);
         return new OperandStackFrame(framestack);
@@ -19,6 +19,7 @@ public class AdjustToken implements LineOp{
     private final Adjustment type;
     private final String adjust;
     private final UnaryOperator<String> op;
+    private Token insert; // tokens are immutable so resolved on first use
 
     private AdjustToken(Adjustment type, String adjust) {
         this.adjust = adjust;
@@ -39,7 +40,10 @@ public class AdjustToken implements LineOp{
         Token token;
         switch(type) {
             case INSERT:
-                token = Token.getInstance(adjust);
+                if (insert == null) {
+                    insert = Token.getInstance(adjust);
+                }
+                token = insert;
                 break;
             case JOIN:
                 String first = line.nextToken().asString() + adjust;
@@ -243,6 +243,7 @@ public enum JvmOp implements JynxOp {
     opc_lstore_w(55, 4, "(J)V", arg_var, LSTORE),
     opc_ret_w(169, 4, "()V", arg_var, RET, Feature.subroutines),
 
+    opc_string_switch(171, null, "(A)V", arg_switch, LOOKUPSWITCH),
     opc_switch(171, null, "(I)V", arg_switch, LOOKUPSWITCH),
 
     opc_wide(196, null, "()V", arg_none, NOP),
@@ -255,7 +256,9 @@ public enum JvmOp implements JynxOp {
         
     private final String externalName ;
     private final int opcode;
-    private final Integer length;
+    public static final int UNKNOWN_LENGTH = -1;
+    
+    private final int length;
     private final String desc;
     private final OpArg args;
     private final int asmOpcode;
@@ -268,7 +271,7 @@ public enum JvmOp implements JynxOp {
     private JvmOp(int opcode, Integer length, String desc, OpArg args, int asmOpcode, Feature requires) {
         this.externalName = name().substring(4);
         this.opcode = opcode;
-        this.length = length;
+        this.length = length == null? UNKNOWN_LENGTH: length;
         this.asmOpcode = asmOpcode;
         this.args = args;
         this.requires = requires;
@@ -312,7 +315,8 @@ public enum JvmOp implements JynxOp {
                         boolean samevar = op.isWideFormOf(mapop)
                                 && (op.args() == arg_var || op.args() == arg_incr);
                         boolean samefeature = Objects.equals(op.requires, mapop.requires);
-                        boolean sameswitch = mapop == asm_lookupswitch && op == opc_switch;
+                        boolean sameswitch = mapop == asm_lookupswitch
+                                && (op == opc_switch || op == opc_string_switch);
                         
                         boolean validsame = sameargs && (samevar || sameswitch);
                         boolean nonvirtual = sameargs && mapop == asm_invokespecial && op == opc_invokenonvirtual;
@@ -361,6 +365,11 @@ public enum JvmOp implements JynxOp {
 
     @Override
     public Integer length() {
+        return length == UNKNOWN_LENGTH? null: length;
+    }
+    
+    // UNKNOWN_LENGTH if variable or unknown; unboxed for the assembler
+    public int fixedLength() {
         return length;
     }
     
@@ -382,7 +391,7 @@ public enum JvmOp implements JynxOp {
     }
 
     public boolean isImmediate() {
-        return length != null && length == 1;
+        return length == 1;
     }
 
     public boolean isReturn() {
@@ -1,13 +1,13 @@
 package jynx2asm.ops;
 
 import java.io.PrintWriter;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.function.Predicate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static jynx.Global.ADD_OPTION;
 import static jynx.Global.LOG;
@@ -22,13 +22,19 @@ import jvm.JvmVersion;
 import jvm.JvmVersionRange;
 import jynx.LogAssertionError;
 import jynx.Translator;
+import jynx.jfr.MacroLibEvent;
 import jynx2asm.NameDesc;
 
 public class JynxOps {
 
-    private final Map<String, JynxOp> opmap;
+    private static final Map<MacroOp,MacroTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<MacroOp,JvmVersionRange> RANGES = new ConcurrentHashMap<>();
+    private static final Map<JvmVersion,Set<JynxOp>> SUPPORTED = new ConcurrentHashMap<>();
+    
+    private final List<LoadedMacroLib> libs;
     private final Map<String,MacroLib> macrolibs;
     private final JvmVersion jvmVersion;
+    private final Set<JynxOp> supported; // supported and not deprecated in jvmVersion
     
     private Predicate<String> labelTester;
     
@@ -36,9 +42,10 @@ public class JynxOps {
     
 
     private JynxOps(JvmVersion jvmversion) {
-        this.opmap = new HashMap<>(512);
+        this.libs = new ArrayList<>();
         this.macrolibs = new HashMap<>();
         this.jvmVersion = jvmversion;
+        this.supported = SUPPORTED.computeIfAbsent(jvmversion, v -> ConcurrentHashMap.newKeySet());
         this.translator = Translator.getInstance();
     }
 
@@ -49,62 +56,98 @@ public class JynxOps {
 
     private static final int MAX_SIMPLE = 16;
     
-    private void addOp(String name, JynxOp op) {
+    static void checkOp(String name, JynxOp op) {
         if (!NameDesc.OP_ID.isValid(name)) {
             // "op %s is not a valid op name"
             throw new LogAssertionError(M318, name);
         }
-        JynxOp before = opmap.putIfAbsent(name, op);
-        if (before != null) {
-            LOG(M243, name, op.getClass(), before.getClass()); // "%s op defined in %s has already been defined in %s"
+        int opct = 1;
+        if (op instanceof MacroOp) {
+            opct = template((MacroOp)op).size(); // checks max level
         }
-        int opct = expandLevel(op).size();  // check max level (in call)
         if (opct > MAX_SIMPLE) {  // check max simple instructions
             // "%s has %d simple ops which exceeds maximum of %d"
             throw new LogAssertionError(M267, op, opct,MAX_SIMPLE);
         }
     }
 
+    private JynxOp getMacro(String jopstr) {
+        for (LoadedMacroLib lib : libs) {
+            JynxOp op = lib.get(jopstr);
+            if (op != null) {
+                return op;
+            }
+        }
+        return null;
+    }
+    
     public JynxOp get(String jopstr) {
         JynxOp op =  JvmOp.getOp(jopstr);
         if (op == null) {
-            op = opmap.get(jopstr);
+            op = getMacro(jopstr);
             if (op == null) {
                 return null;
             }
         }
-        jvmVersion.checkSupports(op);
+        if (!supported.contains(op)
+                && jvmVersion.checkSupports(op) && !op.range().isDeprecated(jvmVersion)) {
+            supported.add(op);
+        }
         return op;
     }
     
+    public MacroTemplate getTemplate(MacroOp macroop) {
+        return template(macroop);
+    }
+    
+    private static MacroTemplate template(MacroOp macroop) {
+        MacroTemplate template = TEMPLATES.get(macroop);
+        if (template == null) {
+            template = MacroTemplate.compile(macroop, MAX_SIMPLE);
+            TEMPLATES.putIfAbsent(macroop, template);
+        }
+        return template;
+    }
+    
     public MacroLib addMacroLib(String libname) {
         MacroLib result = macrolibs.get(libname);
         if (result != null) {
             return result;
         }
-        ServiceLoader<MacroLib> libloader = ServiceLoader.load(MacroLib.class);
-        for (MacroLib lib : libloader) {
-            if (lib.name().equals(libname)) {
-                lib.getMacros().entrySet().stream()
-                        .forEach(me->addOp(me.getKey(), me.getValue()));
-                macrolibs.put(libname, lib);
-                translator.addParmTranslations(lib.parmTranslations());
-                translator.addOwnerTranslations(lib.ownerTranslations());
-                if (labelTester == null) {
-                    labelTester = lib.labelTester();
-                } else if (lib.labelTester() != null) {
-                    // "only one label tester allowed"
-                    LOG(M316);
-                }
-                for (MacroOption opt:lib.getOptions()) {
-                    ADD_OPTION(opt.option());
-                }
-                result = lib;
-                break;
-            }
+        MacroLibEvent event = new MacroLibEvent();
+        event.begin();
+        LoadedMacroLib loaded = LoadedMacroLib.of(libname);
+        if (event.shouldCommit()) {
+            event.library = libname;
+            event.found = loaded != null;
+            event.opCount = loaded == null? 0: loaded.ops().size();
+            event.commit();
         }
-        if (result == null) {
+        if (loaded == null) {
             LOG(M176,libname); // "%s not found as a macro library service"
+            return null;
+        }
+        for (Map.Entry<String,JynxOp> me : loaded.ops().entrySet()) {
+            String name = me.getKey();
+            JynxOp before = getMacro(name);
+            if (before != null) {
+                // "%s op defined in %s has already been defined in %s"
+                LOG(M243, name, me.getValue().getClass(), before.getClass());
+            }
+        }
+        libs.add(loaded);
+        result = loaded.lib();
+        macrolibs.put(libname, result);
+        translator.addParmTranslations(result.parmTranslations());
+        translator.addOwnerTranslations(result.ownerTranslations());
+        if (labelTester == null) {
+            labelTester = result.labelTester();
+        } else if (result.labelTester() != null) {
+            // "only one label tester allowed"
+            LOG(M316);
+        }
+        for (MacroOption opt:result.getOptions()) {
+            ADD_OPTION(opt.option());
         }
         return result;
     }
@@ -114,48 +157,20 @@ public class JynxOps {
     }
 
     public static Integer length(MacroOp macop) {
-        List<Map.Entry<JynxOp, Integer>> oplist = expandLevel(macop);
-        int sz = 0;
-        for (Map.Entry<JynxOp, Integer>  me:oplist) {
-            Integer oplen = me.getKey().length();
-            if (oplen == null) {
-                return null;
-            }
-            sz += oplen;
-        }
-        return sz;
+        int length = template(macop).length();
+        return length == JvmOp.UNKNOWN_LENGTH? null: length;
     }
 
     public static JvmVersionRange range(MacroOp macop) {
-        JvmVersionRange range = Feature.unlimited.range();
-        for (JynxOp op : macop.getJynxOps()) {
-            range = range.intersect(op.range());
-        }
-        return range;
-    }
-
-    private static List<Map.Entry<JynxOp, Integer>> expandLevel(JynxOp jop) {
-        List<Map.Entry<JynxOp, Integer>> oplist = new ArrayList<>();
-        JynxOps.expandLevel(oplist, jop, 0);
-        return oplist;
-    }
-
-    private static void expandLevel(List<Map.Entry<JynxOp, Integer>> oplist, JynxOp jop, int level) {
-        JvmVersionRange.checkLevel(level);
-        if (jop instanceof MacroOp) {
-            JynxOp[] ops = ((MacroOp) jop).getJynxOps();
-            int opct = ops.length;
-            if (opct > MAX_SIMPLE) {  // check max simple instructions
-                // "%s has %d simple ops which exceeds maximum of %d"
-                throw new LogAssertionError(M267, jop, opct,MAX_SIMPLE);
-            }
-            for (JynxOp op : ops) {
-                JynxOps.expandLevel(oplist, op, level + 1);
+        JvmVersionRange range = RANGES.get(macop);
+        if (range == null) {
+            range = Feature.unlimited.range();
+            for (JynxOp op : macop.getJynxOps()) {
+                range = range.intersect(op.range());
             }
-        } else {
-            Map.Entry<JynxOp, Integer> pair = new AbstractMap.SimpleImmutableEntry<>(jop, level);
-            oplist.add(pair);
+            RANGES.putIfAbsent(macop, range);
         }
+        return range;
     }
 
     private static void print(PrintWriter pw, JynxOp jop) {
@@ -188,7 +203,10 @@ public class JynxOps {
         for (int i = 0; i < last; ++i) {
             ops.addMacroLib(args[i]);
         }
-        System.out.format("number of Jynx ops = %d%n", ops.opmap.size());
+        int opct = ops.libs.stream()
+                .mapToInt(lib -> lib.ops().size())
+                .sum();
+        System.out.format("number of Jynx ops = %d%n", opct);
         String jopstr = args[last];
         JynxOp jop = ops.get(jopstr);
         if (jop == null) {
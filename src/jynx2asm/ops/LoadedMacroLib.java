@@ -0,0 +1,71 @@
+package jynx2asm.ops;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+class LoadedMacroLib {
+
+    private static final Map<String,LoadedMacroLib> LOADED = new ConcurrentHashMap<>();
+
+    private final MacroLib lib;
+    private final Map<String,JynxOp> ops;
+
+    private LoadedMacroLib(MacroLib lib, Map<String, JynxOp> ops) {
+        this.lib = lib;
+        this.ops = ops;
+    }
+
+    public MacroLib lib() {
+        return lib;
+    }
+
+    public Map<String, JynxOp> ops() {
+        return ops;
+    }
+    
+    public JynxOp get(String name) {
+        return ops.get(name);
+    }
+
+    // macro libraries are loaded and their ops validated once per JVM
+    public static LoadedMacroLib of(String libname) {
+        LoadedMacroLib loaded = LOADED.get(libname);
+        if (loaded == null) {
+            MacroLib lib = Providers.LIBS.get(libname);
+            if (lib == null) {
+                return null;
+            }
+            Map<String,JynxOp> ops = new LinkedHashMap<>();
+            for (Map.Entry<String,JynxOp> me : lib.getMacros().entrySet()) {
+                String name = me.getKey();
+                JynxOp op = me.getValue();
+                JynxOps.checkOp(name, op);
+                ops.put(name, op);
+            }
+            loaded = new LoadedMacroLib(lib, Collections.unmodifiableMap(ops));
+            LoadedMacroLib before = LOADED.putIfAbsent(libname, loaded);
+            if (before != null) {
+                loaded = before;
+            }
+        }
+        return loaded;
+    }
+
+    private static class Providers {
+
+        private static final Map<String,MacroLib> LIBS = load();
+
+        private static Map<String,MacroLib> load() {
+            Map<String,MacroLib> libs = new HashMap<>();
+            ServiceLoader<MacroLib> libloader = ServiceLoader.load(MacroLib.class);
+            for (MacroLib lib : libloader) {
+                libs.putIfAbsent(lib.name(), lib);
+            }
+            return Collections.unmodifiableMap(libs);
+        }
+    }
+}
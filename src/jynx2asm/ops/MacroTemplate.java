@@ -0,0 +1,134 @@
+package jynx2asm.ops;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static jynx.Message.M267;
+
+import jvm.JvmVersionRange;
+import jynx.LogAssertionError;
+
+public class MacroTemplate {
+
+    private final MacroOp[] macros; // in order of expansion; macros[0] is the compiled macro
+    private final JynxOp[] ops; // non macro ops in order of expansion
+    private final int[] enclosing; // index in macros of macro containing op
+    private final int[] entered; // number of macros entered immediately before op
+    private final int enteredAtEnd;
+    private final int length;
+
+    private MacroTemplate(MacroOp[] macros, JynxOp[] ops, int[] enclosing, int[] entered,
+            int enteredAtEnd, int length) {
+        this.macros = macros;
+        this.ops = ops;
+        this.enclosing = enclosing;
+        this.entered = entered;
+        this.enteredAtEnd = enteredAtEnd;
+        this.length = length;
+    }
+
+    public int size() {
+        return ops.length;
+    }
+
+    public int macroCount() {
+        return macros.length;
+    }
+
+    public MacroOp macro() {
+        return macros[0];
+    }
+
+    public MacroOp macro(int index) {
+        return macros[index];
+    }
+
+    public JynxOp op(int index) {
+        return ops[index];
+    }
+
+    public int enclosing(int index) {
+        return enclosing[index];
+    }
+
+    public int entered(int index) {
+        return entered[index];
+    }
+
+    public int enteredAtEnd() {
+        return enteredAtEnd;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public static MacroTemplate compile(MacroOp macop, int maxsimple) {
+        Builder builder = new Builder(maxsimple);
+        builder.expand(macop, 0);
+        return builder.build();
+    }
+
+    private static class Builder {
+
+        private final int maxsimple;
+        private final List<MacroOp> macros;
+        private final List<JynxOp> ops;
+        private final List<Integer> enclosing;
+        private final List<Integer> entered;
+
+        private int pending;
+        private int length;
+
+        private Builder(int maxsimple) {
+            this.maxsimple = maxsimple;
+            this.macros = new ArrayList<>();
+            this.ops = new ArrayList<>();
+            this.enclosing = new ArrayList<>();
+            this.entered = new ArrayList<>();
+            this.pending = 0;
+            this.length = 0;
+        }
+
+        private void expand(MacroOp macop, int level) {
+            JvmVersionRange.checkLevel(level);
+            JynxOp[] jops = macop.getJynxOps();
+            if (jops.length > maxsimple) {  // check max simple instructions
+                // "%s has %d simple ops which exceeds maximum of %d"
+                throw new LogAssertionError(M267, macop, jops.length, maxsimple);
+            }
+            int index = macros.size();
+            macros.add(macop);
+            ++pending;
+            for (JynxOp jop : jops) {
+                if (jop instanceof MacroOp) {
+                    expand((MacroOp)jop, level + 1);
+                } else {
+                    add(jop, index);
+                }
+            }
+        }
+
+        private void add(JynxOp jop, int index) {
+            ops.add(jop);
+            enclosing.add(index);
+            entered.add(pending);
+            pending = 0;
+            Integer oplen = jop.length();
+            boolean unknown = length == JvmOp.UNKNOWN_LENGTH || oplen == null;
+            length = unknown? JvmOp.UNKNOWN_LENGTH: length + oplen;
+        }
+
+        private MacroTemplate build() {
+            int[] enclosingarr = enclosing.stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] enteredarr = entered.stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return new MacroTemplate(macros.toArray(new MacroOp[0]), ops.toArray(new JynxOp[0]),
+                    enclosingarr, enteredarr, pending, length);
+        }
+    }
+
+}
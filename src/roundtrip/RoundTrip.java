@@ -68,6 +68,7 @@ public class RoundTrip {
             return false;
         }
         String result = sw.toString();
+        Global.LOGGER().flush();
         System.err.println();
         Global.newGlobal(MainOption.ASSEMBLY);
         byte[] ba1 = JynxClass.getBytes(classname, null, JynxScanner.getInstance(result));
@@ -87,6 +88,7 @@ public class RoundTrip {
         String s1 = textify(ba1,Short.MAX_VALUE);
         String s2 = textify(ba2,s1.length());
         success = s1.equals(s2);
+        Global.LOGGER().flush();
         if (success) {
             System.err.format("string comparison with %s succeeded%n", classname);
         } else {
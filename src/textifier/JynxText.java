@@ -2,7 +2,6 @@ package textifier;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
 
 import org.objectweb.asm.Attribute;
@@ -34,6 +33,7 @@ import asm.JynxClassReader;
 import asm2jynx.JynxStringBuilder;
 import asm2jynx.Object2String;
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Constants;
 import jvm.ConstType;
 import jvm.JvmVersion;
@@ -49,26 +49,40 @@ public class JynxText extends Textifier {
     private final Object2String o2s;
     private final JynxStringBuilder jsb;
     private final List<String> packages;
+    private final PrintWriter streamWriter; // null if not streaming
 
     private JvmVersion jvmVersion;
     private boolean endRequired;
+    private Runnable memberEnd;
 
     public JynxText() {
-        this(JvmVersion.DEFAULT_VERSION, false);
+        this(JvmVersion.DEFAULT_VERSION, false, null);
+    }
+
+    // streaming; each field and method is written to pw (and discarded) at its end event
+    // pw must be the PrintWriter given to TraceClassVisitor
+    public JynxText(PrintWriter pw) {
+        this(JvmVersion.DEFAULT_VERSION, false, pw);
     }
 
     protected JynxText(JvmVersion jvmVersion, boolean endRequired) {
+        this(jvmVersion, endRequired, null);
+    }
+
+    private JynxText(JvmVersion jvmVersion, boolean endRequired, PrintWriter streamWriter) {
         super(Opcodes.ASM9);
         this.o2s = new Object2String();
         this.jsb = new JynxStringBuilder(text::add);
         this.jvmVersion = jvmVersion;
         this.endRequired = endRequired;
         this.packages = new ArrayList<>();
+        this.streamWriter = streamWriter;
+        this.memberEnd = () -> {};
     }
 
     public static void jynxify(final byte[] ba, final PrintWriter pw) {
         ClassReader cr = JynxClassReader.getClassReader(ba);
-        Printer printer = new JynxText();
+        Printer printer = new JynxText(pw);
         TraceClassVisitor tcv = new TraceClassVisitor(null, printer, pw);
         cr.accept(tcv, 0);
     }
@@ -83,6 +97,24 @@ public class JynxText extends Textifier {
         return new JynxText(jvmVersion, endrequired);
     }
 
+    private void addMember(JynxText member) {
+        text.add(member.getText());
+        if (streamWriter != null) {
+            member.memberEnd = this::flush;
+        }
+    }
+
+    // writes text so far and discards it; TraceClassVisitor prints the remainder at class end
+    private void flush() {
+        print(streamWriter);
+        streamWriter.flush();
+        text.clear();
+    }
+
+    protected void memberEnd() {
+        memberEnd.run();
+    }
+
     @Override
     public void visit(
             final int version,
@@ -99,9 +131,9 @@ public class JynxText extends Textifier {
         jvmVersion = jvmversion;
         Global.setJvmVersion(jvmversion);
 
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, CLASS, jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, CLASS, jvmVersion);
         ClassType classtype = ClassType.from(accflags);
-        accflags.removeAll(classtype.getMustHave4Class(jvmVersion));
+        accflags = accflags.without(classtype.getMustHave4Class(jvmVersion));
         Directive dir = classtype.getDir();
         jsb.start(0)
                 .append(dir_version)
@@ -158,9 +190,9 @@ public class JynxText extends Textifier {
 
     @Override
     public void visitInnerClass(String name, String outerName, String innerName, int access) {
-        EnumSet<AccessFlag> inneraccflags = AccessFlag.getEnumSet(access, INNER_CLASS, jvmVersion);
+        AccessFlags inneraccflags = AccessFlag.getAccessFlags(access, INNER_CLASS, jvmVersion);
         ClassType classtype = ClassType.from(inneraccflags);
-        inneraccflags.removeAll(classtype.getMustHave4Inner(jvmVersion));
+        inneraccflags = inneraccflags.without(classtype.getMustHave4Inner(jvmVersion));
         Directive inner = classtype.getInnerDir();
         jsb.start(1)
                 .append(inner)
@@ -219,7 +251,7 @@ public class JynxText extends Textifier {
             final String signature,
             final Object value) {
 
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, FIELD, jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, FIELD, jvmVersion);
         jsb.start(0)
                 .blankline()
                 .append(dir_field)
@@ -237,8 +269,8 @@ public class JynxText extends Textifier {
                 .appendDir(dir_signature, signature);
         endRequired = signature != null;
 
-        Textifier textifier = createTextifier(true);
-        text.add(textifier.getText());
+        JynxText textifier = (JynxText)createTextifier(true);
+        addMember(textifier);
         return textifier;
     }
 
@@ -249,6 +281,7 @@ public class JynxText extends Textifier {
                     .append(end_field)
                     .nl();
         }
+        memberEnd();
     }
 
     @Override
@@ -259,8 +292,8 @@ public class JynxText extends Textifier {
             final String signature,
             final String[] exceptions) {
 
-        Textifier textifier = new JynxTextMethod(jvmVersion, true);
-        text.add(textifier.getText());
+        JynxText textifier = new JynxTextMethod(jvmVersion, true);
+        addMember(textifier);
         return textifier.visitMethod(access, name, descriptor, signature, exceptions);
     }
 
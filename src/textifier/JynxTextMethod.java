@@ -1,6 +1,5 @@
 package textifier;
 
-import java.util.EnumSet;
 
 import org.objectweb.asm.ConstantDynamic;
 import org.objectweb.asm.Handle;
@@ -34,6 +33,7 @@ import static jynx2asm.ops.JvmOp.asm_ldc;
 import asm2jynx.JynxStringBuilder;
 import asm2jynx.Object2String;
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.JvmVersion;
 import jvm.TypeRef;
 import jynx.Directive;
@@ -99,7 +99,7 @@ public class JynxTextMethod extends JynxText {
             final String signature,
             final String[] exceptions) {
 
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, METHOD, jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, METHOD, jvmVersion);
         jsb.start(0)
                 .blankline()
                 .incrDepth()
@@ -129,7 +129,7 @@ public class JynxTextMethod extends JynxText {
 
     @Override
     public void visitParameter(String name, int access) {
-        EnumSet<AccessFlag> pnaccflags = AccessFlag.getEnumSet(access, PARAMETER, jvmVersion);
+        AccessFlags pnaccflags = AccessFlag.getAccessFlags(access, PARAMETER, jvmVersion);
         jsb.start(1)
                 .append(dir_parameter)
                 .append(parmnum)
@@ -159,6 +159,7 @@ public class JynxTextMethod extends JynxText {
                 .append(end_method)
                 .nl();
         jsb.close();
+        memberEnd();
     }
 
     @Override
@@ -1,7 +1,6 @@
 package textifier;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
 
 import org.objectweb.asm.util.Printer;
@@ -21,6 +20,7 @@ import static jynx.ReservedWord.res_with;
 
 import asm2jynx.JynxStringBuilder;
 import jvm.AccessFlag;
+import jvm.AccessFlags;
 import jvm.Context;
 import jvm.JvmVersion;
 import jynx.Directive;
@@ -41,7 +41,7 @@ public class JynxTextModule extends AbstractPrinter {
 
     @Override
     public Printer visitModule(String name, int access, String version) {
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, MODULE,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, MODULE,jvmVersion);
         jsb.start(0)
                 .append(dir_module)
                 .appendFlags(accflags)
@@ -59,7 +59,7 @@ public class JynxTextModule extends AbstractPrinter {
 
     @Override
     public void visitRequire(String require, int access, String version) {
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, Context.REQUIRE, jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, Context.REQUIRE, jvmVersion);
         jsb.start(1)
                 .append(dir_requires)
                 .appendFlags(accflags)
@@ -70,7 +70,7 @@ public class JynxTextModule extends AbstractPrinter {
 
     @Override
     public void visitExport(String packaze, int access, String... modules) {
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, MODULE,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, MODULE,jvmVersion);
         jsb.start(1)
                 .append(dir_exports)
                 .appendFlags(accflags)
@@ -80,7 +80,7 @@ public class JynxTextModule extends AbstractPrinter {
 
     @Override
     public void visitOpen(String packaze, int access, String... modules) {
-        EnumSet<AccessFlag> accflags = AccessFlag.getEnumSet(access, MODULE,jvmVersion);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, MODULE,jvmVersion);
         jsb.start(1)
                 .append(dir_opens)
                 .appendFlags(accflags)
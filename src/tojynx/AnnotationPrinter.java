@@ -0,0 +1,502 @@
+package tojynx;
+
+import java.util.function.IntFunction;
+
+import static jvm.Context.ANNOTATION;
+import static jynx.Directive.*;
+import static jynx.Global.*;
+import static jynx.Message.*;
+import static jynx.ReservedWord.*;
+
+import asm2jynx.JynxStringBuilder;
+import asm2jynx.Object2String;
+import checker.Buffer;
+import jvm.ConstType;
+import jvm.TypeRef;
+import jynx.Directive;
+import jynx.ReservedWord;
+
+// byte level equivalent of asm2jynx.PrintAnnotations
+class AnnotationPrinter {
+
+    private final JynxStringBuilder lb;
+    private final PoolObjects pool;
+    private final Object2String o2s;
+
+    AnnotationPrinter(JynxStringBuilder lb, PoolObjects pool) {
+        this.lb = lb;
+        this.pool = pool;
+        this.o2s = new Object2String();
+    }
+
+    private static ReservedWord visibility(boolean visible) {
+        return visible?ReservedWord.res_visible:ReservedWord.res_invisible;
+    }
+    
+    private static int peekUnsignedByte(Buffer buffer, int offset) {
+        return Byte.toUnsignedInt(buffer.bb().get(buffer.position() + offset));
+    }
+    
+    private static int peekUnsignedShort(Buffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.bb().getShort(buffer.position() + offset));
+    }
+    
+    void printAnnotations(Buffer visible, Buffer invisible) {
+        printAnnotations(true, visible);
+        printAnnotations(false, invisible);
+    }
+    
+    private void printAnnotations(boolean visible, Buffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String desc = pool.utf8(buffer.nextUnsignedShort());
+            lb.append(dir_annotation)
+                    .append(visibility(visible))
+                    .append(desc)
+                    .nl();
+            printAnnotation(buffer);
+            lb.append(end_annotation).nl();
+        }
+    }
+
+    void printDefaultAnnotation(Buffer buffer, String mdesc) {
+        if (buffer == null) {
+            return;
+        }
+        lb.append(dir_default_annotation)
+                .nl()
+                .incrDepth();
+            int retind = mdesc.lastIndexOf(')');
+            String desc = mdesc.substring(retind + 1);
+            printElementValue(null, buffer, desc);
+        lb.decrDepth()
+                .append(end_annotation).nl();
+    }
+
+    private void printLength(boolean visible, int count,int min, int max) {
+        Directive dirx = visible?dir_visible_parameter_count:dir_invisible_parameter_count;
+        if (count < min || count > max) {
+            LOG(M92,dirx,count,min,max);  // "%s count(%d) must be in range [%d,%d]"
+            count = max;
+        }
+        boolean notdefault = count < max;
+        if (notdefault) {
+            lb.append(dirx).append(count).nl();
+        }
+    }
+
+    void printParamAnnotations(Buffer visible, Buffer invisible, int max) {
+        printParamAnnotations(true, visible, max);
+        printParamAnnotations(false, invisible, max);
+    }
+    
+    // number of parameters up to and including the last annotated one
+    private int annotatedParameters(Buffer buffer, int parms) {
+        int min = 0;
+        for (int i = 0; i < parms; ++i) {
+            int ct = buffer.nextUnsignedShort();
+            for (int j = 0; j < ct; ++j) {
+                skipAnnotation(buffer);
+            }
+            if (ct != 0) {
+                min = i + 1;
+            }
+        }
+        return min;
+    }
+    
+    private void printParamAnnotations(boolean visible, Buffer buffer, int max) {
+        if (buffer == null) {
+            return;
+        }
+        int parms = buffer.nextUnsignedByte();
+        int min = annotatedParameters(new Buffer(pool.pool(), buffer.bb().duplicate()), parms);
+        if (min == 0) {
+            return;
+        }
+        printLength(visible, parms, min, max);
+        for (int index = 0; index < parms; ++index) {
+            int ct = buffer.nextUnsignedShort();
+            for (int j = 0; j < ct; ++j) {
+                String desc = pool.utf8(buffer.nextUnsignedShort());
+                lb.append(dir_parameter_annotation)
+                        .append(visibility(visible))
+                        .append(index)
+                        .append(desc)
+                        .nl();
+                printAnnotation(buffer);
+                lb.append(end_annotation).nl();
+            }
+        }
+    }
+
+    // buffer is positioned after type_index
+    private void printAnnotation(Buffer buffer) {
+        lb.incrDepth();
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String name = pool.utf8(buffer.nextUnsignedShort());
+            printElementValue(name, buffer, null);
+        }
+        lb.decrDepth();
+    }
+
+    private void printElementValue(String name, Buffer buffer, String desc) {
+        int tag = peekUnsignedByte(buffer, 0);
+        boolean isArray = tag == '[';
+        int count = 1;
+        if (isArray) {
+            buffer.nextUnsignedByte();
+            count = buffer.nextUnsignedShort();
+            if (count == 0) {
+                printEmptyArray(name, desc);
+                return;
+            }
+            tag = peekUnsignedByte(buffer, 0);
+        }
+        ConstType ct = ConstType.getInstance((char)tag, ANNOTATION);
+        switch(ct) {
+            case ct_enum:
+                printValuesEnum(name, isArray, count, buffer);
+                break;
+            case ct_annotation:
+                printValuesAnnotation(name, isArray, count, buffer);
+                break;
+            default:
+                printValues(name, ct, isArray, count, buffer);
+                break;
+        }
+    }
+
+    private void printEmptyArray(String name, String desc) {
+        // a zero array does not need a type, so use [I
+        ConstType ct = desc == null? ConstType.ct_int:ConstType.getFromDesc(desc.substring(1), ANNOTATION);
+        if (ct == ConstType.ct_annotation) {
+            lb.appendNonNull(name)
+                    .append(ct.getJynxDesc(true))
+                    .appendNonNull(desc.substring(1))
+                    .append(equals_sign)
+                    .append(dot_annotation_array)
+                    .nl()
+                    .append(end_annotation_array)
+                    .nl();
+        } else {
+            lb.appendNonNull(name)
+                    .append(ct.getJynxDesc(true))
+                    .append(equals_sign)
+                    .append(left_array)
+                    .append(right_array)
+                    .nl();
+        }
+    }
+    
+    // values as created by ASM ClassReader
+    private Object nextConstValue(Buffer buffer) {
+        int tag = buffer.nextUnsignedByte();
+        Object value = buffer.nextPoolValue();
+        switch (tag) {
+            case 'B':
+                return (byte)(int)value;
+            case 'C':
+                return (char)(int)value;
+            case 'S':
+                return (short)(int)value;
+            case 'Z':
+                return (int)value != 0;
+            default: // class desc, String or other numeric
+                return value;
+        }
+    }
+    
+    private void printValues(String name, ConstType ct, boolean isArray, int count, Buffer buffer) {
+        String typestr = ct.getJynxDesc(isArray);
+        lb.appendNonNull(name)
+                .append(typestr)
+                .append(equals_sign);
+        if (isArray) {
+            lb.append(dot_array)
+                    .nl()
+                    .incrDepth();
+        }
+        for (int i = 0; i < count; ++i) { // String, class desc or numeric
+            Object value = nextConstValue(buffer);
+            String strvalue = o2s.stringFrom(ct, value);
+            lb.appendNonNull(strvalue);
+            if (isArray) {
+                lb.nl();
+            }
+        }
+        if (isArray) {
+            lb.decrDepth();
+            lb.append(end_array);
+        }
+        lb.nl();
+    }
+    
+    private void printValuesEnum(String name, boolean isArray, int count, Buffer buffer) {
+        ConstType ct = ConstType.ct_enum;
+        String typestr = ct.getJynxDesc(isArray);
+        String enumstr = pool.utf8(peekUnsignedShort(buffer, 1));
+        lb.appendNonNull(name).append(typestr).appendNonNull(enumstr).append(equals_sign);
+        if (isArray) {
+            lb.append(dot_array)
+                    .nl()
+                    .incrDepth();
+        }
+        int i = 0;
+        while (i < count) {
+            buffer.nextUnsignedByte(); // tag
+            String desc = pool.utf8(buffer.nextUnsignedShort());
+            String value = pool.utf8(buffer.nextUnsignedShort());
+            ++i;
+            if (!enumstr.equals(desc)) {
+                LOG(M205, enumstr, desc); // "enum class changed; was %s now %s"
+                break;
+            }
+            String strvalue = o2s.stringFrom(ct, value);
+            lb.appendNonNull(strvalue).nl();
+        }
+        for (; i < count; ++i) {
+            skipElementValue(buffer);
+        }
+        if (isArray) {
+            lb.decrDepth()
+                    .append(end_array);
+        }
+        lb.nl();
+    }
+    
+    private void printValuesAnnotation(String name, boolean isArray, int count, Buffer buffer) {
+        ConstType ct = ConstType.ct_annotation;
+        String typestr = ct.getJynxDesc(isArray);
+        String desc = pool.utf8(peekUnsignedShort(buffer, 1));
+        lb.appendNonNull(name).append(typestr).appendNonNull(desc).append(equals_sign);
+        if (isArray) {
+            lb.append(dot_annotation_array).nl();
+            lb.incrDepth();
+            for (int i = 0; i < count; ++i) {
+                buffer.nextUnsignedByte(); // tag
+                buffer.nextUnsignedShort(); // type_index
+                lb.append(dir_annotation).nl();
+                printAnnotation(buffer);
+                lb.append(end_annotation).nl();
+            }
+            lb.decrDepth()
+                    .append(end_annotation_array).nl();
+        } else {
+            buffer.nextUnsignedByte(); // tag
+            buffer.nextUnsignedShort(); // type_index
+            lb.append(dot_annotation).nl();
+            printAnnotation(buffer);
+            lb.append(end_annotation).nl();
+        }
+    }
+
+    static void skipAnnotation(Buffer buffer) {
+        buffer.nextUnsignedShort(); // type_index
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            buffer.nextUnsignedShort(); // element_name_index
+            skipElementValue(buffer);
+        }
+    }
+    
+    private static void skipElementValue(Buffer buffer) {
+        int tag = buffer.nextUnsignedByte();
+        switch (tag) {
+            case 'e':
+                buffer.advance(4);
+                break;
+            case '@':
+                skipAnnotation(buffer);
+                break;
+            case '[':
+                int ct = buffer.nextUnsignedShort();
+                for (int i = 0; i < ct; ++i) {
+                    skipElementValue(buffer);
+                }
+                break;
+            default:
+                buffer.advance(2);
+                break;
+        }
+    }
+    
+    // buffer is positioned at target_type
+    static TypeRef peekTypeRef(Buffer buffer) {
+        return TypeRef.fromJVM(peekUnsignedByte(buffer, 0));
+    }
+
+    // bytecode offset, or exception table index for trt_except
+    static int peekTypeRefKey(Buffer buffer) {
+        return peekUnsignedShort(buffer, 1);
+    }
+    
+    static boolean isLocalVar(TypeRef tr) {
+        return tr == TypeRef.tro_var || tr == TypeRef.tro_resource;
+    }
+    
+    static void skipTypeAnnotation(Buffer buffer) {
+        TypeRef tr = peekTypeRef(buffer);
+        if (isLocalVar(tr)) {
+            buffer.nextUnsignedByte();
+            int ct = buffer.nextUnsignedShort();
+            buffer.advance(6*ct);
+        } else {
+            nextTypeRef(tr, buffer);
+        }
+        nextTypePath(buffer);
+        skipAnnotation(buffer);
+    }
+    
+    // returns typeref as masked by ASM ClassReader
+    private static int nextTypeRef(TypeRef tr, Buffer buffer) {
+        int typeref = buffer.nextUnsignedByte() << 24;
+        switch (tr) {
+            case trc_param:
+            case trm_param:
+            case trm_formal:
+                typeref |= buffer.nextUnsignedByte() << 16;
+                break;
+            case trc_extends:
+            case trm_throws:
+            case trt_except:
+                typeref |= buffer.nextUnsignedShort() << 8;
+                break;
+            case trc_param_bound:
+            case trm_param_bound:
+                typeref |= buffer.nextUnsignedByte() << 16;
+                typeref |= buffer.nextUnsignedByte() << 8;
+                break;
+            case trf_field:
+            case trm_return:
+            case trm_receiver:
+                break;
+            case tro_instanceof:
+            case tro_new:
+            case tro_newref:
+            case tro_methodref:
+                buffer.nextUnsignedShort(); // offset
+                break;
+            case tro_cast:
+            case tro_argnew:
+            case tro_argmethod:
+            case tro_argnewref:
+            case tro_argmethodref:
+                buffer.nextUnsignedShort(); // offset
+                typeref |= buffer.nextUnsignedByte();
+                break;
+            default:
+                throw new EnumConstantNotPresentException(tr.getClass(), tr.name());
+        }
+        return typeref;
+    }
+
+    // same format as org.objectweb.asm.TypePath.toString()
+    private static String nextTypePath(Buffer buffer) {
+        int length = buffer.nextUnsignedByte();
+        if (length == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; ++i) {
+            int kind = buffer.nextUnsignedByte();
+            int argindex = buffer.nextUnsignedByte();
+            switch (kind) {
+                case 0:
+                    sb.append('[');
+                    break;
+                case 1:
+                    sb.append('.');
+                    break;
+                case 2:
+                    sb.append('*');
+                    break;
+                case 3:
+                    sb.append(argindex).append(';');
+                    break;
+                default:
+                    sb.append('_');
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+    
+    private void printTypeAnnotationHeader(boolean visible, TypeRef tr, int typeref, String typepath, String desc) {
+        Directive dir = tr.getDirective();
+        CHECK_SUPPORTS(dir);
+        String trstr = tr.getTypeRefString(typeref);
+        lb.append(dir)
+                .append(visibility(visible));
+        if (!trstr.isEmpty()) {
+            lb.append(trstr.split(" "));
+        }
+        lb.append(res_typepath, typepath)
+            .append(desc);
+    }
+    
+    void printTypeAnnotations(Buffer visible, Buffer invisible) {
+        printTypeAnnotations(true, visible);
+        printTypeAnnotations(false, invisible);
+    }
+    
+    private void printTypeAnnotations(boolean visible, Buffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            printTypeAnnotation(visible, buffer);
+        }
+    }
+    
+    // buffer is positioned at target_type
+    void printTypeAnnotation(boolean visible, Buffer buffer) {
+        TypeRef tr = peekTypeRef(buffer);
+        int typeref = nextTypeRef(tr, buffer);
+        String typepath = nextTypePath(buffer);
+        String desc = pool.utf8(buffer.nextUnsignedShort());
+        printTypeAnnotationHeader(visible, tr, typeref, typepath, desc);
+        lb.nl();
+        printAnnotation(buffer);
+        lb.append(end_annotation).nl();
+    }
+
+    // buffer is positioned at target_type
+    void printLocalVarAnnotation(boolean visible, Buffer buffer, IntFunction<String> labelnamer) {
+        TypeRef tr = peekTypeRef(buffer);
+        int typeref = buffer.nextUnsignedByte() << 24;
+        int entries = buffer.nextUnsignedShort();
+        int[] table = new int[3*entries];
+        for (int i = 0; i < table.length; ++i) {
+            table[i] = buffer.nextUnsignedShort();
+        }
+        String typepath = nextTypePath(buffer);
+        String desc = pool.utf8(buffer.nextUnsignedShort());
+        printTypeAnnotationHeader(visible, tr, typeref, typepath, desc);
+        lb.append(dot_array)
+            .nl()
+                .incrDepth()
+                .incrDepth();
+            for (int i = 0; i < table.length; i += 3) {
+                int start = table[i];
+                int end = start + table[i + 1];
+                int index = table[i + 2];
+                lb.append(index)
+                        .append(labelnamer.apply(start))
+                        .append(labelnamer.apply(end))
+                        .nl();
+            }
+            lb.decrDepth();
+        lb.append(end_array)
+                .nl()
+                .decrDepth();
+        printAnnotation(buffer);
+        lb.append(end_annotation).nl();
+    }
+    
+}
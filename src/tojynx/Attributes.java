@@ -0,0 +1,106 @@
+package tojynx;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.Opcodes;
+
+import static jvm.StandardAttribute.*;
+import static jynx.Global.OPTION;
+
+import checker.AttributeBuffer;
+import checker.Buffer;
+import jvm.Context;
+import jvm.StandardAttribute;
+import jynx.GlobalOption;
+
+// zero-copy view of an attribute table; unknown attributes are ignored as by ASM ClassReader
+class Attributes {
+
+    private final Map<StandardAttribute, List<AttributeBuffer>> attrmap;
+
+    private Attributes(Map<StandardAttribute, List<AttributeBuffer>> attrmap) {
+        this.attrmap = attrmap;
+    }
+
+    private static EnumSet<StandardAttribute> skipped() {
+        EnumSet<StandardAttribute> skip = EnumSet.noneOf(StandardAttribute.class);
+        if (OPTION(GlobalOption.SKIP_CODE)) {
+            skip.add(Code);
+        }
+        if (OPTION(GlobalOption.SKIP_DEBUG)) {
+            skip.addAll(EnumSet.of(SourceFile, SourceDebugExtension, LineNumberTable,
+                    LocalVariableTable, LocalVariableTypeTable, MethodParameters));
+        }
+        if (OPTION(GlobalOption.SKIP_FRAMES)) {
+            skip.add(StackMapTable);
+        }
+        if (OPTION(GlobalOption.SKIP_ANNOTATIONS)) {
+            skip.addAll(EnumSet.of(RuntimeVisibleAnnotations, RuntimeInvisibleAnnotations,
+                    RuntimeVisibleParameterAnnotations, RuntimeInvisibleParameterAnnotations,
+                    RuntimeVisibleTypeAnnotations, RuntimeInvisibleTypeAnnotations));
+        }
+        return skip;
+    }
+    
+    static Attributes read(Context context, Buffer buffer) {
+        EnumSet<StandardAttribute> skip = skipped();
+        Map<StandardAttribute, List<AttributeBuffer>> attrmap = new EnumMap<>(StandardAttribute.class);
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String attrname = (String)buffer.nextPoolValue();
+            int size = buffer.nextSize();
+            AttributeBuffer attrbuff = buffer.attributeBuffer(context, attrname, size);
+            StandardAttribute attr = StandardAttribute.getInstance(attrname);
+            if (attr == null || skip.contains(attr)) {
+                continue;
+            }
+            List<AttributeBuffer> attrs = attrmap.computeIfAbsent(attr, k -> new ArrayList<>());
+            if (attr != LineNumberTable) { // last one wins
+                attrs.clear();
+            }
+            attrs.add(attrbuff);
+        }
+        return new Attributes(attrmap);
+    }
+
+    static void skip(Buffer buffer) {
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            buffer.nextUnsignedShort(); // name
+            int size = buffer.nextSize();
+            buffer.advance(size);
+        }
+    }
+    
+    boolean has(StandardAttribute attr) {
+        return attrmap.containsKey(attr);
+    }
+    
+    AttributeBuffer get(StandardAttribute attr) {
+        List<AttributeBuffer> attrs = attrmap.get(attr);
+        return attrs == null? null: attrs.get(0);
+    }
+
+    List<AttributeBuffer> getAll(StandardAttribute attr) {
+        return attrmap.getOrDefault(attr, new ArrayList<>());
+    }
+
+    // ASM pseudo access flags for attributes
+    int access(int access) {
+        if (has(Synthetic)) {
+            access |= Opcodes.ACC_SYNTHETIC;
+        }
+        if (has(Deprecated)) {
+            access |= Opcodes.ACC_DEPRECATED;
+        }
+        if (has(Record)) {
+            access |= Opcodes.ACC_RECORD;
+        }
+        return access;
+    }
+    
+}
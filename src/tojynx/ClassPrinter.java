@@ -0,0 +1,615 @@
+package tojynx;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.objectweb.asm.Type;
+
+import static jvm.AccessFlag.*;
+import static jvm.Context.*;
+import static jvm.StandardAttribute.*;
+import static jynx.Directive.*;
+import static jynx.Global.*;
+import static jynx.Message.*;
+import static jynx.ReservedWord.*;
+
+import asm2jynx.JynxStringBuilder;
+import asm2jynx.Object2String;
+import checker.AttributeBuffer;
+import checker.Buffer;
+import checker.CPEntry;
+import checker.ConstantPool;
+import jvm.AccessFlag;
+import jvm.AccessFlags;
+import jvm.ConstType;
+import jvm.Constants;
+import jvm.JvmVersion;
+import jvm.StandardAttribute;
+import jynx.ClassType;
+import jynx.ClassUtil;
+import jynx.Directive;
+import jynx.Global;
+import jynx.GlobalOption;
+import jynx.LogIllegalArgumentException;
+import jynx.MainOption;
+import jynx.jfr.DisassembleClassEvent;
+import jynx2asm.handles.HandlePart;
+
+// prints a class file as Jynx in the same format as asm2jynx.JynxDisassemble without building an ASM tree
+class ClassPrinter {
+
+    private static final int MAGIC = 0xcafebabe;
+
+    private final PrintWriter pw;
+    private final JvmVersion jvmVersion;
+    private final PoolObjects pool;
+    private final Object2String o2s;
+    private final JynxStringBuilder jp;
+    private final AnnotationPrinter annotator;
+
+    private final String classname;
+    private final int access;
+    private final String superName;
+    private final String[] interfaces;
+    private final Attributes classattrs;
+    private final Buffer members; // positioned at fields_count
+
+    private int methodct;
+    
+    private ClassPrinter(PrintWriter pw, JvmVersion jvmversion, PoolObjects pool, String classname,
+            int access, String superName, String[] interfaces, Attributes classattrs, Buffer members) {
+        this.pw = pw;
+        this.jvmVersion = jvmversion;
+        this.pool = pool;
+        this.o2s = new Object2String();
+        this.jp = new JynxStringBuilder(pw::print);
+        this.annotator = new AnnotationPrinter(jp, pool);
+        this.classname = classname;
+        this.access = classattrs.access(access);
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.classattrs = classattrs;
+        this.members = members;
+        this.methodct = 0;
+    }
+
+    private static JvmVersion checkVersion(JvmVersion jvmversion) {
+        if (jvmversion.compareTo(JvmVersion.MAX_VERSION) > 0) {
+            if (OPTION(GlobalOption.DOWN_CAST)) {
+                // "JVM version %s is not supported by the version of ASM used; %s substituted"
+                LOG(M287,jvmversion,JvmVersion.MAX_VERSION);
+                jvmversion = JvmVersion.MAX_VERSION;
+            } else {
+                // "JVM version %s is not supported by the version of ASM used; maximum version is %s "
+                throw new LogIllegalArgumentException(M288,jvmversion,JvmVersion.MAX_VERSION);
+            }
+        }
+        jvmversion.checkSupported();
+        return jvmversion;
+    }
+    
+    private static ClassPrinter getInstance(byte[] ba, PrintWriter pw) {
+        ByteBuffer bb = ByteBuffer.wrap(ba);
+        bb = bb.asReadOnlyBuffer();
+        bb.order(ByteOrder.BIG_ENDIAN);
+        int magic = bb.getInt();
+        if (magic != MAGIC) {
+            // "magic number is %#x; should be 0xcafebabe"
+            throw new LogIllegalArgumentException(M285,magic);
+        }
+        JvmVersion jvmversion = checkVersion(JvmVersion.fromASM(bb.getInt()));
+        int poolsz = Short.toUnsignedInt(bb.getShort(bb.position()));
+        if (poolsz >= 256) {
+            LOG(M67,poolsz); // "poolsz = %d"
+        }
+        ConstantPool cp = ConstantPool.getInstance(bb, jvmversion);
+        cp.check();
+        PoolObjects pool = new PoolObjects(cp);
+        Buffer buffer = new Buffer(cp, bb);
+        int access = buffer.nextUnsignedShort();
+        String classname = pool.indirectUtf8(buffer.nextUnsignedShort());
+        String superName = pool.optIndirectUtf8(buffer.nextUnsignedShort());
+        String[] interfaces = new String[buffer.nextUnsignedShort()];
+        for (int i = 0; i < interfaces.length; ++i) {
+            interfaces[i] = pool.indirectUtf8(buffer.nextUnsignedShort());
+        }
+        Buffer members = new Buffer(cp, bb.duplicate());
+        skipMembers(buffer);
+        boolean hasFrames = skipMembers(buffer);
+        Attributes classattrs = Attributes.read(CLASS, buffer);
+        if (buffer.hasRemaining()) {
+            // "%s %s has %d extra bytes at end"
+            LOG(M502, CLASS, classname, buffer.remaining());
+        }
+        if (jvmversion == JvmVersion.V1_6JSR && hasFrames && !OPTION(GlobalOption.SKIP_FRAMES)) {
+            jvmversion = JvmVersion.V1_6;
+        }
+        Global.setJvmVersion(jvmversion);
+        AttributeBuffer bootstraps = classattrs.get(BootstrapMethods);
+        if (bootstraps != null) {
+            int ct = bootstraps.nextUnsignedShort();
+            for (int i = 0; i < ct; ++i) {
+                int bsm = bootstraps.nextUnsignedShort();
+                int[] bootstrap = new int[bootstraps.nextUnsignedShort() + 1];
+                bootstrap[0] = bsm;
+                for (int j = 1; j < bootstrap.length; ++j) {
+                    bootstrap[j] = bootstraps.nextUnsignedShort();
+                }
+                pool.addBootstrap(bootstrap);
+            }
+        }
+        return new ClassPrinter(pw, jvmversion, pool, classname, access, superName, interfaces,
+                classattrs, members);
+    }
+
+    // returns true if any member has a Code attribute with a non empty StackMapTable 
+    private static boolean skipMembers(Buffer buffer) {
+        ConstantPool cp = buffer.pool();
+        boolean hasFrames = false;
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            buffer.advance(6); // access, name, descriptor
+            int attrct = buffer.nextUnsignedShort();
+            for (int j = 0; j < attrct; ++j) {
+                String attrname = (String)buffer.nextPoolValue();
+                int size = buffer.nextSize();
+                if (attrname.equals(Code.name())) {
+                    hasFrames |= hasFrames(new Buffer(cp, buffer.bb().duplicate()));
+                }
+                buffer.advance(size);
+            }
+        }
+        return hasFrames;
+    }
+
+    private static boolean hasFrames(Buffer code) {
+        code.advance(4); // max_stack, max_locals
+        code.advance(code.nextSize());
+        code.advance(8*code.nextUnsignedShort()); // exception table
+        int attrct = code.nextUnsignedShort();
+        for (int j = 0; j < attrct; ++j) {
+            String attrname = (String)code.nextPoolValue();
+            int size = code.nextSize();
+            if (attrname.equals(StackMapTable.name()) && size >= 2 && code.nextUnsignedShort() != 0) {
+                return true;
+            }
+            code.advance(size);
+        }
+        return false;
+    }
+    
+    private String optUtf8(StandardAttribute attr) {
+        AttributeBuffer attrbuff = classattrs.get(attr);
+        return attrbuff == null? null: pool.utf8(attrbuff.nextUnsignedShort());
+    }
+
+    private String optClassName(StandardAttribute attr) {
+        AttributeBuffer attrbuff = classattrs.get(attr);
+        return attrbuff == null? null: pool.indirectUtf8(attrbuff.nextUnsignedShort());
+    }
+
+    private List<String> classNames(AttributeBuffer attrbuff) {
+        List<String> names = new ArrayList<>();
+        if (attrbuff != null) {
+            int ct = attrbuff.nextUnsignedShort();
+            for (int i = 0; i < ct; ++i) {
+                names.add(pool.indirectUtf8(attrbuff.nextUnsignedShort()));
+            }
+        }
+        return names;
+    }
+    
+    private String sourceDebug() {
+        AttributeBuffer attrbuff = classattrs.get(SourceDebugExtension);
+        return attrbuff == null? null: CPEntry.fromUTF8CP(attrbuff.bb());
+    }
+    
+    private void close() {
+        jp.close();
+        pw.close();
+    }
+
+    private void printPackage() {
+        String cname = classname;
+        AccessFlags accflags = AccessFlag.getAccessFlags(access,CLASS,jvmVersion);
+        ClassType classtype = ClassType.PACKAGE;
+        int index = cname.lastIndexOf('/');
+        cname = cname.substring(0, index);
+        accflags = accflags.without(classtype.getMustHave4Class(jvmVersion));
+        Directive dir = classtype.getDir();
+        jp.append(dir)
+                .appendFlags(accflags)
+                .appendName(cname)
+                .nl()
+                .incrDepth()
+                .appendDir(dir_super, superName);
+        annotator.printAnnotations(classattrs.get(RuntimeVisibleAnnotations),
+                classattrs.get(RuntimeInvisibleAnnotations));
+        printInner();
+        jp.decrDepth();
+    }
+    
+    private boolean print() {
+        Global.setClassName(classname);
+        printVersionSource();
+        if (classattrs.has(Module)) {
+            LOGGER().setLine("module " + classname);
+            LOGGER().pushContext();
+            printModuleHeader();
+        } else if (classname.endsWith("/" + Constants.PACKAGE_INFO_NAME.stringValue())) {
+            LOGGER().setLine("package " + classname);
+            LOGGER().pushContext();
+            printPackage();
+        } else {
+            LOGGER().setLine("class " + classname);
+            LOGGER().pushContext();
+            printClassHeader();
+            int ct = members.nextUnsignedShort();
+            for (int i = 0; i < ct; ++i) {
+                printField();
+            }
+            methodct = members.nextUnsignedShort();
+            for (int i = 0; i < methodct; ++i) {
+                printMethod();
+            }
+        }
+        close();
+        boolean success = END_MESSAGES(classname);
+        return success;
+    }
+    
+    private void printEnclosing() {
+        AttributeBuffer attrbuff = classattrs.get(EnclosingMethod);
+        if (attrbuff == null) {
+            return;
+        }
+        String outerClass = pool.indirectUtf8(attrbuff.nextUnsignedShort());
+        int nat = attrbuff.nextUnsignedShort();
+        if (nat != 0) {
+            String cmdesc = HandlePart.ownerName(outerClass,pool.name(nat) + pool.desc(nat));
+            jp.append(dir_enclosing_method)
+                    .append(cmdesc)
+                    .nl();
+        } else {
+            jp.append(dir_outer_class)
+                    .append(outerClass)
+                    .nl();
+        }
+    }
+
+    private void printClassHeader() {
+        String cname = classname;
+        AccessFlags accflags = AccessFlag.getAccessFlags(access,CLASS,jvmVersion);
+        ClassType classtype = ClassType.from(accflags);
+        accflags = accflags.without(classtype.getMustHave4Class(jvmVersion));
+        Directive dir = classtype.getDir();
+        jp.append(dir)
+                .appendFlags(accflags)
+                .appendName(cname)
+                .nl()
+                .incrDepth()
+                .appendDir(dir_super, superName)
+                .appendDirArray(dir_implements, interfaces)
+                .appendDir(dir_signature,optUtf8(Signature))
+                .appendDir(dir_debug, sourceDebug());
+        printEnclosing();
+        jp.appendDir(dir_nesthost, optClassName(NestHost));
+        annotator.printAnnotations(classattrs.get(RuntimeVisibleAnnotations),
+                classattrs.get(RuntimeInvisibleAnnotations));
+        annotator.printTypeAnnotations(classattrs.get(RuntimeVisibleTypeAnnotations),
+                classattrs.get(RuntimeInvisibleTypeAnnotations));
+        printInner();
+        jp.appendDirArray(dir_nestmember,classNames(classattrs.get(NestMembers)))
+                .appendDirArray(dir_permittedSubclass,classNames(classattrs.get(PermittedSubclasses)))
+                .decrDepth();
+        printComponents();
+    }
+
+    private static boolean isAnnotated(Attributes attrs) {
+        return attrs.has(RuntimeVisibleAnnotations)
+                || attrs.has(RuntimeInvisibleAnnotations)
+                || attrs.has(RuntimeVisibleTypeAnnotations)
+                || attrs.has(RuntimeInvisibleTypeAnnotations);
+    }
+    
+    private void printComponents() {
+        AttributeBuffer record = classattrs.get(Record);
+        if (record == null) {
+            return;
+        }
+        int ct = record.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String name = pool.utf8(record.nextUnsignedShort());
+            String desc = pool.utf8(record.nextUnsignedShort());
+            Attributes attrs = Attributes.read(COMPONENT, record);
+            jp.append(dir_component)
+                    .append(name)
+                    .append(desc)
+                    .nl();
+            AttributeBuffer signature = attrs.get(Signature);
+            if (signature != null || isAnnotated(attrs)) {
+                jp.incrDepth()
+                        .appendDir(dir_signature, signature == null? null: pool.utf8(signature.nextUnsignedShort()));
+                    annotator.printAnnotations(attrs.get(RuntimeVisibleAnnotations),
+                            attrs.get(RuntimeInvisibleAnnotations));
+                    annotator.printTypeAnnotations(attrs.get(RuntimeVisibleTypeAnnotations),
+                            attrs.get(RuntimeInvisibleTypeAnnotations));
+                jp.decrDepth()
+                        .append(end_component).nl();
+            }
+        }
+    }
+
+    private void printInner() {
+        AttributeBuffer attrbuff = classattrs.get(InnerClasses);
+        if (attrbuff == null) {
+            return;
+        }
+        int ct = attrbuff.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String name = pool.indirectUtf8(attrbuff.nextUnsignedShort());
+            String outerName = pool.optIndirectUtf8(attrbuff.nextUnsignedShort());
+            String innerName = pool.optUtf8(attrbuff.nextUnsignedShort());
+            int inneraccess = attrbuff.nextUnsignedShort();
+            AccessFlags inneraccflags = AccessFlag.getAccessFlags(inneraccess,INNER_CLASS,jvmVersion);
+            ClassType classtype = ClassType.from(inneraccflags);
+            inneraccflags = inneraccflags.without(classtype.getMustHave4Inner(jvmVersion));
+            Directive inner = classtype.getInnerDir();
+            jp.append(inner)
+                    .appendFlags(inneraccflags)
+                    .appendName(name)
+                    .append(res_outer, outerName)
+                    .append(res_innername, innerName)
+                    .nl();
+        }
+    }
+    
+    private void printModuleHeader() {
+        // specified at end of jvms 4.1
+        assert Constants.MODULE_CLASS_NAME.equalsString(classname);
+        AccessFlags accflags = AccessFlag.getAccessFlags(access, CLASS,jvmVersion);
+        assert accflags.contains(acc_module) && accflags.size() == 1;
+        
+        jp.append(dir_define_module)
+                .nl()
+                .incrDepth()
+                .appendDir(dir_debug, sourceDebug());
+        annotator.printAnnotations(classattrs.get(RuntimeVisibleAnnotations),
+                classattrs.get(RuntimeInvisibleAnnotations));
+        printInner();
+        jp.decrDepth();
+        printModuleInfo();
+    }
+
+    private void printField() {
+        jp.blankline();
+        int faccess = members.nextUnsignedShort();
+        String name = pool.utf8(members.nextUnsignedShort());
+        String desc = pool.utf8(members.nextUnsignedShort());
+        Attributes attrs = Attributes.read(FIELD, members);
+        faccess = attrs.access(faccess);
+        LOGGER().setLine("field " + name);
+        AttributeBuffer signature = attrs.get(Signature);
+        boolean endrequired = isAnnotated(attrs) || signature != null;
+
+        AccessFlags accflags = AccessFlag.getAccessFlags(faccess, FIELD,jvmVersion);
+        jp.append(dir_field)
+                .appendFlags(accflags)
+                .appendName(name)
+                .appendNonNull(desc);
+        AttributeBuffer value = attrs.get(ConstantValue);
+        if (value != null) {
+            jvmVersion.checkSupports(ConstantValue);
+            ConstType ct = ConstType.getFromDesc(desc, FIELD_VALUE);
+            Object cst = pool.constant(value.nextUnsignedShort());
+            jp.append(equals_sign, o2s.stringFrom(ct,cst));
+        }
+        String line = jp.line();
+        jp.nl();
+        LOGGER().setLine(line);
+
+        if (endrequired) {
+            LOGGER().pushContext();
+            jp.incrDepth()
+                    .appendDir(dir_signature,signature == null? null: pool.utf8(signature.nextUnsignedShort()));
+                annotator.printAnnotations(attrs.get(RuntimeVisibleAnnotations),
+                        attrs.get(RuntimeInvisibleAnnotations));
+                annotator.printTypeAnnotations(attrs.get(RuntimeVisibleTypeAnnotations),
+                        attrs.get(RuntimeInvisibleTypeAnnotations));
+            jp.decrDepth();
+            jp.append(end_field).nl();
+            LOGGER().popContext();
+        }
+    }
+
+    private void printParameters(AttributeBuffer attrbuff) {
+        if (attrbuff == null) {
+            return;
+        }
+        int ct = attrbuff.nextUnsignedByte();
+        for (int parmnum = 0; parmnum < ct; ++parmnum) {
+            String name = pool.optUtf8(attrbuff.nextUnsignedShort());
+            int paccess = attrbuff.nextUnsignedShort();
+            AccessFlags pnaccflags = AccessFlag.getAccessFlags(paccess, PARAMETER, jvmVersion);
+            jp.append(dir_parameter)
+                    .append(parmnum)
+                    .appendFlags(pnaccflags)
+                    .appendOptName(name)
+                    .nl();
+        }
+    }
+    
+    private void printCode(AttributeBuffer code, String name, String desc, boolean isstatic) {
+        jvmVersion.checkSupports(StandardAttribute.Code);
+        if (OPTION(GlobalOption.SKIP_CODE)) {
+            jp.appendComment(GlobalOption.SKIP_CODE);
+            return;
+        }
+        CodePrinter.getInstance(jp, jvmVersion, pool, annotator, classname, isstatic, name, desc)
+                .print(code);
+    }
+    
+    private void printMethod() {
+        jp.blankline();
+        int maccess = members.nextUnsignedShort();
+        String name = pool.utf8(members.nextUnsignedShort());
+        String desc = pool.utf8(members.nextUnsignedShort());
+        Attributes attrs = Attributes.read(METHOD, members);
+        maccess = attrs.access(maccess);
+        LOGGER().setLine("method " + name);
+        AccessFlags accflags = AccessFlag.getAccessFlags(maccess,METHOD,jvmVersion);
+        jp.append(dir_method)
+                .appendFlags(accflags)
+                .appendName(name + desc);
+        String line = jp.line();
+        jp.nl();
+        LOGGER().setLine(line);
+        LOGGER().pushContext();
+        AttributeBuffer signature = attrs.get(Signature);
+        jp.incrDepth()
+                .appendDir(dir_signature,signature == null? null: pool.utf8(signature.nextUnsignedShort()))
+                .appendDirArray(dir_throws, classNames(attrs.get(Exceptions)));
+        printParameters(attrs.get(MethodParameters));
+        annotator.printDefaultAnnotation(attrs.get(AnnotationDefault), desc);
+        annotator.printAnnotations(attrs.get(RuntimeVisibleAnnotations),
+                attrs.get(RuntimeInvisibleAnnotations));
+        annotator.printTypeAnnotations(attrs.get(RuntimeVisibleTypeAnnotations),
+                attrs.get(RuntimeInvisibleTypeAnnotations));
+        annotator.printParamAnnotations(attrs.get(RuntimeVisibleParameterAnnotations),
+                attrs.get(RuntimeInvisibleParameterAnnotations), Type.getArgumentTypes(desc).length);
+        boolean isAbstract = accflags.contains(acc_abstract) || accflags.contains(acc_native);
+        if (!isAbstract) {
+            jp.incrDepth();
+            printCode(attrs.get(Code), name, desc, accflags.contains(acc_static));
+            jp.decrDepth();
+        }
+        jp.decrDepth();
+        jp.append(end_method).nl();
+        LOGGER().popContext();
+    }
+
+    private String moduleName(Buffer buffer) {
+        return pool.indirectUtf8(buffer.nextUnsignedShort());
+    }
+    
+    private List<String> moduleNames(Buffer buffer) {
+        List<String> names = new ArrayList<>();
+        int ct = buffer.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            names.add(moduleName(buffer));
+        }
+        return names;
+    }
+    
+    private void printModuleInfo() {
+        AttributeBuffer module = classattrs.get(Module);
+        String name = moduleName(module);
+        int maccess = module.nextUnsignedShort();
+        String version = pool.optUtf8(module.nextUnsignedShort());
+        AccessFlags accflags = AccessFlag.getAccessFlags(maccess, MODULE,jvmVersion);
+        jp.append(dir_module)
+                .appendFlags(accflags)
+                .appendName(name)
+                .appendNonNull(version)
+                .nl()
+                .incrDepth();
+        jp.appendDir(dir_main,optClassName(ModuleMainClass));
+        int ct = module.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String requires = moduleName(module);
+            accflags = AccessFlag.getAccessFlags(module.nextUnsignedShort(), REQUIRE,jvmVersion);
+            jp.append(dir_requires)
+                    .appendFlags(accflags)
+                    .appendName(requires)
+                    .appendNonNull(pool.optUtf8(module.nextUnsignedShort()))
+                    .nl();
+        }
+        ct = module.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String packaze = moduleName(module);
+            accflags = AccessFlag.getAccessFlags(module.nextUnsignedShort(), EXPORT,jvmVersion);
+            jp.append(dir_exports)
+                    .appendFlags(accflags)
+                    .appendName(packaze)
+                    .appendRWArray(res_to, moduleNames(module));
+        }
+        ct = module.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String packaze = moduleName(module);
+            accflags = AccessFlag.getAccessFlags(module.nextUnsignedShort(), OPEN,jvmVersion);
+            jp.append(dir_opens)
+                    .appendFlags(accflags)
+                    .appendName(packaze)
+                    .appendRWArray(res_to, moduleNames(module));
+        }
+        for (String use:moduleNames(module)) {
+            jp.append(dir_uses).append(use).nl();
+        }
+        ct = module.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            String service = moduleName(module);
+            jp.append(dir_provides)
+                    .append(service)
+                    .appendRWArray(res_with, moduleNames(module));
+        }
+        AttributeBuffer packages = classattrs.get(ModulePackages);
+        if (packages != null) {
+            jp.appendDirArray(dir_packages, moduleNames(packages));
+        }
+        jp.decrDepth().append(end_module).nl();
+    }
+
+    private void printVersionSource() {
+        EnumSet<GlobalOption> options = OPTIONS();
+        // "options = %s"
+        LOG(M88, options);
+        jp.appendComment("options = " + options.toString())
+                // "Jynx %s %s"
+                .comment(M192, Global.MAIN_OPTION().name(), Global.MAIN_OPTION().version())
+                .append(dir_version)
+                .append(jvmVersion.asJava());
+        options.stream()
+                .filter(GlobalOption::isExternal)
+                .filter(opt -> MainOption.ASSEMBLY.usesOption(opt))
+                .filter(opt-> opt != GlobalOption.SYSIN && opt != GlobalOption.BINARY)
+                .forEach(jp::append);
+        jp.nl()
+                .appendDir(dir_source, optUtf8(SourceFile));
+    }
+    
+    static boolean printClass(PrintWriter pw, String fname) {
+        byte[] ba;
+        try {
+            ba = ClassUtil.getClassBytes(fname);
+        } catch (IOException ex) {
+            LOG(M238,ex.getMessage()); // "error reading class file: %s"
+            return false;
+        }
+        DisassembleClassEvent event = new DisassembleClassEvent();
+        event.begin();
+        ClassPrinter printer = null;
+        boolean success = false;
+        try {
+            printer = getInstance(ba, pw);
+            success = printer.print();
+            return success;
+        } catch (Exception ex) {
+            LOG(ex);
+            LOG(M237,fname); // "error accepting class file: %s"
+            return false;
+        } finally {
+            if (event.shouldCommit()) {
+                event.className = printer == null? fname: printer.classname;
+                event.methodCount = printer == null? 0: printer.methodct;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+}
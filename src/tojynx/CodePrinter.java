@@ -0,0 +1,690 @@
+package tojynx;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+import org.objectweb.asm.ConstantDynamic;
+
+import static jvm.StandardAttribute.*;
+import static jynx.Directive.*;
+import static jynx.Global.*;
+import static jynx.Message.*;
+import static jynx.ReservedWord.*;
+
+import asm2jynx.JynxStringBuilder;
+import asm2jynx.Object2String;
+import checker.AttributeBuffer;
+import checker.Buffer;
+import checker.CPEntry;
+import jvm.ConstType;
+import jvm.Context;
+import jvm.Feature;
+import jvm.FrameType;
+import jvm.HandleType;
+import jvm.JvmVersion;
+import jvm.NumType;
+import jvm.OpArg;
+import jvm.TypeRef;
+import jynx.GlobalOption;
+import jynx.LogIllegalArgumentException;
+import jynx2asm.FrameElement;
+import jynx2asm.handles.HandlePart;
+import jynx2asm.handles.LocalMethodHandle;
+import jynx2asm.handles.MethodHandle;
+import jynx2asm.Line;
+import jynx2asm.NameDesc;
+import jynx2asm.ops.JvmOp;
+
+// byte level equivalent of asm2jynx.Insn2Jynx and the code part of asm2jynx.JynxMethodPrinter
+class CodePrinter {
+
+    private final JynxStringBuilder lb;
+    private final JvmVersion jvmVersion;
+    private final PoolObjects pool;
+    private final Object2String o2s;
+    private final AnnotationPrinter annotator;
+
+    private final Map<Integer, String> labelMap;
+    private final List<int[]> lines;
+    private final List<StackFrame> frames;
+    private final Map<Integer, List<TypeAnnotationRef>> insnAnnotations;
+    private final Map<Integer, List<TypeAnnotationRef>> catchAnnotations;
+    private final List<TypeAnnotationRef> localVarAnnotations;
+    
+    private List<VerificationType> lastLocals;
+    private ByteBuffer code;
+    private int codesz;
+    private BitSet labels;
+    private boolean branches;
+    private StackTracker tracker; // null if SKIP_STACK
+
+    private CodePrinter(JynxStringBuilder lb, JvmVersion jvmversion, PoolObjects pool,
+            AnnotationPrinter annotator, List<VerificationType> initlocals) {
+        this.lb = lb;
+        this.jvmVersion = jvmversion;
+        this.pool = pool;
+        this.o2s = new Object2String();
+        this.annotator = annotator;
+        this.labelMap = new HashMap<>();
+        this.lines = new ArrayList<>();
+        this.frames = new ArrayList<>();
+        this.insnAnnotations = new HashMap<>();
+        this.catchAnnotations = new HashMap<>();
+        this.localVarAnnotations = new ArrayList<>();
+        this.lastLocals = initlocals;
+    }
+
+    static CodePrinter getInstance(JynxStringBuilder lb, JvmVersion jvmversion, PoolObjects pool,
+            AnnotationPrinter annotator, String classname, boolean isstatic, String name, String desc) {
+        LocalMethodHandle lmh = new LocalMethodHandle(name, desc);
+        List<VerificationType> initlocals = new ArrayList<>();
+        for (Object obj : FrameType.getInitFrame(classname, isstatic, lmh)) {
+            if (obj instanceof String) {
+                initlocals.add(new VerificationType(FrameType.ft_Object, (String)obj, 0));
+            } else {
+                initlocals.add(new VerificationType(FrameType.fromAsmType((Integer)obj), null, 0));
+            }
+        }
+        return new CodePrinter(lb, jvmversion, pool, annotator, initlocals);
+    }
+    
+    private static class VerificationType {
+
+        private final FrameType ft;
+        private final String classname;
+        private final int offset;
+
+        private VerificationType(FrameType ft, String classname, int offset) {
+            this.ft = ft;
+            this.classname = classname;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof VerificationType) {
+                VerificationType other = (VerificationType)obj;
+                return ft == other.ft && Objects.equals(classname, other.classname) && offset == other.offset;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ft, classname, offset);
+        }
+
+    }
+    
+    private static class StackFrame {
+        
+        private final int offset;
+        private final List<VerificationType> locals;
+        private final List<VerificationType> stack;
+
+        private StackFrame(int offset, List<VerificationType> locals, List<VerificationType> stack) {
+            this.offset = offset;
+            this.locals = locals;
+            this.stack = stack;
+        }
+        
+    }
+    
+    private static class TypeAnnotationRef {
+
+        private final boolean visible;
+        private final Buffer buffer; // positioned at target_type
+
+        private TypeAnnotationRef(boolean visible, Buffer buffer) {
+            this.visible = visible;
+            this.buffer = buffer;
+        }
+
+    }
+    
+    private String labelName(int offset) {
+        return labelMap.computeIfAbsent(offset,
+                k -> String.format("%cL%d", NameDesc.GENERATED_LABEL_MARKER, labelMap.size()));
+    }
+
+    private void setLabel(int offset) {
+        if (offset < 0 || offset > codesz) {
+            // "label offset (%d) is negative or greater than code size (%d)"
+            throw new LogIllegalArgumentException(M501, offset, codesz);
+        }
+        labels.set(offset);
+    }
+    
+    private void setBranch(int offset) {
+        setLabel(offset);
+        branches = true;
+    }
+
+    private int u1(int pc) {
+        return Byte.toUnsignedInt(code.get(pc));
+    }
+    
+    private int u2(int pc) {
+        return Short.toUnsignedInt(code.getShort(pc));
+    }
+    
+    private int s4(int pc) {
+        return code.getInt(pc);
+    }
+    
+    static JvmOp rawOp(ByteBuffer code, int pc) {
+        int opcode = Byte.toUnsignedInt(code.get(pc));
+        JvmOp jop = JvmOp.getOp(opcode);
+        if (jop == null) {
+            // "invalid opcode %d at offset %d"
+            throw new LogIllegalArgumentException(M637, opcode, pc);
+        }
+        if (jop == JvmOp.opc_wide) {
+            opcode = Byte.toUnsignedInt(code.get(pc + 1));
+            jop = JvmOp.getOp(opcode);
+            if (jop == null) {
+                // "invalid opcode %d at offset %d"
+                throw new LogIllegalArgumentException(M637, opcode, pc + 1);
+            }
+            jop = jop.widePrepended();
+        }
+        return jop;
+    }
+    
+    static int varNumber(ByteBuffer code, int pc, JvmOp jop) {
+        if (jop.isImmediate()) {
+            return jop.numericSuffix();
+        } else if (jop.isWideForm()) {
+            return Short.toUnsignedInt(code.getShort(pc + 2));
+        } else {
+            return Byte.toUnsignedInt(code.get(pc + 1));
+        }
+    }
+
+    private static int padding(int pc) {
+        return 3 - (pc & 3);
+    }
+    
+    // passes branch targets to targetfn and returns offset of next instruction
+    static int scanInsn(ByteBuffer code, int pc, JvmOp jop, IntConsumer targetfn) {
+        switch (jop.args()) {
+            case arg_label:
+                int branch = jop.isWideForm()? code.getInt(pc + 1): code.getShort(pc + 1);
+                targetfn.accept(pc + branch);
+                return pc + jop.length();
+            case arg_switch:
+                int base = pc + 1 + padding(pc);
+                targetfn.accept(pc + code.getInt(base));
+                boolean lookup = jop == JvmOp.asm_lookupswitch;
+                int ct = lookup? code.getInt(base + 4): code.getInt(base + 8) - code.getInt(base + 4) + 1;
+                int next = base + (lookup? 8: 12);
+                for (int i = 0; i < ct; ++i) {
+                    if (lookup) {
+                        next += 4;
+                    }
+                    targetfn.accept(pc + code.getInt(next));
+                    next += 4;
+                }
+                return next;
+            default:
+                return pc + jop.length();
+        }
+    }
+
+    private void scanInstructions() {
+        int pc = 0;
+        while (pc < codesz) {
+            pc = scanInsn(code, pc, rawOp(code, pc), this::setBranch);
+        }
+    }
+
+    private void scanLines(List<AttributeBuffer> lnts) {
+        for (AttributeBuffer lnt : lnts) {
+            int ct = lnt.nextUnsignedShort();
+            for (int i = 0; i < ct; ++i) {
+                int pc = lnt.nextUnsignedShort();
+                int line = lnt.nextUnsignedShort();
+                setLabel(pc);
+                lines.add(new int[]{pc, line});
+            }
+        }
+        lines.sort((l1,l2) -> Integer.compare(l1[0], l2[0]));
+    }
+    
+    private int[] readLocalVars(AttributeBuffer lvt) {
+        if (lvt == null) {
+            return new int[0];
+        }
+        int ct = lvt.nextUnsignedShort();
+        int[] vars = new int[5*ct];
+        for (int i = 0; i < vars.length; ++i) {
+            vars[i] = lvt.nextUnsignedShort();
+        }
+        return vars;
+    }
+    
+    private VerificationType nextVerificationType(Buffer buffer) {
+        FrameType ft = FrameType.fromJVMType(buffer.nextUnsignedByte());
+        switch (ft) {
+            case ft_Object:
+                return new VerificationType(ft, pool.indirectUtf8(buffer.nextUnsignedShort()), 0);
+            case ft_Uninitialized:
+                int offset = buffer.nextUnsignedShort();
+                setLabel(offset);
+                return new VerificationType(ft, null, offset);
+            default:
+                return new VerificationType(ft, null, 0);
+        }
+    }
+    
+    private List<VerificationType> nextVerificationTypes(Buffer buffer, int ct) {
+        List<VerificationType> vtlist = new ArrayList<>();
+        for (int i = 0; i < ct; ++i) {
+            vtlist.add(nextVerificationType(buffer));
+        }
+        return vtlist;
+    }
+    
+    private void scanFrames(AttributeBuffer smt) {
+        if (smt == null) {
+            return;
+        }
+        List<VerificationType> locals = lastLocals;
+        int offset = -1;
+        int ct = smt.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            int type = smt.nextUnsignedByte();
+            List<VerificationType> stack = new ArrayList<>();
+            int delta;
+            if (type < 64) { // same_frame
+                delta = type;
+            } else if (type < 128) { // same_locals_1_stack_item_frame
+                delta = type - 64;
+                stack = nextVerificationTypes(smt, 1);
+            } else if (type < 247) {
+                // "invalid stack map frame type %d at offset %d"
+                throw new LogIllegalArgumentException(M638, type, offset + 1);
+            } else if (type == 247) { // same_locals_1_stack_item_frame_extended
+                delta = smt.nextUnsignedShort();
+                stack = nextVerificationTypes(smt, 1);
+            } else if (type < 251) { // chop_frame
+                delta = smt.nextUnsignedShort();
+                int chop = Math.max(0, locals.size() - (251 - type));
+                locals = locals.subList(0, chop);
+            } else if (type == 251) { // same_frame_extended
+                delta = smt.nextUnsignedShort();
+            } else if (type < 255) { // append_frame
+                delta = smt.nextUnsignedShort();
+                List<VerificationType> appended = new ArrayList<>(locals);
+                appended.addAll(nextVerificationTypes(smt, type - 251));
+                locals = appended;
+            } else { // full_frame
+                delta = smt.nextUnsignedShort();
+                locals = nextVerificationTypes(smt, smt.nextUnsignedShort());
+                stack = nextVerificationTypes(smt, smt.nextUnsignedShort());
+            }
+            offset += delta + 1;
+            setLabel(offset);
+            frames.add(new StackFrame(offset, locals, stack));
+        }
+    }
+
+    private void scanTypeAnnotations(boolean visible, AttributeBuffer attrbuff) {
+        if (attrbuff == null) {
+            return;
+        }
+        int ct = attrbuff.nextUnsignedShort();
+        for (int i = 0; i < ct; ++i) {
+            Buffer annotation = new Buffer(pool.pool(), attrbuff.bb().duplicate());
+            TypeAnnotationRef taref = new TypeAnnotationRef(visible, annotation);
+            TypeRef tr = AnnotationPrinter.peekTypeRef(attrbuff);
+            if (AnnotationPrinter.isLocalVar(tr)) {
+                Buffer table = new Buffer(pool.pool(), attrbuff.bb().duplicate());
+                table.nextUnsignedByte();
+                int entries = table.nextUnsignedShort();
+                for (int j = 0; j < entries; ++j) {
+                    int start = table.nextUnsignedShort();
+                    int length = table.nextUnsignedShort();
+                    table.nextUnsignedShort(); // index
+                    setLabel(start);
+                    setLabel(start + length);
+                }
+                localVarAnnotations.add(taref);
+            } else {
+                int key = AnnotationPrinter.peekTypeRefKey(attrbuff);
+                Map<Integer, List<TypeAnnotationRef>> annotations = tr == TypeRef.trt_except?
+                        catchAnnotations: insnAnnotations;
+                annotations.computeIfAbsent(key, k -> new ArrayList<>()).add(taref);
+            }
+            AnnotationPrinter.skipTypeAnnotation(attrbuff);
+        }
+    }
+    
+    void print(AttributeBuffer codeattr) {
+        if (codeattr == null) {
+            printLimits(0, 0);
+            return;
+        }
+        int maxstack = codeattr.nextUnsignedShort();
+        int maxlocals = codeattr.nextUnsignedShort();
+        codesz = codeattr.nextSize();
+        code = codeattr.bb().slice();
+        code.limit(codesz);
+        codeattr.advance(codesz);
+        int ct = codeattr.nextUnsignedShort();
+        int[] catches = new int[4*ct];
+        for (int i = 0; i < catches.length; ++i) {
+            catches[i] = codeattr.nextUnsignedShort();
+        }
+        Attributes attrs = Attributes.read(Context.CODE, codeattr);
+
+        labels = new BitSet(codesz + 1);
+        for (int i = 0; i < catches.length; i += 4) {
+            setLabel(catches[i]);
+            setLabel(catches[i + 1]);
+            setLabel(catches[i + 2]);
+        }
+        scanInstructions();
+        scanLines(attrs.getAll(LineNumberTable));
+        int[] lvt = readLocalVars(attrs.get(LocalVariableTable));
+        for (int i = 0; i < lvt.length; i += 5) {
+            setLabel(lvt[i]);
+            setLabel(lvt[i] + lvt[i + 1]);
+        }
+        int[] lvtt = readLocalVars(attrs.get(LocalVariableTypeTable));
+        scanFrames(attrs.get(StackMapTable));
+        scanTypeAnnotations(true, attrs.get(RuntimeVisibleTypeAnnotations));
+        scanTypeAnnotations(false, attrs.get(RuntimeInvisibleTypeAnnotations));
+        if (!OPTION(GlobalOption.SKIP_STACK)) {
+            tracker = StackTracker.getInstance(code, codesz, pool, frameElements(lastLocals));
+            if (frames.isEmpty() && (branches || catches.length != 0)) {
+                tracker.scan(catches);
+            }
+        }
+
+        printCatchBlocks(catches);
+        printInstructions();
+        printLocalVariables(lvt, lvtt);
+        printLimits(maxlocals, maxstack);
+    }
+
+    private void printLimits(int maxlocals, int maxstack) {
+        lb.append(dir_limit)
+            .append(res_locals, maxlocals)
+            .nl()
+            .append(dir_limit)
+            .append(res_stack, maxstack)
+            .nl();
+    }
+    
+    private void printTypeAnnotations(List<TypeAnnotationRef> tarefs) {
+        if (tarefs == null) {
+            return;
+        }
+        for (TypeAnnotationRef taref : tarefs) {
+            annotator.printTypeAnnotation(taref.visible, taref.buffer);
+        }
+    }
+    
+    private void printCatchBlocks(int[] catches) {
+        for (int i = 0; i < catches.length; i += 4) {
+            int type = catches[i + 3];
+            String exception = type == 0? res_all.externalName(): pool.indirectUtf8(type);
+            lb.append(dir_catch)
+                    .append(exception)
+                    .append(res_from).append(labelName(catches[i]))
+                    .append(res_to).append(labelName(catches[i + 1]))
+                    .append(res_using).append(labelName(catches[i + 2]))
+                    .nl();
+            printTypeAnnotations(catchAnnotations.get(i/4));
+        }
+    }
+
+    private void printLocalVariables(int[] lvt, int[] lvtt) {
+        lb.incrDepth();
+        for (int i = 0; i < lvt.length; i += 5) {
+            int start = lvt[i];
+            int index = lvt[i + 4];
+            String signature = null;
+            for (int j = 0; j < lvtt.length; j += 5) {
+                if (lvtt[j] == start && lvtt[j + 4] == index) {
+                    signature = pool.utf8(lvtt[j + 3]);
+                    break;
+                }
+            }
+            lb.append(dir_var)
+                    .append(index)
+                    .append(res_is, pool.utf8(lvt[i + 2]))
+                    .append(pool.utf8(lvt[i + 3]))
+                    .append(res_signature, signature)
+                    .append(res_from).append(labelName(start))
+                    .append(res_to).append(labelName(start + lvt[i + 1]))
+                    .nl();
+        }
+        lb.decrDepth();
+        for (TypeAnnotationRef taref : localVarAnnotations) {
+            annotator.printLocalVarAnnotation(taref.visible, taref.buffer, this::labelName);
+        }
+    }
+
+    private void printInstructions() {
+        int lineindex = 0;
+        int frameindex = 0;
+        int pc = 0;
+        while (true) {
+            if (labels.get(pc)) {
+                lb.append(labelName(pc) + Line.LABEL_INDICATOR).nl();
+            }
+            for (; lineindex < lines.size() && lines.get(lineindex)[0] <= pc; ++lineindex) {
+                int[] line = lines.get(lineindex);
+                if (line[0] == pc) {
+                    lb.append(dir_line).append(line[1]).nl();
+                }
+            }
+            if (pc >= codesz) {
+                break;
+            }
+            for (; frameindex < frames.size() && frames.get(frameindex).offset <= pc; ++frameindex) {
+                StackFrame frame = frames.get(frameindex);
+                if (frame.offset == pc) {
+                    printFrame(frame);
+                    if (tracker != null) {
+                        tracker.visitFrame(frameElements(frame.locals), frameElements(frame.stack));
+                    }
+                }
+            }
+            int next = printInsn(pc);
+            lb.incrDepth();
+            printTypeAnnotations(insnAnnotations.get(pc));
+            printStack(pc);
+            lb.decrDepth();
+            pc = next;
+        }
+    }
+    
+    private static List<FrameElement> frameElements(List<VerificationType> vts) {
+        List<FrameElement> fes = new ArrayList<>(vts.size());
+        for (VerificationType vt : vts) {
+            fes.add(FrameElement.fromFrame(vt.ft));
+        }
+        return fes;
+    }
+
+    private void printStack(int pc) {
+        if (tracker == null) {
+            return;
+        }
+        String stack = tracker.step(pc, rawOp(code, pc));
+        if (stack != null) {
+            lb.comment(M608, pc, stack); // "bci -> %d stack -> %s"
+        }
+    }
+
+    private void append(VerificationType vt) {
+        lb.append(vt.ft);
+        switch (vt.ft) {
+            case ft_Object:
+                lb.append(vt.classname);
+                break;
+            case ft_Uninitialized:
+                lb.append(labelName(vt.offset));
+                break;
+            default:
+                break;
+        }
+    }
+    
+    private void printFrame(StackFrame frame) {
+        if (!jvmVersion.supports(StackMapTable)) {
+             // "Version %s does not support %s (supported %s)"
+            LOG(M57,jvmVersion,StackMapTable,StackMapTable.range());
+            return;
+        }
+        List<VerificationType> thislocal = frame.locals;
+        int min = Math.min(lastLocals.size(),thislocal.size());
+        int match;
+        for (match = 0; match < min;++match) {
+            if (!lastLocals.get(match).equals(thislocal.get(match))) {
+                break;
+            }
+        }
+        lb.append(dir_stack).incrDepth();
+        if (match != 0) {
+            lb.append(res_use);
+            if (match != lastLocals.size()) {
+                lb.append(match);
+            }
+            lb.append(res_locals);
+        }
+        lb.nl();
+        lastLocals = thislocal;
+        for (VerificationType vt : thislocal.subList(match, thislocal.size())) {
+            lb.append(res_locals);
+            append(vt);
+            lb.nl();
+        }
+        for (VerificationType vt : frame.stack) {
+            lb.append(res_stack);
+            append(vt);
+            lb.nl();
+        }
+        lb.decrDepth().append(end_stack).nl();
+    }
+
+    private int printInsn(int pc) {
+        JvmOp jop = rawOp(code, pc);
+        JvmOp asmop = JvmOp.getInstance(jop.asmOpcode(), jvmVersion);
+        OpArg oparg = asmop.args();
+        int next = pc + jop.length();
+        lb.incrDepth();
+        switch(oparg) {
+            case arg_atype:
+                NumType type = NumType.getInstance(u1(pc + 1));
+                lb.append(asmop).append(type.classType()).nl();
+                break;
+            case arg_byte:
+                lb.append(asmop).append(code.get(pc + 1)).nl();
+                break;
+            case arg_callsite:
+                jvmVersion.checkSupports(Feature.invokeDynamic);
+                ConstantDynamic cd = pool.dynamic(pool.pool().getEntry(u2(pc + 1)));
+                lb.append(asmop).appendRaw(o2s.constDynamic2String(cd)).nl();
+                break;
+            case arg_class:
+                lb.append(asmop).append(pool.indirectUtf8(u2(pc + 1))).nl();
+                break;
+            case arg_constant:
+                int index = jop == JvmOp.asm_ldc? u1(pc + 1): u2(pc + 1);
+                Object cst = pool.constant(index);
+                JvmOp ldcop = asmop;
+                if (ConstType.getLDCsz(cst) == 2) {
+                    ldcop = JvmOp.opc_ldc2_w;
+                    CHECK_SUPPORTS(ldcop);
+                }
+                lb.append(ldcop).appendRaw(o2s.asm2String(cst)).nl();
+                break;
+            case arg_field:
+                String[] ond = pool.member(pool.pool().getEntry(u2(pc + 1)));
+                lb.append(asmop).append(HandlePart.ownerName(ond[0], ond[1])).append(ond[2]).nl();
+                break;
+            case arg_incr:
+                int var = jop.isWideForm()? u2(pc + 2): u1(pc + 1);
+                int incr = jop.isWideForm()? code.getShort(pc + 4): code.get(pc + 2);
+                lb.append(asmop.exactIncr(var, incr)).append(var).append(incr).nl();
+                break;
+            case arg_label:
+                int branch = jop.isWideForm()? s4(pc + 1): code.getShort(pc + 1);
+                lb.append(asmop).append(labelName(pc + branch)).nl();
+                break;
+            case arg_marray:
+                lb.append(asmop).append(pool.indirectUtf8(u2(pc + 1))).append(u1(pc + 3)).nl();
+                break;
+            case arg_method:
+            case arg_interface:
+                CPEntry cp = pool.pool().getEntry(u2(pc + 1));
+                String[] mond = pool.member(cp);
+                boolean itf = pool.isInterface(cp);
+                MethodHandle mh = new MethodHandle(mond[0], mond[1], mond[2], itf, HandleType.fromOp(asmop, itf));
+                lb.append(asmop).append(mh.iond()).nl();
+                break;
+            case arg_none:
+            case arg_stack:
+                lb.append(asmop).nl();
+                break;
+            case arg_short:
+                lb.append(asmop).append(code.getShort(pc + 1)).nl();
+                break;
+            case arg_switch:
+                next = printSwitch(pc, asmop);
+                break;
+            case arg_var:
+                int v = varNumber(code, pc, jop);
+                JvmOp varop = asmop.exactVar(v);
+                if (varop.isImmediate()) {
+                    lb.append(varop).nl();
+                } else {
+                    lb.append(varop).append(v).nl();
+                }
+                break;
+            default:
+                throw new EnumConstantNotPresentException(oparg.getClass(), oparg.name());
+        }
+        lb.decrDepth();
+        return next;
+    }
+
+    private int printSwitch(int pc, JvmOp asmop) {
+        int base = pc + 1 + padding(pc);
+        lb.append(asmop)
+                .append(res_default).append(labelName(pc + s4(base)))
+                .append(dot_array)
+                .nl();
+        boolean lookup = asmop == JvmOp.asm_lookupswitch;
+        int low = lookup? 0: s4(base + 4);
+        int ct = lookup? s4(base + 4): s4(base + 8) - low + 1;
+        int next = base + (lookup? 8: 12);
+        lb.incrDepth();
+        for (int i = 0; i < ct; ++i) {
+            int key = low + i;
+            if (lookup) {
+                key = s4(next);
+                next += 4;
+            }
+            lb.append(key)
+                    .append(right_arrow).append(labelName(pc + s4(next)))
+                    .nl();
+            next += 4;
+        }
+        lb.decrDepth();
+        lb.append(end_array)
+                .nl();
+        return next;
+    }
+    
+}
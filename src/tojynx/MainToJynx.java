@@ -0,0 +1,27 @@
+package tojynx;
+
+import java.io.PrintWriter;
+
+import static jynx.Global.OPTION;
+import static jynx.GlobalOption.BINARY;
+
+import jynx.JynxBinaryWriter;
+import jynx.MainOption;
+import jynx.MainOptionService;
+
+public class MainToJynx implements MainOptionService {
+
+    @Override
+    public MainOption main() {
+        return MainOption.TOJYNX;
+    }
+
+    @Override
+    public boolean call(String fname, PrintWriter pw) {
+        if (OPTION(BINARY)) {
+            pw = new PrintWriter(new JynxBinaryWriter(System.out));
+        }
+        return ClassPrinter.printClass(pw,fname);
+    }
+
+}
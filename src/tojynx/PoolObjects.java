@@ -0,0 +1,126 @@
+package tojynx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Type;
+
+import static jvm.ConstantPoolType.CONSTANT_InterfaceMethodref;
+
+import checker.CPEntry;
+import checker.ConstantPool;
+import jvm.ConstantPoolType;
+
+class PoolObjects {
+
+    private final ConstantPool pool;
+    private final Object[] constants;
+    private final List<int[]> bootstraps;
+
+    PoolObjects(ConstantPool pool) {
+        this.pool = pool;
+        this.constants = new Object[pool.last() + 1];
+        this.bootstraps = new ArrayList<>();
+    }
+
+    void addBootstrap(int[] bootstrap) {
+        bootstraps.add(bootstrap);
+    }
+    
+    ConstantPool pool() {
+        return pool;
+    }
+    
+    private static int[] indices(CPEntry cp) {
+        return (int[])cp.getValue();
+    }
+    
+    String utf8(int index) {
+        return (String)pool.getValue(index);
+    }
+
+    String indirectUtf8(int index) {
+        return utf8(indices(pool.getEntry(index))[0]);
+    }
+    
+    String optIndirectUtf8(int index) {
+        return index == 0? null: indirectUtf8(index);
+    }
+    
+    String optUtf8(int index) {
+        return index == 0? null: utf8(index);
+    }
+    
+    String name(int natindex) {
+        return utf8(indices(pool.getEntry(natindex))[0]);
+    }
+    
+    String desc(int natindex) {
+        return utf8(indices(pool.getEntry(natindex))[1]);
+    }
+
+    // Fieldref, Methodref or InterfaceMethodref as {owner, name, desc}
+    String[] member(CPEntry cp) {
+        int[] ind = indices(cp);
+        int nat = ind[1];
+        return new String[]{indirectUtf8(ind[0]), name(nat), desc(nat)};
+    }
+    
+    boolean isInterface(CPEntry cp) {
+        return cp.getType() == CONSTANT_InterfaceMethodref;
+    }
+    
+    Object constant(int index) {
+        Object cst = constants[index];
+        if (cst == null) {
+            cst = constant(pool.getEntry(index));
+            constants[index] = cst;
+        }
+        return cst;
+    }
+    
+    private Object constant(CPEntry cp) {
+        ConstantPoolType cpt = cp.getType();
+        switch (cpt) {
+            case CONSTANT_Integer:
+            case CONSTANT_Float:
+            case CONSTANT_Long:
+            case CONSTANT_Double:
+                return cp.getValue();
+            case CONSTANT_String:
+                return utf8(indices(cp)[0]);
+            case CONSTANT_Class:
+                return Type.getObjectType(utf8(indices(cp)[0]));
+            case CONSTANT_MethodType:
+                return Type.getMethodType(utf8(indices(cp)[0]));
+            case CONSTANT_MethodHandle:
+                return handle(cp);
+            case CONSTANT_Dynamic:
+                return dynamic(cp);
+            default:
+                throw new EnumConstantNotPresentException(cpt.getClass(), cpt.name());
+        }
+    }
+    
+    private Handle handle(CPEntry cp) {
+        int[] ind = indices(cp);
+        CPEntry refcp = pool.getEntry(ind[1]);
+        String[] ond = member(refcp);
+        return new Handle(ind[0], ond[0], ond[1], ond[2], isInterface(refcp));
+    }
+
+    // CONSTANT_Dynamic or CONSTANT_InvokeDynamic
+    ConstantDynamic dynamic(CPEntry cp) {
+        int[] ind = indices(cp);
+        int[] bootstrap = bootstraps.get(ind[0]);
+        Handle bsm = (Handle)constant(bootstrap[0]);
+        Object[] args = new Object[bootstrap.length - 1];
+        for (int i = 0; i < args.length; ++i) {
+            args[i] = constant(bootstrap[i + 1]);
+        }
+        return new ConstantDynamic(name(ind[1]), desc(ind[1]), bsm, args);
+    }
+    
+}
@@ -0,0 +1,344 @@
+package tojynx;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Type;
+
+import jvm.ConstType;
+import jvm.Context;
+import jynx.LogIllegalStateException;
+import jynx2asm.FrameElement;
+import jynx2asm.frame.OperandStack;
+import jynx2asm.frame.OperandStackFrame;
+import jynx2asm.ops.JvmOp;
+
+// operand stack after each instruction, simulated forward from each stack map frame
+//  using the transfer functions of jynx2asm.frame.OperandStack
+// without a StackMapTable the stack at each branch target is found first by scan()
+class StackTracker {
+
+    private static class Entry {
+
+        private final OperandStackFrame stack;
+        private final FrameElement[] locals;
+
+        private Entry(OperandStackFrame stack, FrameElement[] locals) {
+            this.stack = stack;
+            this.locals = locals;
+        }
+
+    }
+
+    private final ByteBuffer code;
+    private final int codesz;
+    private final PoolObjects pool;
+    private final OperandStack stack;
+    private final Map<Integer, Entry> entries; // only used if no StackMapTable
+    private final Deque<Integer> pending;
+    private final BitSet visited; // only used if no StackMapTable
+
+    private FrameElement[] locals;
+    private boolean known;
+    private boolean recording;
+    private boolean stale;
+
+    private StackTracker(ByteBuffer code, int codesz, PoolObjects pool, FrameElement[] locals) {
+        this.code = code;
+        this.codesz = codesz;
+        this.pool = pool;
+        this.stack = OperandStack.getInstance();
+        this.entries = new HashMap<>();
+        this.pending = new ArrayDeque<>();
+        this.visited = new BitSet(codesz);
+        this.locals = locals;
+        this.known = true;
+        this.recording = false;
+    }
+
+    static StackTracker getInstance(ByteBuffer code, int codesz, PoolObjects pool, List<FrameElement> initlocals) {
+        FrameElement[] locals = fromFrameLocals(initlocals);
+        StackTracker tracker = new StackTracker(code, codesz, pool, locals);
+        tracker.stack.restart(OperandStackFrame.EMPTY);
+        return tracker;
+    }
+
+    // long and double take one entry in a frame but two local slots
+    private static FrameElement[] fromFrameLocals(List<FrameElement> framelocals) {
+        FrameElement[] locals = new FrameElement[2*framelocals.size()];
+        int slot = 0;
+        for (FrameElement fe : framelocals) {
+            locals[slot++] = fe;
+            if (fe.isTwo()) {
+                locals[slot++] = FrameElement.TOP;
+            }
+        }
+        return Arrays.copyOf(locals, slot);
+    }
+
+    void visitFrame(List<FrameElement> framelocals, List<FrameElement> framestack) {
+        locals = fromFrameLocals(framelocals);
+        stack.restart(new OperandStackFrame(framestack.toArray(new FrameElement[0])));
+        known = true;
+    }
+
+    // computes stack at start of each basic block for methods without a StackMapTable
+    // a handler is entered with the locals of each instruction it covers
+    // repeated if the locals of an entry already scanned have changed
+    void scan(int[] catches) {
+        recording = true;
+        FrameElement[] initlocals = locals.clone();
+        do {
+            stale = false;
+            visited.clear();
+            locals = initlocals.clone();
+            stack.restart(OperandStackFrame.EMPTY);
+            record(0);
+            while (!pending.isEmpty()) {
+                int pc = pending.removeFirst();
+                restore(entries.get(pc));
+                while (known && pc < codesz && !visited.get(pc)) {
+                    visited.set(pc);
+                    recordHandlers(catches, pc);
+                    JvmOp jop = CodePrinter.rawOp(code, pc);
+                    step(pc, jop);
+                    pc = CodePrinter.scanInsn(code, pc, jop, target -> {});
+                }
+            }
+        } while (stale);
+        recording = false;
+        restore(entries.get(0));
+    }
+
+    private void recordHandlers(int[] catches, int pc) {
+        for (int i = 0; i < catches.length; i += 4) {
+            if (pc >= catches[i] && pc < catches[i + 1]) {
+                record(catches[i + 2], OperandStackFrame.EXCEPTION);
+            }
+        }
+    }
+
+    private void record(int target) {
+        record(target, stack.currentFrame());
+    }
+
+    private void record(int target, OperandStackFrame osf) {
+        Entry entry = entries.get(target);
+        if (entry == null) {
+            entries.put(target, new Entry(osf, locals.clone()));
+            pending.addLast(target);
+            return;
+        }
+        FrameElement[] merged = merge(entry.locals, locals);
+        if (merged != null) {
+            entries.put(target, new Entry(entry.stack, merged));
+        }
+        if (!visited.get(target)) {
+            pending.addLast(target);
+        } else if (merged != null) {
+            stale = true;
+        }
+    }
+
+    // an initialised this on any path is shown as an object; otherwise the first path is kept
+    // returns null if unchanged
+    private static FrameElement[] merge(FrameElement[] was, FrameElement[] now) {
+        FrameElement[] merged = null;
+        int sz = Math.min(was.length, now.length);
+        for (int i = 0; i < sz; ++i) {
+            if (was[i] == FrameElement.THIS && now[i] == FrameElement.OBJECT) {
+                if (merged == null) {
+                    merged = was.clone();
+                }
+                merged[i] = FrameElement.OBJECT;
+            }
+        }
+        return merged;
+    }
+
+    // subroutine is entered with return address on stack
+    private void recordJsr(int target) {
+        if (!entries.containsKey(target)) {
+            FrameElement[] fes = Stream.concat(stack.currentFrame().stream(), Stream.of(FrameElement.RETURN_ADDRESS))
+                    .toArray(FrameElement[]::new);
+            entries.put(target, new Entry(new OperandStackFrame(fes), locals.clone()));
+            pending.addLast(target);
+        }
+    }
+
+    private void restore(Entry entry) {
+        if (entry == null) {
+            known = false;
+        } else {
+            stack.restart(entry.stack);
+            locals = entry.locals.clone();
+            known = true;
+        }
+    }
+
+    private FrameElement local(int var) {
+        return var < locals.length? locals[var]: FrameElement.UNUSED;
+    }
+
+    private void setLocal(int var, FrameElement fe) {
+        int last = fe.isTwo()? var + 1: var;
+        if (last >= locals.length) {
+            int oldsz = locals.length;
+            locals = Arrays.copyOf(locals, last + 1);
+            Arrays.fill(locals, oldsz, locals.length, FrameElement.UNUSED);
+        }
+        locals[var] = fe;
+        if (fe.isTwo()) {
+            locals[var + 1] = FrameElement.TOP;
+        }
+    }
+
+    private void adjustVar(JvmOp asmop, int var) {
+        if (asmop == JvmOp.asm_ret) {
+            return;
+        }
+        char ctype = asmop.vartype();
+        if (asmop.isStoreVar()) {
+            setLocal(var, stack.storeType(ctype));
+        } else {
+            FrameElement fe = FrameElement.fromLocal(ctype);
+            if (fe == FrameElement.OBJECT && local(var) == FrameElement.THIS) {
+                fe = FrameElement.THIS;
+            }
+            stack.load(fe, var);
+        }
+    }
+
+    private FrameElement receiver(String desc) {
+        OperandStackFrame osf = stack.currentFrame();
+        int index = osf.size() - 1 - Type.getArgumentTypes(desc).length;
+        return index >= 0? osf.at(index): FrameElement.ERROR;
+    }
+
+    // after super(...) or this(...) this is an initialised object
+    private void initialisedThis() {
+        for (int i = 0; i < locals.length; ++i) {
+            if (locals[i] == FrameElement.THIS) {
+                locals[i] = FrameElement.OBJECT;
+            }
+        }
+        FrameElement[] fes = stack.currentFrame().stream()
+                .map(fe -> fe == FrameElement.THIS? FrameElement.OBJECT: fe)
+                .toArray(FrameElement[]::new);
+        stack.restart(new OperandStackFrame(fes));
+    }
+
+    private String ldcDesc(Object cst) {
+        if (cst instanceof ConstantDynamic) {
+            return ((ConstantDynamic)cst).getDescriptor();
+        }
+        return ConstType.getFromASM(cst, Context.JVMCONSTANT).getDesc();
+    }
+
+    private void adjust(int pc, JvmOp jop, JvmOp asmop) {
+        switch(asmop.args()) {
+            case arg_callsite:
+                ConstantDynamic cd = pool.dynamic(pool.pool().getEntry(code.getShort(pc + 1) & 0xffff));
+                stack.adjustOperand(cd.getDescriptor());
+                break;
+            case arg_constant:
+                int index = jop == JvmOp.asm_ldc? code.get(pc + 1) & 0xff: code.getShort(pc + 1) & 0xffff;
+                stack.adjustOperand("()" + ldcDesc(pool.constant(index)));
+                break;
+            case arg_field:
+                String[] ond = pool.member(pool.pool().getEntry(code.getShort(pc + 1) & 0xffff));
+                String owner = "L" + ond[0] + ";";
+                switch (asmop) {
+                    case asm_getfield:
+                        stack.adjustOperand(String.format("(%s)%s", owner, ond[2]));
+                        break;
+                    case asm_getstatic:
+                        stack.adjustOperand("()" + ond[2]);
+                        break;
+                    case asm_putfield:
+                        stack.adjustOperand(String.format("(%s%s)V", owner, ond[2]));
+                        break;
+                    case asm_putstatic:
+                        stack.adjustOperand(String.format("(%s)V", ond[2]));
+                        break;
+                    default:
+                        throw new AssertionError();
+                }
+                break;
+            case arg_incr:
+                break;
+            case arg_label:
+                stack.adjustOpDesc(asmop.desc());
+                if (recording) {
+                    boolean jsr = asmop == JvmOp.asm_jsr;
+                    CodePrinter.scanInsn(code, pc, jop, jsr? this::recordJsr: this::record);
+                }
+                break;
+            case arg_marray:
+                char[] dims = new char[code.get(pc + 3) & 0xff];
+                Arrays.fill(dims, 'I');
+                String type = pool.indirectUtf8(code.getShort(pc + 1) & 0xffff);
+                stack.adjustOperand(String.format("(%s)%s", String.valueOf(dims), type));
+                break;
+            case arg_method:
+            case arg_interface:
+                String[] mond = pool.member(pool.pool().getEntry(code.getShort(pc + 1) & 0xffff));
+                String desc = mond[2];
+                if (asmop != JvmOp.asm_invokestatic) {
+                    String ownerL = mond[0].charAt(0) == '['? mond[0]: "L" + mond[0] + ";";
+                    desc = "(" + ownerL + desc.substring(1);
+                }
+                boolean initthis = asmop == JvmOp.asm_invokespecial && mond[1].equals("<init>")
+                        && receiver(mond[2]) == FrameElement.THIS;
+                stack.adjustOperand(desc);
+                if (initthis) {
+                    initialisedThis();
+                }
+                break;
+            case arg_stack:
+                stack.adjustStackOp(asmop);
+                break;
+            case arg_switch:
+                stack.adjustOpDesc(asmop.desc());
+                if (recording) {
+                    CodePrinter.scanInsn(code, pc, jop, this::record);
+                }
+                break;
+            case arg_var:
+                adjustVar(asmop, CodePrinter.varNumber(code, pc, jop));
+                break;
+            default:
+                stack.adjustOpDesc(asmop.desc());
+                break;
+        }
+    }
+
+    // returns stack after instruction or null if not known
+    String step(int pc, JvmOp jop) {
+        if (!known) {
+            restore(recording? null: entries.get(pc));
+            if (!known) {
+                return null;
+            }
+        }
+        JvmOp asmop = JvmOp.getOp(jop.asmOpcode());
+        try {
+            adjust(pc, jop, asmop);
+        } catch (LogIllegalStateException ex) {
+            known = false;
+            return null;
+        }
+        String result = stack.stringForm();
+        known = !asmop.isUnconditional();
+        return result;
+    }
+
+}